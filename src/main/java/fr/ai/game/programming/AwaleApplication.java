@@ -1,8 +1,12 @@
 package fr.ai.game.programming;
 
+import fr.ai.game.programming.display.BoardRenderer;
 import fr.ai.game.programming.game.Game;
+import fr.ai.game.programming.game.GameClock;
 import fr.ai.game.programming.game.GameFactory;
 import fr.ai.game.programming.game.GameMode;
+import fr.ai.game.programming.metrics.MoveLatencies;
+import java.io.IOException;
 import java.util.Scanner;
 
 /**
@@ -10,6 +14,19 @@ import java.util.Scanner;
  */
 public class AwaleApplication {
 
+    private final GameClock clock; // null for games without time limit
+
+    public AwaleApplication() {
+        this(null);
+    }
+
+    /**
+     * @param clock the clock of the game, or null to play without time limit
+     */
+    public AwaleApplication(GameClock clock) {
+        this.clock = clock;
+    }
+
     public void start() {
         System.out.println("Welcome to the Awalé Application.");
         System.out.println("Please choose the Game Mode:");
@@ -36,8 +53,17 @@ public class AwaleApplication {
             default -> null;
         };
 
-        Game game = GameFactory.createAwaleGame(selectedMode);
-        game.start();
+        Game game = GameFactory.createAwaleGame(selectedMode, clock);
+        try (BoardRenderer renderer = BoardRenderer.forConsole()) {
+            game.setRenderer(renderer);
+            game.start();
+        } catch (IOException e) {
+            System.out.println("Could not restore the terminal: " + e.getMessage());
+        }
+        if (!MoveLatencies.global().isEmpty()) {
+            System.out.println("AI move times:");
+            System.out.print(MoveLatencies.global().report());
+        }
 
         scanner.close();
     }
@@ -1,9 +1,49 @@
-package fr.ai.game.programming;
-
-public class Main {
-    public static void main(String[] args) {
-        AwaleApplication application = new AwaleApplication();
-        application.start();
-    }
-}
-
+package fr.ai.game.programming;
+
+import fr.ai.game.programming.analysis.BatchAnalyzer;
+import fr.ai.game.programming.benchmark.PerformanceHarness;
+import fr.ai.game.programming.display.SpectatorDashboard;
+import fr.ai.game.programming.distributed.SearchWorker;
+import fr.ai.game.programming.endgame.EndgameGenerator;
+import fr.ai.game.programming.endgame.EndgameWorker;
+import fr.ai.game.programming.game.GameClock;
+import fr.ai.game.programming.neural.NeuralBenchmark;
+import fr.ai.game.programming.neural.NeuralTrainer;
+import fr.ai.game.programming.server.AwaleServer;
+import fr.ai.game.programming.simulation.RandomPlayouts;
+import fr.ai.game.programming.training.TrainingDataPipeline;
+import fr.ai.game.programming.tuning.WeightTuner;
+
+import java.util.Arrays;
+
+public class Main {
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0].toLowerCase() : "";
+        String[] modeArgs = args.length > 0 ? Arrays.copyOfRange(args, 1, args.length) : args;
+
+        switch (mode) {
+            case "server" -> AwaleServer.run(modeArgs);
+            case "analyze" -> BatchAnalyzer.run(modeArgs);
+            case "tune" -> WeightTuner.run(modeArgs);
+            case "selfplay" -> TrainingDataPipeline.run(modeArgs);
+            case "train-network" -> NeuralTrainer.run(modeArgs);
+            case "bench-eval" -> NeuralBenchmark.run(modeArgs);
+            case "endgame-db" -> EndgameGenerator.run(modeArgs);
+            case "endgame-worker" -> EndgameWorker.run(modeArgs);
+            case "search-worker" -> SearchWorker.run(modeArgs);
+            case "spectate" -> SpectatorDashboard.run(modeArgs);
+            case "playouts" -> RandomPlayouts.run(modeArgs);
+            case "perf" -> PerformanceHarness.run(modeArgs);
+            case "clock" -> {
+                // clock TOTAL_SECONDS [INCREMENT_SECONDS]
+                long totalMs = modeArgs.length > 0 ? Long.parseLong(modeArgs[0]) * 1000 : 300_000;
+                long incrementMs = modeArgs.length > 1 ? Long.parseLong(modeArgs[1]) * 1000 : 0;
+                new AwaleApplication(new GameClock(totalMs, incrementMs)).start();
+            }
+            default -> {
+                AwaleApplication application = new AwaleApplication();
+                application.start();
+            }
+        }
+    }
+}
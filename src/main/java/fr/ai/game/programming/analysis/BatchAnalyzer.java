@@ -0,0 +1,328 @@
+package fr.ai.game.programming.analysis;
+
+import fr.ai.game.programming.distributed.AIManagerDistributed;
+import fr.ai.game.programming.distributed.LocalSearchWorkers;
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionNotation;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.EvaluationCache;
+import fr.ai.game.programming.game.player.EvaluationCacheStore;
+import fr.ai.game.programming.game.player.MultiPvResult;
+import fr.ai.game.programming.game.player.PrincipalVariation;
+import fr.ai.game.programming.game.player.SearchConfig;
+import fr.ai.game.programming.game.player.SearchEngine;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Analyzes a stream of positions in {@link PositionNotation} in parallel and writes one result line per position as
+ * soon as its search has finished, so results arrive in completion order and not in input order.
+ * <p>
+ * Input lines that are empty or start with '#' are skipped. Every result line starts with the line number of the
+ * position in the input:
+ * <pre>
+ *   12 3B score=-35 depth=7 nodes=184223 timeMs=412 nps=447143
+ *   13 over winner=1 reason=Less than 8 seeds remaining
+ *   14 error Expected 16 holes but got 15
+ * </pre>
+ * A trailing {@code timeout} marks searches that were stopped by the time limit.
+ * <p>
+ * With more than one line per position the search ranks the best moves, each with its score and principal
+ * variation:
+ * <pre>
+ *   12 1:3B score=-35 pv=3B,6R,1B 2:5R score=-41 pv=5R,2B,9R depth=7 nodes=201877 timeMs=455 nps=443685
+ * </pre>
+ * With search workers every position is searched by an {@link AIManagerDistributed} instead.
+ * <p>
+ * Engine options change single features of the {@link SearchConfig} of the difficulty, so the effect of a feature can
+ * be measured on the same positions, e.g. {@code --engine ordering=none} or {@code --engine lmr=off,futility=off}.
+ */
+public class BatchAnalyzer {
+
+    private final AIDifficulty difficulty;
+    private final SearchLimits limits;
+    private final int threads;
+    private int lines = 1;
+    private List<InetSocketAddress> searchWorkers = List.of();
+
+    private final AtomicLong analyzedPositions = new AtomicLong();
+    private final AtomicLong failedPositions = new AtomicLong();
+    private final AtomicLong totalNodes = new AtomicLong();
+    private final EvaluationCacheStore evaluationCaches = EvaluationCacheStore.configured(20);
+    private EvaluationCache evaluationCache;
+    private SearchConfig engineConfig; // Replaces the configuration of the difficulty, null to use the difficulty
+
+    /**
+     * @param difficulty the AI used to analyze the positions
+     * @param limits the depth and time limits of every search
+     * @param threads the number of positions analyzed at the same time
+     */
+    public BatchAnalyzer(AIDifficulty difficulty, SearchLimits limits, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.difficulty = difficulty;
+        this.limits = limits;
+        this.threads = threads;
+        this.evaluationCache = evaluationCaches.get(difficulty);
+    }
+
+    /**
+     * Rank the given number of best moves of every position instead of only finding the best one.
+     * @param lines the number of moves, more than one is not supported by the SOLVER
+     */
+    public void setLines(int lines) {
+        if (lines < 1) {
+            throw new IllegalArgumentException("Invalid number of lines: " + lines);
+        }
+        if (lines > 1 && difficulty == AIDifficulty.SOLVER) {
+            throw new IllegalArgumentException("Multiple lines are not supported by the solver");
+        }
+        this.lines = lines;
+    }
+
+    /**
+     * Search with the configuration of the difficulty changed by engine options, see
+     * {@link SearchConfig#withOptions(String)}.
+     */
+    public void setEngineOptions(String options) {
+        if (difficulty == AIDifficulty.SOLVER) {
+            throw new IllegalArgumentException("Engine options are not supported by the solver");
+        }
+        engineConfig = difficulty.config().withOptions(options);
+        if (engineConfig.evaluator().fingerprint() != difficulty.evaluationFingerprint()) {
+            evaluationCache = new EvaluationCache(); // The stored evaluations belong to another evaluation
+        }
+    }
+
+    /**
+     * Distribute the search of every position over the given search workers, see {@link AIManagerDistributed}. Every
+     * thread of the analyzer connects to all workers.
+     */
+    public void setSearchWorkers(List<InetSocketAddress> searchWorkers) {
+        if (!searchWorkers.isEmpty() && lines > 1) {
+            throw new IllegalArgumentException("Multiple lines are not supported by a distributed search");
+        }
+        this.searchWorkers = List.copyOf(searchWorkers);
+    }
+
+    /**
+     * Analyze all positions of the input and stream the results to the output.
+     * @param input the positions, one per line
+     * @param output the stream the results are written to
+     */
+    public void analyze(BufferedReader input, PrintStream output) throws IOException, InterruptedException {
+        // AIManagers are not thread-safe, so every worker thread gets its own, they only share the evaluation cache
+        List<AIManagerDistributed> distributedManagers = new CopyOnWriteArrayList<>();
+        ThreadLocal<AIManager> managers = ThreadLocal.withInitial(() -> {
+            if (searchWorkers.isEmpty()) {
+                return engineConfig != null ? new SearchEngine(engineConfig, false, evaluationCache)
+                        : difficulty.createManager(false, evaluationCache);
+            }
+            try {
+                AIManagerDistributed manager = new AIManagerDistributed(searchWorkers, false);
+                distributedManagers.add(manager);
+                return manager;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not connect to the search workers", e);
+            }
+        });
+        // Limit the positions read ahead of the workers, so huge inputs are never held in memory
+        Semaphore inFlight = new Semaphore(threads * 4);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+
+        try {
+            String line;
+            long lineNumber = 0;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                String position = line.trim();
+                if (position.isEmpty() || position.startsWith("#")) {
+                    continue;
+                }
+
+                inFlight.acquire();
+                long id = lineNumber;
+                workers.execute(() -> {
+                    try {
+                        String result = analyzePosition(managers.get(), position);
+                        write(output, id + " " + result);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            for (AIManagerDistributed manager : distributedManagers) {
+                manager.close();
+            }
+        }
+    }
+
+    private String analyzePosition(AIManager manager, String position) {
+        try {
+            Board board = PositionNotation.parse(position);
+
+            // checkGameStatus may capture the remaining seeds, so check on a copy
+            GameStatus status = board.copy().checkGameStatus();
+            if (status.isGameOver()) {
+                analyzedPositions.incrementAndGet();
+                return "over winner=" + status.winner() + " reason=" + status.reason();
+            }
+
+            if (lines > 1) {
+                return analyzeLines((SearchEngine) manager, board);
+            }
+
+            SearchResult result = manager.search(board, limits);
+            analyzedPositions.incrementAndGet();
+            totalNodes.addAndGet(result.nodes());
+            return result.move().toNotation()
+                    + " score=" + result.score()
+                    + " depth=" + result.depth()
+                    + " nodes=" + result.nodes()
+                    + " timeMs=" + result.timeMs()
+                    + " nps=" + result.nodesPerSecond()
+                    + (result.timeLimitReached() ? " timeout" : "");
+        } catch (RuntimeException e) {
+            // Any failure of a position becomes its error line, the other positions go on
+            failedPositions.incrementAndGet();
+            return "error " + (e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private String analyzeLines(SearchEngine manager, Board board) {
+        MultiPvResult result = manager.searchMultiPv(board, lines, limits);
+        analyzedPositions.incrementAndGet();
+        totalNodes.addAndGet(result.nodes());
+        StringBuilder line = new StringBuilder();
+        List<PrincipalVariation> variations = result.lines();
+        for (int i = 0; i < variations.size(); i++) {
+            PrincipalVariation variation = variations.get(i);
+            line.append(i + 1).append(':').append(variation.move().toNotation())
+                    .append(" score=").append(variation.score())
+                    .append(" pv=").append(variation.toNotation())
+                    .append(' ');
+        }
+        return line.append("depth=").append(result.depth())
+                .append(" nodes=").append(result.nodes())
+                .append(" timeMs=").append(result.timeMs())
+                .append(" nps=").append(result.nodesPerSecond())
+                .append(result.timeLimitReached() ? " timeout" : "")
+                .toString();
+    }
+
+    private static void write(PrintStream output, String line) {
+        synchronized (output) {
+            output.println(line);
+            output.flush();
+        }
+    }
+
+    public long getAnalyzedPositions() {
+        return analyzedPositions.get();
+    }
+
+    public long getFailedPositions() {
+        return failedPositions.get();
+    }
+
+    public long getTotalNodes() {
+        return totalNodes.get();
+    }
+
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    /**
+     * Save the evaluation cache for the next run, if a cache directory is configured (see {@link EvaluationCacheStore}).
+     */
+    public void saveEvaluationCache() {
+        evaluationCaches.saveAll();
+    }
+
+    /**
+     * Run the analysis from the command line:
+     * {@code analyze [--ai LEVEL] [--depth N] [--time MS] [--threads N] [--lines N] [--engine OPTIONS]
+     * [--workers HOST:PORT,...] [--local-workers N] [FILE]}.
+     * Without a file (or with "-") the positions are read from stdin. The results are written to stdout and a summary
+     * to stderr. With {@code --workers} or {@code --local-workers} the searches are distributed over search workers,
+     * the running ones or new ones on this machine.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        AIDifficulty difficulty = AIDifficulty.ULTIMATE;
+        int depth = 0;
+        long timeMs = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int lines = 1;
+        String engineOptions = null;
+        List<InetSocketAddress> searchWorkers = List.of();
+        int localWorkers = 0;
+        String file = "-";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ai" -> difficulty = AIDifficulty.fromName(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--time" -> timeMs = Long.parseLong(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--lines" -> lines = Integer.parseInt(args[++i]);
+                case "--engine" -> engineOptions = args[++i];
+                case "--workers" -> searchWorkers = AIManagerDistributed.parseAddresses(args[++i]);
+                case "--local-workers" -> localWorkers = Integer.parseInt(args[++i]);
+                default -> file = args[i];
+            }
+        }
+
+        SearchLimits limits;
+        if (depth > 0) {
+            limits = new SearchLimits(depth, timeMs > 0 ? timeMs : Long.MAX_VALUE);
+        } else {
+            limits = SearchLimits.ofTime(timeMs > 0 ? timeMs : 2000);
+        }
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(difficulty, limits, threads);
+        analyzer.setLines(lines);
+        if (engineOptions != null) {
+            analyzer.setEngineOptions(engineOptions);
+        }
+        long start = System.nanoTime();
+        try (LocalSearchWorkers local = localWorkers > 0 ? new LocalSearchWorkers(localWorkers, List.of()) : null;
+             BufferedReader input = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            analyzer.setSearchWorkers(local != null ? local.getAddresses() : searchWorkers);
+            analyzer.analyze(input, System.out);
+        }
+        analyzer.saveEvaluationCache();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.err.println("Analyzed " + analyzer.getAnalyzedPositions() + " positions (" + analyzer.getFailedPositions()
+                + " invalid) with " + difficulty + " in " + elapsedMs + " ms, " + analyzer.getTotalNodes() + " nodes, "
+                + String.format(Locale.ROOT, "%.1f%%", analyzer.getEvaluationCache().getHitRate() * 100)
+                + " evaluation cache hits.");
+    }
+}
@@ -0,0 +1,225 @@
+package fr.ai.game.programming.archive;
+
+import fr.ai.game.programming.game.player.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static fr.ai.game.programming.archive.GameRecordFormat.FILE_HEADER_SIZE;
+import static fr.ai.game.programming.archive.GameRecordFormat.MAGIC;
+import static fr.ai.game.programming.archive.GameRecordFormat.RECORD_LENGTH_SIZE;
+import static fr.ai.game.programming.archive.GameRecordFormat.VERSION;
+
+/**
+ * Reads a game archive through memory-mapped windows of the file, so archives of any size can be scanned without
+ * loading them into the heap. {@link #cursor()} visits the records in place without allocating per game;
+ * {@link #iterator()} materializes every game as a {@link GameRecord}.
+ * <p>
+ * A record cut off at the end of the file (e.g. by a crash while appending) ends the iteration.
+ */
+public class GameArchiveReader implements Iterable<GameRecord>, AutoCloseable {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+
+    public GameArchiveReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        checkHeader(channel, file);
+    }
+
+    static void checkHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Read until the header is complete or the file ends
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a game archive: " + file);
+        }
+        if (header.get(4) != VERSION) {
+            throw new IOException("Unsupported game archive version " + header.get(4) + ": " + file);
+        }
+    }
+
+    /**
+     * @return the size of the archive up to the end of its last complete record, smaller than the file if its tail is
+     *         a record cut off by a crash
+     */
+    long completeSize() {
+        Cursor cursor = cursor();
+        long end = FILE_HEADER_SIZE;
+        while (cursor.next()) {
+            end = cursor.nextOffset;
+        }
+        return end;
+    }
+
+    /**
+     * @return a new cursor positioned before the first game
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public Iterator<GameRecord> iterator() {
+        Cursor cursor = cursor();
+        return new Iterator<>() {
+            private boolean fetched;
+            private boolean available;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    available = cursor.next();
+                    fetched = true;
+                }
+                return available;
+            }
+
+            @Override
+            public GameRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                return cursor.toRecord();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Forward-only view on the games of the archive. The accessors read directly from the mapped file and refer to
+     * the game the cursor is positioned on.
+     */
+    public class Cursor {
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long nextOffset = FILE_HEADER_SIZE;
+
+        private int recordStart; // Position of the record (after the length field) in the window
+        private int recordLength;
+        private int reasonStart;
+        private int player1Start;
+        private int player2Start;
+        private int movesStart;
+
+        /**
+         * Move to the next game.
+         * @return false if there are no more games
+         */
+        public boolean next() {
+            long offset = nextOffset;
+            if (offset + RECORD_LENGTH_SIZE > size) {
+                return false;
+            }
+            mapWindow(offset, RECORD_LENGTH_SIZE);
+            int length = window.getInt((int) (offset - windowStart));
+            if (length < GameRecordFormat.FIXED_RECORD_SIZE || offset + RECORD_LENGTH_SIZE + length > size) {
+                return false; // Truncated or corrupt tail
+            }
+            mapWindow(offset, RECORD_LENGTH_SIZE + length);
+
+            recordStart = (int) (offset - windowStart) + RECORD_LENGTH_SIZE;
+            recordLength = length;
+            reasonStart = recordStart + 3;
+            player1Start = reasonStart + 1 + unsigned(reasonStart);
+            player2Start = player1Start + 1 + unsigned(player1Start);
+            movesStart = player2Start + 1 + unsigned(player2Start);
+            nextOffset = offset + RECORD_LENGTH_SIZE + length;
+            return movesStart <= recordStart + recordLength;
+        }
+
+        /**
+         * Make sure the bytes [offset, offset + length) are inside the mapped window.
+         */
+        private void mapWindow(long offset, int length) {
+            if (window != null && offset >= windowStart && offset + length <= windowStart + window.capacity()) {
+                return;
+            }
+            try {
+                long windowLength = Math.min(Math.max(WINDOW_SIZE, length), size - offset);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowLength);
+                windowStart = offset;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not map game archive", e);
+            }
+        }
+
+        private int unsigned(int position) {
+            return window.get(position) & 0xFF;
+        }
+
+        private String string(int start) {
+            byte[] bytes = new byte[unsigned(start)];
+            window.get(start + 1, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public int winner() {
+            return window.get(recordStart);
+        }
+
+        public int player1Seeds() {
+            return unsigned(recordStart + 1);
+        }
+
+        public int player2Seeds() {
+            return unsigned(recordStart + 2);
+        }
+
+        public String reason() {
+            return string(reasonStart);
+        }
+
+        public String player1() {
+            return string(player1Start);
+        }
+
+        public String player2() {
+            return string(player2Start);
+        }
+
+        public int moveCount() {
+            return recordStart + recordLength - movesStart;
+        }
+
+        /**
+         * @return the encoded byte of the move with the given index, see {@link GameRecordFormat#decodeMove(byte)}
+         */
+        public byte encodedMove(int index) {
+            return window.get(movesStart + index);
+        }
+
+        public Move move(int index) {
+            return GameRecordFormat.decodeMove(encodedMove(index));
+        }
+
+        /**
+         * @return the current game copied to the heap
+         */
+        public GameRecord toRecord() {
+            List<Move> moves = new ArrayList<>(moveCount());
+            for (int i = 0; i < moveCount(); i++) {
+                moves.add(move(i));
+            }
+            return new GameRecord(player1(), player2(), winner(), reason(), player1Seeds(), player2Seeds(), moves);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package fr.ai.game.programming.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static fr.ai.game.programming.archive.GameRecordFormat.MAGIC;
+import static fr.ai.game.programming.archive.GameRecordFormat.VERSION;
+
+/**
+ * Appends game records to an archive file, see {@link GameRecordFormat}. Records are buffered and written in large
+ * blocks; an existing archive is continued. A record cut off at the end of an existing archive (e.g. by a crash while
+ * appending) is removed first, otherwise the reader would take the games appended after it as part of it. The writer
+ * can be shared between threads.
+ */
+public class GameArchiveWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long records;
+
+    public GameArchiveWriter(Path file) throws IOException {
+        long end = 0;
+        if (Files.exists(file) && Files.size(file) > 0) {
+            try (GameArchiveReader reader = new GameArchiveReader(file)) {
+                end = reader.completeSize();
+            }
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (end == 0) {
+            channel.truncate(0);
+            buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+        } else {
+            channel.truncate(end);
+            channel.position(end);
+        }
+    }
+
+    /**
+     * Append a game to the archive.
+     * @param record the game
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        int size = GameRecordFormat.encodedSize(record);
+        if (size > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (size > buffer.capacity()) {
+            ByteBuffer large = ByteBuffer.allocate(size);
+            GameRecordFormat.encode(record, large);
+            writeFully(large.flip());
+        } else {
+            GameRecordFormat.encode(record, buffer);
+        }
+        records++;
+    }
+
+    /**
+     * @return the number of games appended by this writer
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Write all buffered games to the file.
+     */
+    public synchronized void flush() throws IOException {
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
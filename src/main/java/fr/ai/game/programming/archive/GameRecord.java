@@ -0,0 +1,28 @@
+package fr.ai.game.programming.archive;
+
+import fr.ai.game.programming.game.player.Move;
+
+import java.util.List;
+
+/**
+ * A finished (or aborted) game as stored in a game archive.
+ *
+ * @param player1      the name of Player 1
+ * @param player2      the name of Player 2
+ * @param winner       1 or 2 for the winner, 0 for a draw, -1 if the game has no result
+ * @param reason       the reason the game ended, as given by the GameStatus
+ * @param player1Seeds the seeds captured by Player 1 at the end of the game
+ * @param player2Seeds the seeds captured by Player 2 at the end of the game
+ * @param moves        all moves of the game in the order they were played
+ */
+public record GameRecord(String player1, String player2, int winner, String reason,
+                         int player1Seeds, int player2Seeds, List<Move> moves) {
+
+    public GameRecord {
+        if (winner < -1 || winner > 2) {
+            throw new IllegalArgumentException("Invalid winner: " + winner);
+        }
+        reason = reason == null ? "" : reason;
+        moves = List.copyOf(moves);
+    }
+}
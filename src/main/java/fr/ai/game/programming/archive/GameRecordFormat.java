@@ -0,0 +1,99 @@
+package fr.ai.game.programming.archive;
+
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.Move;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of game records.
+ * <p>
+ * An archive starts with the magic bytes "AWGR", a version byte and three reserved bytes, followed by the records:
+ * <pre>
+ *   int32   length of the record in bytes, without this field
+ *   int8    winner (0 draw, 1 or 2, -1 no result)
+ *   uint8   seeds captured by Player 1
+ *   uint8   seeds captured by Player 2
+ *   uint8   length + UTF-8 bytes of the reason
+ *   uint8   length + UTF-8 bytes of the name of Player 1
+ *   uint8   length + UTF-8 bytes of the name of Player 2
+ *   uint8[] one byte per move until the end of the record
+ * </pre>
+ * A move byte holds the hole index (0 to 15) in the lower four bits and the seed color in bit 4 (0 blue, 1 red).
+ */
+public final class GameRecordFormat {
+
+    static final int MAGIC = 0x41574752; // "AWGR"
+    static final byte VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int RECORD_LENGTH_SIZE = 4;
+    static final int FIXED_RECORD_SIZE = 6; // winner, both captured seeds and the three string lengths
+
+    private static final int RED_BIT = 0x10;
+    private static final int HOLE_MASK = 0x0F;
+
+    private GameRecordFormat() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encode a move into a single byte.
+     */
+    public static byte encodeMove(Move move) {
+        return (byte) (move.hole() | (move.color() == SeedColor.RED ? RED_BIT : 0));
+    }
+
+    /**
+     * Decode a move from its byte.
+     */
+    public static Move decodeMove(byte encoded) {
+        return new Move(encoded & HOLE_MASK, (encoded & RED_BIT) != 0 ? SeedColor.RED : SeedColor.BLUE);
+    }
+
+    /**
+     * @return the number of bytes of the record, including the length field
+     */
+    static int encodedSize(GameRecord record) {
+        return RECORD_LENGTH_SIZE + FIXED_RECORD_SIZE + utf8(record.reason()).length + utf8(record.player1()).length
+                + utf8(record.player2()).length + record.moves().size();
+    }
+
+    /**
+     * Write a record, including its length field, to the buffer.
+     */
+    static void encode(GameRecord record, ByteBuffer buffer) {
+        byte[] reason = utf8(record.reason());
+        byte[] player1 = utf8(record.player1());
+        byte[] player2 = utf8(record.player2());
+
+        buffer.putInt(FIXED_RECORD_SIZE + reason.length + player1.length + player2.length + record.moves().size());
+        buffer.put((byte) record.winner());
+        buffer.put((byte) record.player1Seeds());
+        buffer.put((byte) record.player2Seeds());
+        putString(buffer, reason);
+        putString(buffer, player1);
+        putString(buffer, player2);
+        for (Move move : record.moves()) {
+            buffer.put(encodeMove(move));
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.put((byte) value.length);
+        buffer.put(value);
+    }
+
+    /**
+     * Encode a string as UTF-8, truncated to the 255 bytes a record can hold.
+     */
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= 255) {
+            return bytes;
+        }
+        byte[] truncated = new byte[255];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        return truncated;
+    }
+}
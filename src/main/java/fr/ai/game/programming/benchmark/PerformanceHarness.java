@@ -0,0 +1,323 @@
+package fr.ai.game.programming.benchmark;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionNotation;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.EvaluationCache;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Performance regression harness: searches every position of the {@link PositionSuite}s with every AI, once to a
+ * fixed depth and once within a fixed time, and compares the measurements with a baseline report of an earlier run.
+ * <p>
+ * The fixed depth searches are deterministic, so their moves, scores and node counts show every change of the play
+ * and of the search tree exactly, while their time (the time to depth) and speed show changes of the throughput. The
+ * fixed time searches show how deep the AI gets in the time of a game move. Every AI first searches the suites
+ * {@code warmup} times within the fixed time, so the measured searches run compiled code, and the fixed depth
+ * searches are repeated, keeping the fastest time of every position, so a single slow pass does not fail a run.
+ * <p>
+ * The SOLVER is not searched by default: a fixed depth search of it is mostly a proof-number search up to its node
+ * limit, which takes seconds per position.
+ */
+public class PerformanceHarness {
+
+    /**
+     * The built-in baseline, the report of the default settings on the built-in suites. Its moves, scores and node
+     * counts hold on every machine; regenerate it with {@code perf --no-baseline --out} after an intended change of the
+     * play or of the search tree.
+     */
+    public static final String BUILT_IN_BASELINE = "/benchmark/baseline.json";
+
+    /**
+     * The regressions a comparison with the baseline fails on. The speed, time and depth within the time depend on
+     * the machine, so their thresholds are {@link Double#NaN}, i.e. not checked, unless they are set.
+     *
+     * @param maxNpsDrop       the share by which the nodes per second of the fixed depth searches of an AI may drop
+     * @param maxTimeIncrease  the share by which the total time to depth of an AI may grow
+     * @param maxNodeIncrease  the share by which the nodes of a fixed depth search may grow
+     * @param maxDepthDrop     the number of plies by which the average depth of the fixed time searches may drop
+     * @param allowPlayChanges whether a fixed depth search may choose another move or score, e.g. after a change of
+     *                         the evaluation
+     */
+    public record Thresholds(double maxNpsDrop, double maxTimeIncrease, double maxNodeIncrease, double maxDepthDrop,
+                             boolean allowPlayChanges) {
+
+        public static Thresholds defaults() {
+            return new Thresholds(Double.NaN, Double.NaN, 0.05, Double.NaN, false);
+        }
+    }
+
+    private final List<PositionSuite> suites;
+    private final List<AIDifficulty> difficulties;
+    private final int depth;
+    private final long timeMs;
+    private final int warmup;
+    private final int repeat;
+
+    /**
+     * @param suites       the positions
+     * @param difficulties the AIs
+     * @param depth        the depth of the fixed depth searches
+     * @param timeMs       the hard time limit of the fixed time searches, the soft limit is half of it
+     * @param warmup       the number of fixed time passes over the suites before the measured ones
+     * @param repeat       the number of fixed depth passes, the fastest time of every position is reported
+     */
+    public PerformanceHarness(List<PositionSuite> suites, List<AIDifficulty> difficulties, int depth, long timeMs,
+                              int warmup, int repeat) {
+        if (depth < 1 || timeMs < 2 || warmup < 0 || repeat < 1) {
+            throw new IllegalArgumentException("Invalid harness settings: depth " + depth + ", time " + timeMs
+                    + " ms, warmup " + warmup + ", repeat " + repeat);
+        }
+        this.suites = List.copyOf(suites);
+        this.difficulties = List.copyOf(difficulties);
+        this.depth = depth;
+        this.timeMs = timeMs;
+        this.warmup = warmup;
+        this.repeat = repeat;
+    }
+
+    /**
+     * Search all positions with all AIs in both modes.
+     */
+    public PerformanceReport run() {
+        SearchLimits depthLimits = SearchLimits.ofDepth(depth);
+        SearchLimits timeLimits = new SearchLimits(0, timeMs, timeMs / 2);
+        List<PerformanceReport.Result> results = new ArrayList<>();
+        for (AIDifficulty difficulty : difficulties) {
+            for (int pass = 0; pass < warmup; pass++) {
+                searchSuites(difficulty, PerformanceReport.TIME_MODE, timeLimits);
+            }
+            // Every pass starts with a new AIManager and an empty evaluation cache, so passes and runs are comparable
+            List<PerformanceReport.Result> fastest = searchSuites(difficulty, PerformanceReport.DEPTH_MODE,
+                    depthLimits);
+            for (int pass = 1; pass < repeat; pass++) {
+                List<PerformanceReport.Result> again = searchSuites(difficulty, PerformanceReport.DEPTH_MODE,
+                        depthLimits);
+                for (int i = 0; i < fastest.size(); i++) {
+                    if (again.get(i).timeUs() < fastest.get(i).timeUs()) {
+                        fastest.set(i, again.get(i));
+                    }
+                }
+            }
+            results.addAll(fastest);
+            results.addAll(searchSuites(difficulty, PerformanceReport.TIME_MODE, timeLimits));
+        }
+        return new PerformanceReport(depth, timeMs, System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(), results);
+    }
+
+    private List<PerformanceReport.Result> searchSuites(AIDifficulty difficulty, String mode, SearchLimits limits) {
+        List<PerformanceReport.Result> results = new ArrayList<>();
+        // Always a cold cache: evaluations kept from another run would make the times incomparable
+        AIManager manager = difficulty.createManager(false, new EvaluationCache());
+        for (PositionSuite suite : suites) {
+            for (int i = 0; i < suite.positions().size(); i++) {
+                String position = suite.positions().get(i);
+                Board board = PositionNotation.parse(position);
+                long start = System.nanoTime();
+                SearchResult result = manager.search(board, limits);
+                long timeUs = (System.nanoTime() - start) / 1000;
+                results.add(new PerformanceReport.Result(difficulty.name(), mode, suite.name(), i, position,
+                        result.move().toNotation(), result.score(), result.depth(), result.nodes(), timeUs,
+                        result.timeLimitReached()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Compare a report with a baseline. Positions which are not in the baseline, or differ from it, are not compared.
+     * @return the regressions, empty if none of the thresholds is exceeded
+     * @throws IllegalArgumentException if the baseline was measured with another depth, or with another time limit
+     * while the depth within the time is compared
+     */
+    public static List<String> compare(PerformanceReport report, PerformanceReport baseline, Thresholds thresholds) {
+        if (!comparable(report.depth(), report.timeMs(), baseline, thresholds)) {
+            throw new IllegalArgumentException("The baseline was measured at depth " + baseline.depth() + " and "
+                    + baseline.timeMs() + " ms, not at depth " + report.depth() + " and " + report.timeMs() + " ms");
+        }
+        List<String> regressions = new ArrayList<>();
+
+        Map<String, PerformanceReport.Result> baselineResults = new HashMap<>();
+        for (PerformanceReport.Result result : baseline.results()) {
+            baselineResults.put(result.key(), result);
+        }
+        for (PerformanceReport.Result result : report.results()) {
+            PerformanceReport.Result base = baselineResults.get(result.key());
+            if (!result.mode().equals(PerformanceReport.DEPTH_MODE) || base == null
+                    || !base.position().equals(result.position())) {
+                continue;
+            }
+            if (!thresholds.allowPlayChanges()
+                    && (!base.move().equals(result.move()) || base.score() != result.score())) {
+                regressions.add(result.key() + ": plays " + result.move() + " (score " + result.score()
+                        + ") instead of " + base.move() + " (score " + base.score() + ")");
+            }
+            if (result.nodes() > base.nodes() * (1 + thresholds.maxNodeIncrease())) {
+                regressions.add(result.key() + ": " + result.nodes() + " nodes instead of " + base.nodes() + " ("
+                        + change(result.nodes(), base.nodes()) + ")");
+            }
+        }
+
+        Map<String, PerformanceReport.Total> baselineTotals = new HashMap<>();
+        for (PerformanceReport.Total total : baseline.totals()) {
+            baselineTotals.put(total.ai() + " " + total.mode(), total);
+        }
+        for (PerformanceReport.Total total : report.totals()) {
+            String key = total.ai() + " " + total.mode();
+            PerformanceReport.Total base = baselineTotals.get(key);
+            if (base == null || base.positions() != total.positions()) {
+                continue;
+            }
+            // The fixed time searches always take about the same time and search a varying number of nodes, so only
+            // their depth is compared
+            if (total.mode().equals(PerformanceReport.DEPTH_MODE) && !Double.isNaN(thresholds.maxNpsDrop())
+                    && total.nodesPerSecond() < base.nodesPerSecond() * (1 - thresholds.maxNpsDrop())) {
+                regressions.add(key + ": " + total.nodesPerSecond() + " nodes/s instead of " + base.nodesPerSecond()
+                        + " (" + change(total.nodesPerSecond(), base.nodesPerSecond()) + ")");
+            }
+            if (total.mode().equals(PerformanceReport.DEPTH_MODE) && !Double.isNaN(thresholds.maxTimeIncrease())
+                    && total.timeUs() > base.timeUs() * (1 + thresholds.maxTimeIncrease())) {
+                regressions.add(key + ": " + total.timeUs() / 1000 + " ms to depth " + report.depth() + " instead of "
+                        + base.timeUs() / 1000 + " ms (" + change(total.timeUs(), base.timeUs()) + ")");
+            }
+            if (total.mode().equals(PerformanceReport.TIME_MODE) && !Double.isNaN(thresholds.maxDepthDrop())
+                    && total.averageDepth() < base.averageDepth() - thresholds.maxDepthDrop()) {
+                regressions.add(key + String.format(Locale.ROOT, ": average depth %.2f instead of %.2f",
+                        total.averageDepth(), base.averageDepth()));
+            }
+        }
+        return regressions;
+    }
+
+    private static boolean comparable(int depth, long timeMs, PerformanceReport baseline, Thresholds thresholds) {
+        return depth == baseline.depth() && (Double.isNaN(thresholds.maxDepthDrop()) || timeMs == baseline.timeMs());
+    }
+
+    private static String change(long value, long base) {
+        return base == 0 ? "new" : String.format(Locale.ROOT, "%+.1f%%", (value - base) * 100.0 / base);
+    }
+
+    /**
+     * Print the totals of a report, with their change against the baseline if there is one.
+     */
+    private static void printTotals(PerformanceReport report, PerformanceReport baseline) {
+        Map<String, PerformanceReport.Total> baselineTotals = new HashMap<>();
+        if (baseline != null) {
+            for (PerformanceReport.Total total : baseline.totals()) {
+                baselineTotals.put(total.ai() + " " + total.mode(), total);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-13s %-5s %9s %12s %10s %10s %6s%n", "AI", "mode", "positions", "nodes",
+                "time ms", "nodes/s", "depth");
+        for (PerformanceReport.Total total : report.totals()) {
+            System.out.printf(Locale.ROOT, "%-13s %-5s %9d %12d %10d %10d %6.2f", total.ai(), total.mode(),
+                    total.positions(), total.nodes(), total.timeUs() / 1000, total.nodesPerSecond(),
+                    total.averageDepth());
+            PerformanceReport.Total base = baselineTotals.get(total.ai() + " " + total.mode());
+            if (base != null) {
+                System.out.printf(Locale.ROOT, "   baseline: nodes %s, time %s, nodes/s %s, depth %+.2f",
+                        change(total.nodes(), base.nodes()), change(total.timeUs(), base.timeUs()),
+                        change(total.nodesPerSecond(), base.nodesPerSecond()),
+                        total.averageDepth() - base.averageDepth());
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Run the harness from the command line:
+     * {@code perf [--ai LEVEL,...] [--depth N] [--time MS] [--suite FILE|DIR] [--warmup N] [--repeat N] [--out FILE]
+     * [--baseline FILE | --no-baseline] [--max-nps-drop R] [--max-time-increase R] [--max-node-increase R]
+     * [--max-depth-drop D] [--allow-play-changes]}.
+     * Without {@code --suite} the built-in suites are used. The report is written to {@code --out} (default
+     * perf-report.json) and compared with the baseline, by default the {@link #BUILT_IN_BASELINE} if it was measured
+     * at the same depth; the run fails with an exception if a threshold is exceeded.
+     */
+    public static void run(String[] args) throws IOException {
+        List<AIDifficulty> difficulties = List.of(AIDifficulty.BEGINNER, AIDifficulty.INTERMEDIATE, AIDifficulty.PRO,
+                AIDifficulty.ULTIMATE);
+        int depth = 5;
+        long timeMs = 200;
+        int warmup = 1;
+        int repeat = 3;
+        Path suitePath = null;
+        Path out = Path.of("perf-report.json");
+        Path baselineFile = null;
+        boolean noBaseline = false;
+        Thresholds defaults = Thresholds.defaults();
+        double maxNpsDrop = defaults.maxNpsDrop();
+        double maxTimeIncrease = defaults.maxTimeIncrease();
+        double maxNodeIncrease = defaults.maxNodeIncrease();
+        double maxDepthDrop = defaults.maxDepthDrop();
+        boolean allowPlayChanges = defaults.allowPlayChanges();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ai" -> difficulties = Arrays.stream(args[++i].split(",")).map(AIDifficulty::fromName).toList();
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--time" -> timeMs = Long.parseLong(args[++i]);
+                case "--suite" -> suitePath = Path.of(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--repeat" -> repeat = Integer.parseInt(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--baseline" -> baselineFile = Path.of(args[++i]);
+                case "--no-baseline" -> noBaseline = true;
+                case "--max-nps-drop" -> maxNpsDrop = Double.parseDouble(args[++i]);
+                case "--max-time-increase" -> maxTimeIncrease = Double.parseDouble(args[++i]);
+                case "--max-node-increase" -> maxNodeIncrease = Double.parseDouble(args[++i]);
+                case "--max-depth-drop" -> maxDepthDrop = Double.parseDouble(args[++i]);
+                case "--allow-play-changes" -> allowPlayChanges = true;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Thresholds thresholds = new Thresholds(maxNpsDrop, maxTimeIncrease, maxNodeIncrease, maxDepthDrop,
+                allowPlayChanges);
+        // Read the baseline first, a broken one should not cost a whole run
+        PerformanceReport baseline = null;
+        String baselineName = null;
+        if (baselineFile != null) {
+            baseline = PerformanceReport.read(baselineFile);
+            baselineName = baselineFile.toString();
+        } else if (!noBaseline) {
+            baseline = PerformanceReport.readBuiltIn(BUILT_IN_BASELINE);
+            baselineName = "the built-in baseline";
+            if (!comparable(depth, timeMs, baseline, thresholds)) {
+                System.out.println("Not comparing with the built-in baseline, it was measured at depth "
+                        + baseline.depth() + " and " + baseline.timeMs() + " ms");
+                baseline = null;
+            }
+        }
+        List<PositionSuite> suites = suitePath != null ? PositionSuite.load(suitePath) : PositionSuite.loadBuiltIn();
+        int positions = suites.stream().mapToInt(suite -> suite.positions().size()).sum();
+        System.out.println("Searching " + positions + " positions with " + difficulties + " at depth " + depth
+                + " and within " + timeMs + " ms");
+
+        PerformanceReport report = new PerformanceHarness(suites, difficulties, depth, timeMs, warmup, repeat).run();
+        report.write(out);
+        printTotals(report, baseline);
+        System.out.println("Report written to " + out.toAbsolutePath());
+
+        if (baseline != null) {
+            List<String> regressions = compare(report, baseline, thresholds);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+                throw new IllegalStateException(regressions.size() + " performance regressions against "
+                        + baselineName);
+            }
+            System.out.println("No regressions against " + baselineName);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package fr.ai.game.programming.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The measurements of a {@link PerformanceHarness} run, stored as JSON so that a later run can be compared with it.
+ * <pre>
+ * {
+ *   "depth": 5, "timeMs": 200, "java": "17.0.9", "cores": 8,
+ *   "totals": [ {"ai": "ULTIMATE", "mode": "depth", "nodes": 1641731, "timeUs": 8301245, "nps": 197769, ...} ],
+ *   "results": [ {"ai": "ULTIMATE", "mode": "depth", "suite": "opening", "index": 0, "position": "...",
+ *                 "move": "3B", "score": -35, "depth": 5, "nodes": 18422, "timeUs": 91544, "timeout": false} ]
+ * }
+ * </pre>
+ * The totals are derived from the results and only written for readers of the file.
+ *
+ * @param depth   the depth of the fixed depth searches
+ * @param timeMs  the time limit of the fixed time searches
+ * @param java    the Java version of the run
+ * @param cores   the number of cores of the machine
+ * @param results the search of every position by every AI in both modes
+ */
+public record PerformanceReport(int depth, long timeMs, String java, int cores, List<Result> results) {
+
+    public static final String DEPTH_MODE = "depth";
+    public static final String TIME_MODE = "time";
+
+    /**
+     * One search of a position.
+     *
+     * @param ai       the difficulty of the AI
+     * @param mode     {@link #DEPTH_MODE} or {@link #TIME_MODE}
+     * @param suite    the name of the position suite
+     * @param index    the index of the position in its suite
+     * @param position the position in {@link fr.ai.game.programming.game.elements.PositionNotation}
+     * @param move     the chosen move
+     * @param score    the score of the move
+     * @param depth    the depth reached
+     * @param nodes    the number of nodes searched
+     * @param timeUs   the time of the search, for a fixed depth the time to reach the depth
+     * @param timeout  whether the search was stopped by the time limit
+     */
+    public record Result(String ai, String mode, String suite, int index, String position, String move, int score,
+                         int depth, long nodes, long timeUs, boolean timeout) {
+
+        public String key() {
+            return ai + " " + mode + " " + suite + " " + index;
+        }
+    }
+
+    /**
+     * Sum of the results of one AI in one mode.
+     */
+    public record Total(String ai, String mode, int positions, long nodes, long timeUs, double averageDepth) {
+
+        public long nodesPerSecond() {
+            return timeUs == 0 ? 0 : nodes * 1_000_000 / timeUs;
+        }
+    }
+
+    public PerformanceReport {
+        results = List.copyOf(results);
+    }
+
+    /**
+     * @return the totals by AI and mode, in the order of the results
+     */
+    public List<Total> totals() {
+        Map<String, List<Result>> groups = new LinkedHashMap<>();
+        for (Result result : results) {
+            groups.computeIfAbsent(result.ai() + " " + result.mode(), key -> new ArrayList<>()).add(result);
+        }
+        List<Total> totals = new ArrayList<>();
+        for (List<Result> group : groups.values()) {
+            long nodes = 0;
+            long timeUs = 0;
+            long depths = 0;
+            for (Result result : group) {
+                nodes += result.nodes();
+                timeUs += result.timeUs();
+                depths += result.depth();
+            }
+            totals.add(new Total(group.get(0).ai(), group.get(0).mode(), group.size(), nodes, timeUs,
+                    (double) depths / group.size()));
+        }
+        return totals;
+    }
+
+    public void write(Path file) throws IOException {
+        Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+    }
+
+    public static PerformanceReport read(Path file) throws IOException {
+        return parse(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a report from the class path.
+     * @param resource the absolute name of the resource
+     */
+    public static PerformanceReport readBuiltIn(String resource) {
+        try (InputStream in = PerformanceReport.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing performance report: " + resource);
+            }
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the performance report " + resource, e);
+        }
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"depth\": ").append(depth).append(",\n");
+        json.append("  \"timeMs\": ").append(timeMs).append(",\n");
+        json.append("  \"java\": ").append(quote(java)).append(",\n");
+        json.append("  \"cores\": ").append(cores).append(",\n");
+        json.append("  \"totals\": [");
+        List<Total> totals = totals();
+        for (int i = 0; i < totals.size(); i++) {
+            Total total = totals.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {\"ai\": ").append(quote(total.ai()))
+                    .append(", \"mode\": ").append(quote(total.mode()))
+                    .append(", \"positions\": ").append(total.positions())
+                    .append(", \"nodes\": ").append(total.nodes())
+                    .append(", \"timeUs\": ").append(total.timeUs())
+                    .append(", \"nps\": ").append(total.nodesPerSecond())
+                    .append(", \"averageDepth\": ").append(String.format(Locale.ROOT, "%.2f", total.averageDepth()))
+                    .append('}');
+        }
+        json.append("\n  ],\n");
+        json.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {\"ai\": ").append(quote(result.ai()))
+                    .append(", \"mode\": ").append(quote(result.mode()))
+                    .append(", \"suite\": ").append(quote(result.suite()))
+                    .append(", \"index\": ").append(result.index())
+                    .append(", \"position\": ").append(quote(result.position()))
+                    .append(", \"move\": ").append(quote(result.move()))
+                    .append(", \"score\": ").append(result.score())
+                    .append(", \"depth\": ").append(result.depth())
+                    .append(", \"nodes\": ").append(result.nodes())
+                    .append(", \"timeUs\": ").append(result.timeUs())
+                    .append(", \"timeout\": ").append(result.timeout())
+                    .append('}');
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Read a report written by {@link #toJson()}.
+     * @throws IllegalArgumentException if the text is not such a report
+     */
+    @SuppressWarnings("unchecked")
+    public static PerformanceReport parse(String json) {
+        Object value = new Parser(json).parseDocument();
+        if (!(value instanceof Map<?, ?> report) || !(report.get("results") instanceof List<?> results)) {
+            throw new IllegalArgumentException("Not a performance report");
+        }
+        List<Result> parsed = new ArrayList<>();
+        for (Object element : results) {
+            Map<String, Object> result = (Map<String, Object>) element;
+            parsed.add(new Result((String) result.get("ai"), (String) result.get("mode"), (String) result.get("suite"),
+                    number(result, "index").intValue(), (String) result.get("position"), (String) result.get("move"),
+                    number(result, "score").intValue(), number(result, "depth").intValue(),
+                    number(result, "nodes").longValue(), number(result, "timeUs").longValue(),
+                    Boolean.TRUE.equals(result.get("timeout"))));
+        }
+        Map<String, Object> fields = (Map<String, Object>) report;
+        return new PerformanceReport(number(fields, "depth").intValue(), number(fields, "timeMs").longValue(),
+                String.valueOf(fields.get("java")), number(fields, "cores").intValue(), parsed);
+    }
+
+    private static Number number(Map<String, Object> object, String key) {
+        if (!(object.get(key) instanceof Number number)) {
+            throw new IllegalArgumentException("Missing number: " + key);
+        }
+        return number;
+    }
+
+    /**
+     * Minimal JSON parser for the reports: objects become maps, arrays lists, numbers longs or doubles.
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object parseDocument() {
+            Object value = parseValue();
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("Unexpected text after the report");
+            }
+            return value;
+        }
+
+        private Object parseValue() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("Unexpected end");
+            }
+            char c = text.charAt(pos);
+            if (c == '{') {
+                return parseObject();
+            } else if (c == '[') {
+                return parseArray();
+            } else if (c == '"') {
+                return parseString();
+            } else if (text.startsWith("true", pos)) {
+                pos += 4;
+                return true;
+            } else if (text.startsWith("false", pos)) {
+                pos += 5;
+                return false;
+            } else if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return parseNumber();
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, parseValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> parseArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(parseValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case 'r' -> value.append('\r');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+        }
+
+        private Number parseNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String number = text.substring(start, pos);
+            if (number.isEmpty()) {
+                throw error("Unexpected character '" + text.charAt(pos) + "'");
+            }
+            try {
+                return number.matches("-?\\d+") ? (Number) Long.parseLong(number) : (Number) Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number " + number);
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at character " + pos + " of the report");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package fr.ai.game.programming.benchmark;
+
+import fr.ai.game.programming.game.elements.PositionNotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A named list of positions in {@link PositionNotation}, read from a file with one position per line. Empty lines and
+ * lines starting with '#' are skipped.
+ *
+ * @param name      the name of the suite, the file name without ".txt"
+ * @param positions the positions
+ */
+public record PositionSuite(String name, List<String> positions) {
+
+    /**
+     * The suites checked in with the application, covering the phases of the game.
+     */
+    public static final List<String> BUILT_IN = List.of("opening", "middlegame", "lategame");
+
+    public PositionSuite {
+        positions = List.copyOf(positions);
+        for (String position : positions) {
+            PositionNotation.parse(position); // Fail early on a broken suite
+        }
+    }
+
+    /**
+     * @return the suites of {@link #BUILT_IN}, read from the classpath
+     */
+    public static List<PositionSuite> loadBuiltIn() {
+        List<PositionSuite> suites = new ArrayList<>();
+        for (String name : BUILT_IN) {
+            try (InputStream in = PositionSuite.class.getResourceAsStream("/benchmark/" + name + ".txt")) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing position suite: " + name);
+                }
+                suites.add(read(name, new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the position suite " + name, e);
+            }
+        }
+        return suites;
+    }
+
+    /**
+     * Read a suite file, or all ".txt" files of a directory in the order of their names.
+     */
+    public static List<PositionSuite> load(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> list = Files.list(path)) {
+                files = list.filter(file -> file.getFileName().toString().endsWith(".txt")).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+        List<PositionSuite> suites = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString().replaceFirst("\\.txt$", "");
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                suites.add(read(name, reader));
+            }
+        }
+        return suites;
+    }
+
+    private static PositionSuite read(String name, BufferedReader reader) throws IOException {
+        List<String> positions = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                positions.add(line);
+            }
+        }
+        return new PositionSuite(name, positions);
+    }
+}
@@ -0,0 +1,74 @@
+package fr.ai.game.programming.display;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.SeedColor;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Draws a board into a {@link ScreenBuffer}: the captured seeds, the turn and a grid of the 16 holes, holes 1 to 8 in
+ * the top row and 16 to 9 in the bottom row, followed by a status line.
+ */
+public final class BoardFrame {
+
+    public static final int WIDTH = 129;
+    public static final int HEIGHT = 11;
+
+    private static final int CELL_WIDTH = 15;
+    private static final String SEPARATOR = ("+" + "-".repeat(CELL_WIDTH)).repeat(TOTAL_HOLES / 2) + "+";
+
+    private BoardFrame() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Draw the board with its top left corner at the given cell.
+     * @param status the text of the last line, e.g. the clocks
+     */
+    public static void draw(ScreenBuffer screen, Board board, String status, int top, int left) {
+        int column = screen.text(top + 1, left, "Player 1 Seeds: ", ScreenBuffer.GREEN);
+        column = screen.text(top + 1, column, board.getPlayer1Seeds() + " | ", ScreenBuffer.PLAIN);
+        column = screen.text(top + 1, column, "Player 2 Seeds: ", ScreenBuffer.YELLOW);
+        screen.text(top + 1, column, String.valueOf(board.getPlayer2Seeds()), ScreenBuffer.PLAIN);
+        screen.text(top + 3, left, "TURN: " + board.getTurns(), ScreenBuffer.PLAIN);
+
+        screen.text(top + 5, left, SEPARATOR, ScreenBuffer.PLAIN);
+        drawRow(screen, board, top + 6, left, 0, 1);
+        screen.text(top + 7, left, SEPARATOR, ScreenBuffer.PLAIN);
+        drawRow(screen, board, top + 8, left, TOTAL_HOLES - 1, -1);
+        screen.text(top + 9, left, SEPARATOR, ScreenBuffer.PLAIN);
+        screen.text(top + 10, left, status, ScreenBuffer.PLAIN);
+    }
+
+    private static void drawRow(ScreenBuffer screen, Board board, int row, int left, int firstHole, int step) {
+        screen.put(row, left, '|', ScreenBuffer.PLAIN);
+        for (int i = 0; i < TOTAL_HOLES / 2; i++) {
+            int hole = firstHole + i * step;
+            int cellLeft = left + 1 + i * (CELL_WIDTH + 1);
+            int blue = board.getSeedsInHole(hole, SeedColor.BLUE);
+            int red = board.getSeedsInHole(hole, SeedColor.RED);
+            String blueText = blue + "B";
+            String redText = red + "R";
+            int length = blueText.length() + redText.length() + 3; // "(" + blue + " " + red + ")"
+            int column = cellLeft + (CELL_WIDTH - length) / 2;
+            drawHole(screen, row, column, hole, blueText, blue > 0 ? ScreenBuffer.BLUE : ScreenBuffer.GREY,
+                    redText, red > 0 ? ScreenBuffer.RED : ScreenBuffer.GREY);
+            screen.put(row, cellLeft + CELL_WIDTH, '|', ScreenBuffer.PLAIN);
+        }
+    }
+
+    /**
+     * Draw the seeds of a hole in parentheses, green for the holes of Player 1 and yellow for those of Player 2.
+     * @return the column after the hole
+     */
+    static int drawHole(ScreenBuffer screen, int row, int column, int hole, String blueText, byte blueColor,
+                        String redText, byte redColor) {
+        byte holeColor = hole % 2 == 0 ? ScreenBuffer.GREEN : ScreenBuffer.YELLOW;
+        screen.put(row, column++, '(', holeColor);
+        column = screen.text(row, column, blueText, blueColor);
+        column++;
+        column = screen.text(row, column, redText, redColor);
+        screen.put(row, column++, ')', holeColor);
+        return column;
+    }
+}
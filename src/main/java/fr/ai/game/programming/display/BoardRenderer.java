@@ -0,0 +1,170 @@
+package fr.ai.game.programming.display;
+
+import fr.ai.game.programming.game.elements.Board;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.jline.utils.Curses;
+import org.jline.utils.InfoCmp.Capability;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Shows the board of a game in the terminal, one frame per move.
+ * <p>
+ * On a terminal with cursor addressing and scroll regions, the board stays at the top of the screen and everything
+ * else printed to the console scrolls below it. Every frame is drawn into a {@link ScreenBuffer} and only the cells
+ * which changed since the last frame are written, in one write. Other consoles (e.g. the console of an IDE or output
+ * redirected to a file) get every frame in full, also in one write.
+ */
+public class BoardRenderer implements AutoCloseable {
+
+    private final Terminal terminal; // null if frames are printed in full
+    private final PrintStream out;
+    private final String cursorAddress;
+    private final String scrollRegion;
+    private final String saveCursor;
+    private final String restoreCursor;
+    private final String clearScreen;
+    private Size size; // The size of the terminal when the region of the board was set up
+    private ScreenBuffer shown; // The frame on the screen
+    private ScreenBuffer frame; // The frame being drawn
+
+    private BoardRenderer(Terminal terminal, PrintStream out) {
+        this.terminal = terminal;
+        this.out = out;
+        this.cursorAddress = capability(terminal, Capability.cursor_address);
+        this.scrollRegion = capability(terminal, Capability.change_scroll_region);
+        this.saveCursor = capability(terminal, Capability.save_cursor);
+        this.restoreCursor = capability(terminal, Capability.restore_cursor);
+        this.clearScreen = capability(terminal, Capability.clear_screen);
+    }
+
+    /**
+     * Create a renderer for the terminal of the console, which prints frames in full if the console is not a terminal
+     * that can update the board in place.
+     */
+    public static BoardRenderer forConsole() {
+        try {
+            Terminal terminal = TerminalBuilder.builder().system(true).dumb(true).build();
+            BoardRenderer renderer = new BoardRenderer(terminal, null);
+            if (renderer.canUpdateInPlace()) {
+                return renderer;
+            }
+            terminal.close();
+        } catch (IOException e) {
+            // Print the frames in full
+        }
+        return plain(System.out);
+    }
+
+    /**
+     * Create a renderer which updates the board in place on the given terminal.
+     * @throws IllegalArgumentException if the terminal cannot move the cursor or set a scroll region
+     */
+    public static BoardRenderer forTerminal(Terminal terminal) {
+        BoardRenderer renderer = new BoardRenderer(terminal, null);
+        if (!renderer.canUpdateInPlace()) {
+            throw new IllegalArgumentException("The terminal " + terminal.getType() + " cannot update the board in place");
+        }
+        return renderer;
+    }
+
+    /**
+     * Create a renderer which prints every frame in full to the stream.
+     */
+    public static BoardRenderer plain(PrintStream out) {
+        return new BoardRenderer(null, out);
+    }
+
+    private boolean canUpdateInPlace() {
+        return terminal != null && !terminal.getType().startsWith(Terminal.TYPE_DUMB) && cursorAddress != null
+                && scrollRegion != null && saveCursor != null && restoreCursor != null && clearScreen != null;
+    }
+
+    private static String capability(Terminal terminal, Capability capability) {
+        return terminal == null ? null : terminal.getStringCapability(capability);
+    }
+
+    /**
+     * Show the board.
+     * @param status the text of the line below the board, e.g. the clocks
+     */
+    public void render(Board board, String status) {
+        StringBuilder output = new StringBuilder(4096);
+        if (terminal == null || !fitsTerminal()) {
+            size = null; // Set up the region again once the board fits
+            ScreenBuffer full = new ScreenBuffer(BoardFrame.WIDTH, BoardFrame.HEIGHT);
+            BoardFrame.draw(full, board, status, 0, 0);
+            full.appendFrame(output);
+            write(output);
+            return;
+        }
+
+        if (!terminal.getSize().equals(size)) {
+            setUpRegion(output);
+        }
+        frame.clear();
+        BoardFrame.draw(frame, board, status, 0, 0);
+        Curses.tputs(output, saveCursor);
+        frame.appendDiff(shown, output, (builder, row, column) -> Curses.tputs(builder, cursorAddress, row, column));
+        Curses.tputs(output, restoreCursor);
+        write(output);
+
+        ScreenBuffer previous = shown;
+        shown = frame;
+        frame = previous;
+    }
+
+    private void write(CharSequence output) {
+        if (terminal != null) {
+            terminal.writer().append(output);
+            terminal.writer().flush();
+        } else {
+            out.append(output);
+            out.flush();
+        }
+    }
+
+    /**
+     * @return true if the board and a few lines below it fit into the terminal
+     */
+    private boolean fitsTerminal() {
+        Size current = terminal.getSize();
+        return current.getRows() > BoardFrame.HEIGHT + 2 && current.getColumns() > 0;
+    }
+
+    /**
+     * Clear the screen and keep the lines of the board out of the scroll region, so the rest of the console output
+     * scrolls below the board.
+     */
+    private void setUpRegion(StringBuilder output) {
+        size = terminal.getSize();
+        int width = Math.min(BoardFrame.WIDTH, size.getColumns());
+        shown = new ScreenBuffer(width, BoardFrame.HEIGHT);
+        frame = new ScreenBuffer(width, BoardFrame.HEIGHT);
+        Curses.tputs(output, clearScreen);
+        Curses.tputs(output, scrollRegion, BoardFrame.HEIGHT, size.getRows() - 1);
+        Curses.tputs(output, cursorAddress, BoardFrame.HEIGHT, 0);
+    }
+
+    /**
+     * Give the whole screen back to the console output and close the terminal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (terminal == null) {
+            return;
+        }
+        if (size != null) {
+            StringBuilder output = new StringBuilder();
+            Curses.tputs(output, scrollRegion, 0, size.getRows() - 1);
+            Curses.tputs(output, cursorAddress, size.getRows() - 1, 0);
+            terminal.writer().write(output.toString());
+            terminal.writer().println();
+            terminal.writer().flush();
+        }
+        terminal.close();
+    }
+}
@@ -0,0 +1,49 @@
+package fr.ai.game.programming.display;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.Position;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.SearchResult;
+
+/**
+ * The state of a game as shown by the {@link SpectatorDashboard}, published by the game thread after every move.
+ * A snapshot and its {@link Position} are immutable, so the dashboard reads them without locking the game.
+ *
+ * @param title          the name of the game, e.g. the players
+ * @param position       the position after the last move
+ * @param turn           the number of moves played
+ * @param lastMove       the last move, null at the start of the game
+ * @param nodesPerSecond the speed of the search of the last move, 0 if it was not searched
+ * @param moveTimeMs     the time the last move took
+ * @param result         the result of the game, null while it is running
+ */
+public record GameSnapshot(String title, Position position, int turn, Move lastMove, long nodesPerSecond,
+                           long moveTimeMs, String result) {
+
+    /**
+     * Snapshot of a game which has not started yet.
+     */
+    public static GameSnapshot start(String title, Board board) {
+        return new GameSnapshot(title, Position.of(board), 0, null, 0, 0, null);
+    }
+
+    /**
+     * Snapshot after a move chosen by a search.
+     * @param search the search of the move, null for moves which were not searched (e.g. random opening moves)
+     */
+    public static GameSnapshot afterMove(String title, Board board, int turn, Move move, SearchResult search) {
+        return new GameSnapshot(title, Position.of(board), turn, move, search == null ? 0 : search.nodesPerSecond(),
+                search == null ? 0 : search.timeMs(), null);
+    }
+
+    /**
+     * @return a snapshot of the same position with the result of the game
+     */
+    public GameSnapshot finished(String result) {
+        return new GameSnapshot(title, position, turn, lastMove, nodesPerSecond, moveTimeMs, result);
+    }
+
+    public boolean isRunning() {
+        return result == null;
+    }
+}
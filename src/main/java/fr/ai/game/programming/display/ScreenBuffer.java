@@ -0,0 +1,175 @@
+package fr.ai.game.programming.display;
+
+import java.util.Arrays;
+
+/**
+ * A frame of text cells, each with a foreground color, which is drawn completely and then written to the terminal at
+ * once: either in full, or only the cells which differ from the frame already on the screen.
+ */
+public class ScreenBuffer {
+
+    // Foreground colors, the values are the ANSI SGR codes
+    public static final byte PLAIN = 0;
+    public static final byte RED = 31;
+    public static final byte GREEN = 32;
+    public static final byte YELLOW = 33;
+    public static final byte BLUE = 34;
+    public static final byte GREY = 90;
+
+    // Unchanged cells between two changed ones are written again if that is shorter than moving the cursor
+    private static final int MAX_GAP = 6;
+
+    /**
+     * Moves the cursor of the terminal, appending the control sequence to the output.
+     */
+    @FunctionalInterface
+    public interface CursorMover {
+        void moveTo(StringBuilder out, int row, int column);
+    }
+
+    private final int width;
+    private final int height;
+    private final char[] chars;
+    private final byte[] colors;
+
+    public ScreenBuffer(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid screen size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.chars = new char[width * height];
+        this.colors = new byte[width * height];
+        clear();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Fill the frame with plain spaces.
+     */
+    public void clear() {
+        Arrays.fill(chars, ' ');
+        Arrays.fill(colors, PLAIN);
+    }
+
+    /**
+     * Write text into the frame, the part outside of the frame is cut off.
+     * @return the column after the text
+     */
+    public int text(int row, int column, CharSequence text, byte color) {
+        for (int i = 0; i < text.length(); i++) {
+            put(row, column + i, text.charAt(i), color);
+        }
+        return column + text.length();
+    }
+
+    /**
+     * Write text centered within the given width.
+     * @return the column after the width
+     */
+    public int centered(int row, int column, int fieldWidth, CharSequence text, byte color) {
+        text(row, column + Math.max(0, (fieldWidth - text.length()) / 2), text, color);
+        return column + fieldWidth;
+    }
+
+    public void put(int row, int column, char c, byte color) {
+        if (row >= 0 && row < height && column >= 0 && column < width) {
+            chars[row * width + column] = c;
+            colors[row * width + column] = color;
+        }
+    }
+
+    /**
+     * Copy the cells of another frame of the same size.
+     */
+    public void copyFrom(ScreenBuffer other) {
+        checkSize(other);
+        System.arraycopy(other.chars, 0, chars, 0, chars.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+    }
+
+    /**
+     * Append the output which turns the frame on the screen into this frame: for every run of changed cells the cursor
+     * is moved to the run and the run is written.
+     * @param shown the frame on the screen, of the same size
+     * @return the number of changed cells
+     */
+    public int appendDiff(ScreenBuffer shown, StringBuilder out, CursorMover cursor) {
+        checkSize(shown);
+        int changed = 0;
+        for (int row = 0; row < height; row++) {
+            int start = row * width;
+            int column = 0;
+            while (column < width) {
+                if (sameCell(shown, start + column)) {
+                    column++;
+                    continue;
+                }
+                // Extend the run over short gaps of unchanged cells
+                int end = column + 1;
+                int lastChanged = column;
+                while (end < width && end - lastChanged <= MAX_GAP) {
+                    if (!sameCell(shown, start + end)) {
+                        lastChanged = end;
+                    }
+                    end++;
+                }
+                cursor.moveTo(out, row, column);
+                changed += lastChanged - column + 1;
+                appendCells(out, start + column, start + lastChanged + 1);
+                column = lastChanged + 1;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Append the whole frame as lines without trailing spaces.
+     */
+    public void appendFrame(StringBuilder out) {
+        for (int row = 0; row < height; row++) {
+            int start = row * width;
+            int end = start + width;
+            while (end > start && chars[end - 1] == ' ') {
+                end--;
+            }
+            appendCells(out, start, end);
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Append the cells with the color changes between them, the color is reset at the end.
+     */
+    private void appendCells(StringBuilder out, int from, int to) {
+        byte color = PLAIN;
+        for (int i = from; i < to; i++) {
+            if (colors[i] != color && chars[i] != ' ') {
+                color = colors[i];
+                out.append("\u001B[").append(color).append('m');
+            }
+            out.append(chars[i]);
+        }
+        if (color != PLAIN) {
+            out.append("\u001B[0m");
+        }
+    }
+
+    private boolean sameCell(ScreenBuffer other, int index) {
+        return chars[index] == other.chars[index]
+                && (colors[index] == other.colors[index] || chars[index] == ' ');
+    }
+
+    private void checkSize(ScreenBuffer other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("The frames have different sizes");
+        }
+    }
+}
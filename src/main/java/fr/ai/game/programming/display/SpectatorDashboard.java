@@ -0,0 +1,408 @@
+package fr.ai.game.programming.display;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.RepetitionRule;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.Position;
+import fr.ai.game.programming.game.elements.PositionHistory;
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.MoveOrdering;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+import fr.ai.game.programming.metrics.MoveLatencies;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.jline.utils.Curses;
+import org.jline.utils.InfoCmp.Capability;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Shows many games at once in the terminal, one compact board per game.
+ * <p>
+ * Every game thread owns a slot and publishes an immutable {@link GameSnapshot} into it after every move; publishing
+ * is a single atomic store, so the games never wait for the dashboard. A daemon thread draws the latest snapshots at a
+ * fixed frame rate into a {@link ScreenBuffer} and writes only the cells which changed. If the console cannot update
+ * the screen in place, the frames are printed in full, at most once per second.
+ */
+public class SpectatorDashboard implements AutoCloseable {
+
+    private static final int CELL_WIDTH = 7; // Enough for "(12 10)"
+    private static final int TILE_WIDTH = CELL_WIDTH * TOTAL_HOLES / 2;
+    private static final int TILE_HEIGHT = 6; // 5 lines and a blank line
+    private static final int TILE_GAP = 3;
+    private static final int HEADER_HEIGHT = 2;
+    private static final int PLAIN_WIDTH = 2 * TILE_WIDTH + TILE_GAP;
+    private static final long MIN_PLAIN_PERIOD_MS = 1000;
+
+    private final AtomicReferenceArray<GameSnapshot> slots;
+    private final Terminal terminal; // null if frames are printed in full
+    private final PrintStream out;
+    private final String cursorAddress;
+    private final String clearScreen;
+    private final long periodMs;
+    private final ScheduledExecutorService renderThread;
+    private Size size; // The size of the terminal when the screen was last cleared
+    private ScreenBuffer shown;
+    private ScreenBuffer frame;
+
+    private SpectatorDashboard(int games, Terminal terminal, PrintStream out, int framesPerSecond) {
+        if (games < 1) {
+            throw new IllegalArgumentException("Invalid number of games: " + games);
+        }
+        if (framesPerSecond < 1) {
+            throw new IllegalArgumentException("Invalid frame rate: " + framesPerSecond);
+        }
+        this.slots = new AtomicReferenceArray<>(games);
+        this.terminal = terminal;
+        this.out = out;
+        this.cursorAddress = terminal == null ? null : terminal.getStringCapability(Capability.cursor_address);
+        this.clearScreen = terminal == null ? null : terminal.getStringCapability(Capability.clear_screen);
+        this.periodMs = terminal == null ? Math.max(MIN_PLAIN_PERIOD_MS, 1000 / framesPerSecond) : 1000 / framesPerSecond;
+        this.renderThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "awale-dashboard");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a dashboard on the terminal of the console, which prints frames in full if the console is not a terminal
+     * that can update the screen in place.
+     */
+    public static SpectatorDashboard forConsole(int games, int framesPerSecond) {
+        try {
+            Terminal terminal = TerminalBuilder.builder().system(true).dumb(true).build();
+            if (canUpdateInPlace(terminal)) {
+                return new SpectatorDashboard(games, terminal, null, framesPerSecond);
+            }
+            terminal.close();
+        } catch (IOException e) {
+            // Print the frames in full
+        }
+        return plain(games, System.out, framesPerSecond);
+    }
+
+    /**
+     * Create a dashboard which updates the screen of the given terminal in place.
+     * @throws IllegalArgumentException if the terminal cannot move the cursor
+     */
+    public static SpectatorDashboard forTerminal(Terminal terminal, int games, int framesPerSecond) {
+        if (!canUpdateInPlace(terminal)) {
+            throw new IllegalArgumentException("The terminal " + terminal.getType() + " cannot update the screen in place");
+        }
+        return new SpectatorDashboard(games, terminal, null, framesPerSecond);
+    }
+
+    private static boolean canUpdateInPlace(Terminal terminal) {
+        return !terminal.getType().startsWith(Terminal.TYPE_DUMB)
+                && terminal.getStringCapability(Capability.cursor_address) != null
+                && terminal.getStringCapability(Capability.clear_screen) != null;
+    }
+
+    /**
+     * Create a dashboard which prints every frame in full to the stream.
+     */
+    public static SpectatorDashboard plain(int games, PrintStream out, int framesPerSecond) {
+        return new SpectatorDashboard(games, null, out, framesPerSecond);
+    }
+
+    /**
+     * Start drawing the games in the background.
+     */
+    public void start() {
+        renderThread.scheduleAtFixedRate(this::renderSafely, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publish the state of a game, called by the game thread which owns the slot. Never blocks.
+     */
+    public void publish(int slot, GameSnapshot snapshot) {
+        slots.setRelease(slot, snapshot);
+    }
+
+    public int getGames() {
+        return slots.length();
+    }
+
+    private void renderSafely() {
+        try {
+            render();
+        } catch (RuntimeException e) {
+            // A failed frame must not stop the next ones, e.g. while the terminal is resized
+        }
+    }
+
+    /**
+     * Draw the latest snapshots and write the frame.
+     */
+    void render() {
+        StringBuilder output = new StringBuilder(8192);
+        if (terminal == null) {
+            ScreenBuffer full = new ScreenBuffer(PLAIN_WIDTH, screenHeight(PLAIN_WIDTH));
+            draw(full);
+            full.appendFrame(output);
+            out.append(output);
+            out.flush();
+            return;
+        }
+
+        Size current = terminal.getSize();
+        if (!current.equals(size) && current.getColumns() > 0 && current.getRows() > 0) {
+            size = current;
+            shown = new ScreenBuffer(size.getColumns(), size.getRows() - 1);
+            frame = new ScreenBuffer(size.getColumns(), size.getRows() - 1);
+            Curses.tputs(output, clearScreen);
+        }
+        if (size == null) {
+            return;
+        }
+        frame.clear();
+        draw(frame);
+        frame.appendDiff(shown, output, (builder, row, column) -> Curses.tputs(builder, cursorAddress, row, column));
+        Curses.tputs(output, cursorAddress, size.getRows() - 1, 0);
+        terminal.writer().append(output);
+        terminal.writer().flush();
+
+        ScreenBuffer previous = shown;
+        shown = frame;
+        frame = previous;
+    }
+
+    private int screenHeight(int width) {
+        int columns = tileColumns(width);
+        return HEADER_HEIGHT + (slots.length() + columns - 1) / columns * TILE_HEIGHT;
+    }
+
+    private static int tileColumns(int width) {
+        return Math.max(1, (width + TILE_GAP) / (TILE_WIDTH + TILE_GAP));
+    }
+
+    private void draw(ScreenBuffer screen) {
+        int running = 0;
+        long nodesPerSecond = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            GameSnapshot snapshot = slots.getAcquire(i);
+            if (snapshot == null || snapshot.isRunning()) {
+                running++;
+            }
+            if (snapshot != null && snapshot.isRunning()) {
+                nodesPerSecond += snapshot.nodesPerSecond();
+            }
+        }
+        screen.text(0, 0, String.format(Locale.ROOT, "Spectating %d games | %d running | %s nodes/s",
+                slots.length(), running, formatCount(nodesPerSecond)), ScreenBuffer.PLAIN);
+
+        int columns = tileColumns(screen.getWidth());
+        for (int i = 0; i < slots.length(); i++) {
+            int top = HEADER_HEIGHT + i / columns * TILE_HEIGHT;
+            int left = i % columns * (TILE_WIDTH + TILE_GAP);
+            drawTile(screen, i, slots.getAcquire(i), top, left);
+        }
+    }
+
+    private static void drawTile(ScreenBuffer screen, int slot, GameSnapshot snapshot, int top, int left) {
+        if (snapshot == null) {
+            screen.text(top, left, "#" + (slot + 1) + " waiting...", ScreenBuffer.GREY);
+            return;
+        }
+        Position position = snapshot.position();
+        String turn = "Turn " + snapshot.turn();
+        screen.text(top, left, "#" + (slot + 1) + " " + snapshot.title(), ScreenBuffer.PLAIN);
+        screen.text(top, left + TILE_WIDTH - turn.length(), turn, ScreenBuffer.PLAIN);
+
+        int column = screen.text(top + 1, left, "P1 ", ScreenBuffer.GREEN);
+        column = screen.text(top + 1, column, position.getPlayer1Seeds() + "  ", ScreenBuffer.PLAIN);
+        column = screen.text(top + 1, column, "P2 ", ScreenBuffer.YELLOW);
+        column = screen.text(top + 1, column, String.valueOf(position.getPlayer2Seeds()), ScreenBuffer.PLAIN);
+        if (snapshot.lastMove() != null) {
+            screen.text(top + 1, column, "  Last " + snapshot.lastMove().toNotation(), ScreenBuffer.PLAIN);
+        }
+        if (snapshot.isRunning()) {
+            String toMove = "Player " + position.getCurrentPlayer() + " to move";
+            screen.text(top + 1, left + TILE_WIDTH - toMove.length(), toMove,
+                    position.getCurrentPlayer() == 1 ? ScreenBuffer.GREEN : ScreenBuffer.YELLOW);
+        }
+
+        for (int i = 0; i < TOTAL_HOLES / 2; i++) {
+            drawHole(screen, position, top + 2, left + i * CELL_WIDTH, i);
+            drawHole(screen, position, top + 3, left + i * CELL_WIDTH, TOTAL_HOLES - 1 - i);
+        }
+
+        if (snapshot.isRunning()) {
+            screen.text(top + 4, left, String.format(Locale.ROOT, "%s nodes/s  %d ms/move",
+                    formatCount(snapshot.nodesPerSecond()), snapshot.moveTimeMs()), ScreenBuffer.PLAIN);
+        } else {
+            screen.text(top + 4, left, snapshot.result(), ScreenBuffer.GREEN);
+        }
+    }
+
+    private static void drawHole(ScreenBuffer screen, Position position, int row, int left, int hole) {
+        int blue = position.getSeedsInHole(hole, SeedColor.BLUE);
+        int red = position.getSeedsInHole(hole, SeedColor.RED);
+        String blueText = String.valueOf(blue);
+        String redText = String.valueOf(red);
+        int length = blueText.length() + redText.length() + 3; // "(" + blue + " " + red + ")"
+        BoardFrame.drawHole(screen, row, left + Math.max(0, (CELL_WIDTH - length) / 2), hole,
+                blueText, blue > 0 ? ScreenBuffer.BLUE : ScreenBuffer.GREY,
+                redText, red > 0 ? ScreenBuffer.RED : ScreenBuffer.GREY);
+    }
+
+    /**
+     * @return the count with a unit, e.g. "1.2M"
+     */
+    static String formatCount(long count) {
+        if (count >= 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fM", count / 1e6);
+        }
+        if (count >= 1_000) {
+            return String.format(Locale.ROOT, "%.1fk", count / 1e3);
+        }
+        return String.valueOf(count);
+    }
+
+    /**
+     * Stop drawing, show the last frame and give the screen back to the console.
+     */
+    @Override
+    public void close() throws IOException {
+        renderThread.shutdown();
+        try {
+            renderThread.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        render();
+        if (terminal != null) {
+            terminal.writer().println();
+            terminal.writer().flush();
+            terminal.close();
+        }
+    }
+
+    /**
+     * Let AIs play many games at once and watch them from the command line:
+     * {@code spectate [--games N] [--p1 LEVEL] [--p2 LEVEL] [--depth N | --time MS] [--random-plies N] [--fps N]
+     * [--rule REPETITIONS,MAX_PLIES,draw|adjudication] [--latency-out FILE]}. Every game runs on its own thread and
+     * ends by the {@link RepetitionRule} at the latest. When all games are over, the percentiles of the move times of
+     * both AIs by game phase are printed, and written as CSV to the latency file if one is given.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        int games = Runtime.getRuntime().availableProcessors();
+        AIDifficulty player1 = AIDifficulty.ULTIMATE;
+        AIDifficulty player2 = AIDifficulty.PRO;
+        SearchLimits limits = SearchLimits.ofDepth(6);
+        int randomPlies = 4;
+        int framesPerSecond = 10;
+        RepetitionRule rule = RepetitionRule.DEFAULT;
+        Path latencyOut = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--p1" -> player1 = AIDifficulty.fromName(args[++i]);
+                case "--p2" -> player2 = AIDifficulty.fromName(args[++i]);
+                case "--depth" -> limits = SearchLimits.ofDepth(Integer.parseInt(args[++i]));
+                case "--time" -> limits = SearchLimits.ofTime(Long.parseLong(args[++i]));
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--fps" -> framesPerSecond = Integer.parseInt(args[++i]);
+                case "--rule" -> rule = RepetitionRule.parse(args[++i]);
+                case "--latency-out" -> latencyOut = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        String title = player1 + " vs " + player2;
+        long seed = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        MoveLatencies latencies = new MoveLatencies();
+        try (SpectatorDashboard dashboard = forConsole(games, framesPerSecond)) {
+            for (int g = 0; g < games; g++) {
+                int slot = g;
+                AIDifficulty level1 = player1;
+                AIDifficulty level2 = player2;
+                SearchLimits gameLimits = limits;
+                int gameRandomPlies = randomPlies;
+                RepetitionRule gameRule = rule;
+                threads.add(new Thread(() -> playGame(dashboard, slot, title, level1, level2, gameLimits,
+                        gameRandomPlies, gameRule, latencies, new SplittableRandom(seed + slot)),
+                        "awale-spectate-" + g));
+            }
+            dashboard.start();
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        System.out.print(latencies.report());
+        if (latencyOut != null) {
+            latencies.writeCsv(latencyOut);
+            System.out.println("Move latencies written to " + latencyOut);
+        }
+    }
+
+    private static void playGame(SpectatorDashboard dashboard, int slot, String title, AIDifficulty level1,
+                                 AIDifficulty level2, SearchLimits limits, int randomPlies, RepetitionRule rule,
+                                 MoveLatencies latencies, SplittableRandom random) {
+        AIManager player1 = level1.createManager(false);
+        AIManager player2 = level2.createManager(false);
+        Board board = new Board();
+        PositionHistory history = new PositionHistory(rule);
+        history.push(board);
+        board.setHistory(history);
+        GameSnapshot snapshot = GameSnapshot.start(title, board);
+        dashboard.publish(slot, snapshot);
+        GameStatus status = board.copy().checkGameStatus();
+        while (!status.isGameOver()) {
+            Move move;
+            SearchResult search = null;
+            if (board.getTurns() < randomPlies) {
+                List<Move> moves = MoveOrdering.CAPTURES_FIRST.orderedMoves(board.getCurrentPlayer(), board);
+                move = moves.get(random.nextInt(moves.size()));
+            } else {
+                AIManager manager = board.getCurrentPlayer() == 1 ? player1 : player2;
+                long start = System.nanoTime();
+                search = manager.search(board.copy(), limits);
+                latencies.record((board.getCurrentPlayer() == 1 ? level1 : level2).name(), board.totalSeeds(),
+                        (System.nanoTime() - start) / 1_000);
+                move = search.move();
+            }
+            board.sowSeeds(move.hole(), move.color());
+            board.switchPlayer();
+            board.setTurns(board.getTurns() + 1);
+            history.push(board);
+            status = board.checkGameStatus();
+            if (!status.isGameOver()) {
+                status = rule.check(board, history);
+            }
+            snapshot = GameSnapshot.afterMove(title, board, board.getTurns(), move, search);
+            dashboard.publish(slot, snapshot);
+        }
+
+        String result;
+        if (status.winner() == 0) {
+            result = "Draw: " + status.reason();
+        } else {
+            result = "Player " + status.winner() + " wins: " + status.reason();
+        }
+        dashboard.publish(slot, snapshot.finished(result));
+    }
+}
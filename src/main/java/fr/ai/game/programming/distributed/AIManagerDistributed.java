@@ -0,0 +1,492 @@
+package fr.ai.game.programming.distributed;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.MoveOrdering;
+import fr.ai.game.programming.game.player.SearchEngine;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI manager which distributes its search over {@link SearchWorker} processes, on this machine or on others. Every
+ * worker searches a part of the tree with {@link SearchEngine#searchLine}, so the result is the one of the
+ * Ultimate AI with the same depth, apart from the selective search of the nodes which are split (see below).
+ * <p>
+ * The tree is split at the moves of the root. The first move is searched alone, so the other moves are searched with
+ * its score as a bound (young brothers wait); the moves are then handed to the idle workers in the order of their
+ * scores in the last iteration. Every score which raises the bound of the root is sent to the workers, which narrow
+ * the window of their running search. When a worker becomes idle and no move is left, the move searched longest is
+ * split into its replies and its worker is cancelled, so all workers take part until the end of the iteration; a move
+ * is abandoned as soon as one of its replies refutes it.
+ * <p>
+ * A worker whose connection is lost is dropped and its part is searched by the others. A worker process uses one core
+ * per connection, so list a worker once per core it should use.
+ */
+public class AIManagerDistributed implements AIManager, AutoCloseable {
+    private static final int TIME_LIMIT_MS = 2000; // Time limit for the search
+    private static final int MAX_DEPTH = 40; // Maximum depth of an iteratively deepening search
+    private static final int WIN_SCORE = 100000; // Evaluation of a won game
+    private static final int SPLIT_MIN_DEPTH = 3; // Shallower moves are searched faster than split
+    private static final long SPLIT_AFTER_MS = 10; // Moves which are about to finish are not split
+    private static final long STOP_TIMEOUT_MS = 2000; // Time for the workers to confirm a cancellation
+    private static final int NO_SCORE = -Integer.MAX_VALUE; // Scores for the player to move can be negated
+
+    private final boolean verbose; // Print search information to the console
+    private final List<WorkerConnection> workers = new ArrayList<>();
+    private final BlockingQueue<WorkerConnection.Event> events = new LinkedBlockingQueue<>();
+    private long jobIds;
+    private long nodes; // Number of positions visited by all workers in the current search
+    private long jobs; // Subtrees sent to the workers
+    private long splits; // Moves split into their replies
+    private long boundUpdates; // Narrowed windows sent to the workers
+
+    /**
+     * Connect to the workers.
+     * @param addresses the addresses of the workers, a worker listed n times searches n subtrees at the same time
+     * @param verbose whether the search information (depth, jobs, computation time) is printed to the console
+     */
+    public AIManagerDistributed(List<InetSocketAddress> addresses, boolean verbose) throws IOException {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one search worker is required");
+        }
+        this.verbose = verbose;
+        try {
+            for (InetSocketAddress address : addresses) {
+                workers.add(new WorkerConnection(address, events));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public Move findMove(Board board) {
+        return search(board, SearchLimits.ofTime(TIME_LIMIT_MS)).move();
+    }
+
+    /**
+     * Search the position with the workers.
+     * @param limits a fixed depth, or a depth of 0 to deepen iteratively within the (soft) time limit
+     * @throws IllegalStateException if all workers are gone or a worker failed
+     */
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+        long deadline = limits.timeLimitMs() >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE
+                : startTime + limits.timeLimitMs() * 1_000_000;
+        nodes = 0;
+        jobs = 0;
+        splits = 0;
+        boundUpdates = 0;
+
+        List<Move> moves = MoveOrdering.CAPTURES_FIRST.orderedMoves(board.getCurrentPlayer(), board);
+        int sign = board.getCurrentPlayer() == 1 ? 1 : -1;
+        Iteration best = null;
+        boolean timeLimitReached = false;
+        int stableIterations = 0;
+        int firstDepth = limits.depth() > 0 ? limits.depth() : 1;
+        int lastDepth = limits.depth() > 0 ? limits.depth() : MAX_DEPTH;
+
+        for (int depth = firstDepth; depth <= lastDepth; depth++) {
+            Iteration iteration = new Iteration(board, moves, depth, deadline);
+            iteration.run();
+            if (iteration.timeLimitReached) {
+                timeLimitReached = true;
+                if (best == null) best = iteration;
+                break;
+            }
+
+            stableIterations = best != null && best.bestMove.equals(iteration.bestMove) ? stableIterations + 1 : 0;
+            best = iteration;
+            // The next iteration searches the moves in the order of their scores
+            moves = new ArrayList<>(moves);
+            moves.sort(Comparator.comparingInt((Move move) -> -iteration.scores.getOrDefault(move, NO_SCORE)));
+
+            long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+            if (Math.abs(iteration.best) >= WIN_SCORE || !limits.canStartIteration(elapsedMs, stableIterations)) {
+                break;
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        Move move = best.bestMove != null ? best.bestMove : moves.get(0);
+        int score = best.bestMove != null ? sign * best.best : 0;
+        if (verbose) System.out.println("Distributed depth " + best.depth + " in " + elapsedMs + " ms on "
+                + workers.size() + " workers: " + jobs + " jobs, " + splits + " splits, " + boundUpdates
+                + " bound updates, " + nodes + " nodes");
+        return new SearchResult(move, score, best.depth, nodes, elapsedMs, timeLimitReached);
+    }
+
+    /**
+     * A subtree searched by a worker: a move of the root, or a reply to it once the move was split.
+     */
+    static final class Job {
+        final long id;
+        final Board root;
+        final List<Move> line;
+        final Job parent; // The split move of a reply, null for a move of the root
+        WorkerConnection worker; // The worker searching the job, null if it is not searched
+        long startedAt;
+        boolean done;
+        boolean split;
+        boolean splittable = true;
+        List<Job> replies = List.of();
+        int openReplies;
+        int value = Integer.MAX_VALUE; // The lowest score of the replies of a split move so far
+
+        Job(long id, Board root, List<Move> line, Job parent) {
+            this.id = id;
+            this.root = root;
+            this.line = line;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * One iteration of the search with a fixed depth. All scores are from the perspective of the player to move at
+     * the root, so the root maximizes and a split move minimizes over its replies.
+     */
+    private final class Iteration {
+        private final Board root;
+        private final int depth;
+        private final long deadline;
+        private final int sign;
+        private final Map<Long, Job> jobsById = new HashMap<>();
+        private final Deque<Job> queue = new ArrayDeque<>();
+        private final List<Job> waiting = new ArrayList<>(); // The moves held back until the first move has a score
+        private final Map<Move, Integer> scores = new HashMap<>();
+        private int openMoves;
+        private int best = NO_SCORE;
+        private Move bestMove;
+        private boolean timeLimitReached;
+
+        Iteration(Board root, List<Move> moves, int depth, long deadline) {
+            this.root = root;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.sign = root.getCurrentPlayer() == 1 ? 1 : -1;
+            for (Move move : moves) {
+                Job job = newJob(List.of(move), null);
+                (queue.isEmpty() ? queue : waiting).add(job);
+            }
+            openMoves = moves.size();
+        }
+
+        void run() {
+            try {
+                while (openMoves > 0) {
+                    dispatch();
+                    long waitNanos = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+                    WorkerConnection.Event event = waitNanos > 0 ? events.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                    if (event == null) {
+                        timeLimitReached = true;
+                        break;
+                    }
+                    handle(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                timeLimitReached = true;
+            } finally {
+                stopWorkers();
+            }
+        }
+
+        private Job newJob(List<Move> line, Job parent) {
+            Job job = new Job(++jobIds, root, line, parent);
+            jobsById.put(job.id, job);
+            return job;
+        }
+
+        /**
+         * Hand a job to every idle worker, splitting a running move if there is no job left.
+         */
+        private void dispatch() {
+            for (WorkerConnection worker : List.copyOf(workers)) {
+                if (worker.getJob() != null) {
+                    continue;
+                }
+                Job job = nextJob();
+                if (job == null) {
+                    return;
+                }
+                job.worker = worker;
+                job.startedAt = System.nanoTime();
+                long timeMs = deadline == Long.MAX_VALUE ? Long.MAX_VALUE
+                        : Math.max(1, (deadline - job.startedAt) / 1_000_000);
+                try {
+                    worker.search(job, depth, alpha(job), beta(job), timeMs);
+                    jobs++;
+                } catch (IOException e) {
+                    job.worker = null;
+                    queue.addFirst(job); // The lost connection is reported by the reader of the worker
+                }
+            }
+        }
+
+        private Job nextJob() {
+            Job job;
+            while ((job = queue.poll()) != null) {
+                if (!job.done && (job.parent == null || !job.parent.done)) {
+                    return job;
+                }
+            }
+            return split() ? queue.poll() : null;
+        }
+
+        /**
+         * Split the move searched longest into its replies and cancel its search.
+         * @return false if no move can be split
+         */
+        private boolean split() {
+            long now = System.nanoTime();
+            Job longest = null;
+            for (WorkerConnection worker : workers) {
+                Job job = worker.getJob();
+                if (job != null && job.parent == null && !job.done && !job.split && job.splittable
+                        && depth >= SPLIT_MIN_DEPTH && now - job.startedAt >= SPLIT_AFTER_MS * 1_000_000
+                        && (longest == null || job.startedAt < longest.startedAt)) {
+                    longest = job;
+                }
+            }
+            if (longest == null) {
+                return false;
+            }
+
+            // The position after the move, as the search sees it
+            Board position = SearchEngine.playLine(root, longest.line);
+            List<Move> replies = position.copy().checkGameStatus().isGameOver() ? List.of()
+                    : MoveOrdering.CAPTURES_FIRST.orderedMoves(3 - root.getCurrentPlayer(), position);
+            if (replies.size() < 2) {
+                longest.splittable = false;
+                return split();
+            }
+
+            longest.split = true;
+            List<Job> replyJobs = new ArrayList<>();
+            for (Move reply : replies) {
+                replyJobs.add(newJob(List.of(longest.line.get(0), reply), longest));
+            }
+            longest.replies = replyJobs;
+            longest.openReplies = replyJobs.size();
+            for (int i = replyJobs.size() - 1; i >= 0; i--) {
+                queue.addFirst(replyJobs.get(i));
+            }
+            cancel(longest);
+            splits++;
+            return true;
+        }
+
+        private void handle(WorkerConnection.Event event) {
+            WorkerConnection worker = event.worker();
+            Job job = jobsById.get(event.jobId());
+            switch (event.type()) {
+                case "CLOSED" -> {
+                    workers.remove(worker);
+                    Job lost = worker.getJob();
+                    worker.setIdle();
+                    if (lost != null && jobsById.get(lost.id) == lost) {
+                        lost.worker = null;
+                        if (!lost.done && !lost.split) {
+                            queue.addFirst(lost);
+                        }
+                    }
+                    System.err.println(event.message() + ", " + workers.size() + " search workers left");
+                    if (workers.isEmpty()) {
+                        throw new IllegalStateException("No search worker left");
+                    }
+                    return;
+                }
+                case "ERR" -> throw new IllegalStateException("Search worker " + worker.getAddress() + " failed: "
+                        + event.message());
+                default -> {
+                    // RESULT or STOPPED
+                }
+            }
+
+            nodes += event.nodes();
+            if (job == null) {
+                return; // A job of an earlier iteration
+            }
+            if (worker.getJob() == job) {
+                worker.setIdle();
+            }
+            job.worker = null;
+            if (event.type().equals("STOPPED")) {
+                if (!job.done && !job.split) {
+                    queue.addFirst(job); // Stopped by the time limit of the worker, the deadline is close
+                }
+                return;
+            }
+            scored(job, sign * event.score());
+        }
+
+        /**
+         * @param score the score of the job, only a bound if it is outside the window of the job
+         */
+        private void scored(Job job, int score) {
+            if (job.done) {
+                return;
+            }
+            if (job.parent == null) {
+                // Also the result of a split move which arrived before the cancellation
+                moveScored(job, score);
+                return;
+            }
+
+            job.done = true;
+            Job move = job.parent;
+            if (move.done) {
+                return;
+            }
+            move.openReplies--;
+            if (score < move.value) {
+                move.value = score;
+                if (move.value <= best || move.openReplies == 0) {
+                    moveScored(move, move.value); // A reply refutes the move, or all replies are known
+                } else {
+                    narrowWindows();
+                }
+            } else if (move.openReplies == 0) {
+                moveScored(move, move.value);
+            }
+        }
+
+        /**
+         * @param score the score of the move, an upper bound if it is not above the best score
+         */
+        private void moveScored(Job move, int score) {
+            move.done = true;
+            openMoves--;
+            scores.put(move.line.get(0), score);
+            if (move.worker != null) {
+                cancel(move);
+            }
+            for (Job reply : move.replies) {
+                reply.done = true;
+                if (reply.worker != null) {
+                    cancel(reply);
+                }
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move.line.get(0);
+                narrowWindows();
+            }
+            queue.addAll(waiting);
+            waiting.clear();
+        }
+
+        /**
+         * Send the current windows to all running jobs.
+         */
+        private void narrowWindows() {
+            for (WorkerConnection worker : workers) {
+                Job job = worker.getJob();
+                if (job != null && !job.done && jobsById.get(job.id) == job) {
+                    try {
+                        worker.bound(job, alpha(job), beta(job));
+                        boundUpdates++;
+                    } catch (IOException e) {
+                        // The lost connection is reported by the reader of the worker
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the lower bound of the window of the job from Player 1's perspective
+         */
+        private int alpha(Job job) {
+            return sign > 0 ? best : -upperBound(job);
+        }
+
+        /**
+         * @return the upper bound of the window of the job from Player 1's perspective
+         */
+        private int beta(Job job) {
+            return sign > 0 ? upperBound(job) : -best;
+        }
+
+        private int upperBound(Job job) {
+            return job.parent == null ? Integer.MAX_VALUE : job.parent.value;
+        }
+
+        private void cancel(Job job) {
+            try {
+                job.worker.cancel(job);
+            } catch (IOException e) {
+                // The lost connection is reported by the reader of the worker
+            }
+        }
+
+        /**
+         * Cancel all running jobs and wait until the workers confirm, so the next iteration starts with idle workers.
+         */
+        private void stopWorkers() {
+            for (WorkerConnection worker : workers) {
+                if (worker.getJob() != null) {
+                    cancel(worker.getJob());
+                }
+            }
+            long stopDeadline = System.nanoTime() + STOP_TIMEOUT_MS * 1_000_000;
+            try {
+                while (workers.stream().anyMatch(worker -> worker.getJob() != null)) {
+                    WorkerConnection.Event event = events.poll(stopDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (event == null) {
+                        break;
+                    }
+                    WorkerConnection worker = event.worker();
+                    nodes += event.nodes();
+                    if (event.type().equals("CLOSED")) {
+                        workers.remove(worker);
+                    } else if (worker.getJob() != null && worker.getJob().id == event.jobId()) {
+                        worker.setIdle();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // A worker which did not confirm in time searches the next job after its cancelled one
+            workers.forEach(WorkerConnection::setIdle);
+        }
+    }
+
+    /**
+     * Parse a comma separated list of worker addresses, e.g. {@code localhost:4748,10.0.0.2:4748}.
+     */
+    public static List<InetSocketAddress> parseAddresses(String addresses) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String address : addresses.split(",")) {
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected HOST:PORT but got " + address);
+            }
+            result.add(new InetSocketAddress(address.substring(0, colon).trim(),
+                    Integer.parseInt(address.substring(colon + 1).trim())));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (WorkerConnection worker : workers) {
+            worker.close();
+        }
+        workers.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package fr.ai.game.programming.distributed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SearchWorker} processes started on this machine, listening on the loopback interface. Useful to try a
+ * distributed search, and to search with several JVMs whose heaps and garbage collections are independent.
+ * <p>
+ * The workers are started with the JVM options of this JVM, so they search with the same system properties (e.g. the
+ * evaluation weights or the pruning settings).
+ */
+public class LocalSearchWorkers implements AutoCloseable {
+
+    private static final String LISTENING = "Search worker listening on port ";
+
+    private final List<Process> processes = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    /**
+     * Start the worker JVMs and wait until they listen.
+     * @param workers the number of worker JVMs
+     * @param jvmOptions additional options of the worker JVMs, e.g. "-Xmx512m"
+     */
+    public LocalSearchWorkers(int workers, List<String> jvmOptions) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        try {
+            for (int i = 0; i < workers; i++) {
+                start(jvmOptions);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void start(List<String> jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("fr.ai.game.programming.Main");
+        command.add("search-worker");
+        command.add("--port");
+        command.add("0");
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        processes.add(process);
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line = output.readLine();
+        if (line == null || !line.startsWith(LISTENING)) {
+            throw new IOException("The search worker did not start: " + line);
+        }
+        addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                Integer.parseInt(line.substring(LISTENING.length()).trim())));
+    }
+
+    /**
+     * @return the addresses of the workers
+     */
+    public List<InetSocketAddress> getAddresses() {
+        return List.copyOf(addresses);
+    }
+
+    @Override
+    public void close() {
+        processes.forEach(Process::destroy);
+        processes.clear();
+    }
+}
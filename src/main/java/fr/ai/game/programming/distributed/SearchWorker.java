@@ -0,0 +1,256 @@
+package fr.ai.game.programming.distributed;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionNotation;
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.EvaluationCache;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.SearchBounds;
+import fr.ai.game.programming.game.player.SearchEngine;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker process of a distributed search (see {@link AIManagerDistributed}): searches the subtrees sent by a
+ * coordinator with {@link SearchEngine#searchLine}.
+ * <p>
+ * Every connection searches one subtree at a time with its own AIManager, so a coordinator opens one connection per
+ * core it wants to use; all connections share the evaluation cache of the worker. Commands (one per line):
+ * <ul>
+ *     <li>{@code SEARCH <id> <depth> <alpha> <beta> <timeMs> <line> <position>} - search the line of moves (e.g.
+ *     {@code 3B,6R}) from the position (see {@link PositionNotation}) with the depth of the root search</li>
+ *     <li>{@code BOUND <id> <alpha> <beta>} - narrow the window of the search while it runs</li>
+ *     <li>{@code CANCEL <id>} - stop the search</li>
+ * </ul>
+ * Responses: {@code HELLO awale-worker 1} when connected, {@code RESULT <id> <score> <nodes>} (the score from Player 1's
+ * perspective, fail-soft), {@code STOPPED <id> <nodes>} and {@code ERR <id> <message>}.
+ */
+public class SearchWorker implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 4748;
+
+    private final InetSocketAddress address;
+    private final EvaluationCache evaluationCache = new EvaluationCache();
+    private final AtomicLong connectionIds = new AtomicLong();
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * @param address the address to listen on, port 0 chooses a free port
+     */
+    public SearchWorker(InetSocketAddress address) {
+        this.address = address;
+    }
+
+    /**
+     * Bind the server socket and start accepting coordinators in the background.
+     */
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        running = true;
+
+        Thread acceptor = new Thread(this::acceptLoop, "awale-worker-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread thread = new Thread(new Connection(socket), "awale-worker-" + connectionIds.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.out.println("Could not accept connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the port the worker is listening on, useful when it was started with port 0
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    /**
+     * One coordinator connection: commands are read on the connection thread, the searches run one after the other
+     * on a search thread, so a running search can be narrowed or cancelled.
+     */
+    private class Connection implements Runnable {
+        private final Socket socket;
+        private final SearchEngine manager = new SearchEngine(AIDifficulty.SOLVER.config(), false, evaluationCache);
+        private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, Thread.currentThread().getName() + "-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final Map<Long, SearchBounds> searches = new ConcurrentHashMap<>();
+        private BufferedWriter out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+                this.out = writer;
+                send("HELLO awale-worker 1");
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    handle(line.trim());
+                }
+            } catch (IOException e) {
+                // The coordinator is gone
+            } finally {
+                searches.values().forEach(SearchBounds::stop);
+                searchThread.shutdownNow();
+            }
+        }
+
+        private void handle(String line) throws IOException {
+            String[] parts = line.split(" ", 8);
+            long id = parts.length > 1 ? Long.parseLong(parts[1]) : -1;
+            switch (parts[0]) {
+                case "SEARCH" -> {
+                    try {
+                        int depth = Integer.parseInt(parts[2]);
+                        SearchBounds bounds = new SearchBounds(Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+                        long timeMs = Long.parseLong(parts[5]);
+                        List<Move> moves = parseLine(parts[6]);
+                        Board board = PositionNotation.parse(parts[7]);
+                        searches.put(id, bounds);
+                        searchThread.execute(() -> search(id, board, moves, depth, bounds, timeMs));
+                    } catch (RuntimeException e) {
+                        send("ERR " + id + " " + e.getMessage());
+                    }
+                }
+                case "BOUND" -> {
+                    SearchBounds bounds = searches.get(id);
+                    if (bounds != null) {
+                        bounds.narrow(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                    }
+                }
+                case "CANCEL" -> {
+                    SearchBounds bounds = searches.get(id);
+                    if (bounds != null) {
+                        bounds.stop();
+                    }
+                }
+                default -> send("ERR " + id + " Unknown command: " + parts[0]);
+            }
+        }
+
+        private void search(long id, Board board, List<Move> line, int depth, SearchBounds bounds, long timeMs) {
+            try {
+                String response;
+                try {
+                    SearchResult result = manager.searchLine(board, line, depth, bounds, timeMs);
+                    response = result.timeLimitReached() ? "STOPPED " + id + " " + result.nodes()
+                            : "RESULT " + id + " " + result.score() + " " + result.nodes();
+                } catch (IllegalArgumentException e) {
+                    response = "ERR " + id + " " + e.getMessage();
+                }
+                send(response);
+            } catch (IOException e) {
+                // The coordinator is gone, the connection thread cleans up
+            } finally {
+                searches.remove(id);
+            }
+        }
+
+        private void send(String message) throws IOException {
+            synchronized (this) {
+                out.write(message);
+                out.write('\n');
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Parse a line of moves in the notation of {@link Move#toNotation()}, separated by commas.
+     */
+    static List<Move> parseLine(String line) {
+        List<Move> moves = new ArrayList<>();
+        for (String move : line.split(",")) {
+            if (move.length() < 2) {
+                throw new IllegalArgumentException("Invalid move: " + move);
+            }
+            int hole = Integer.parseInt(move.substring(0, move.length() - 1)) - 1;
+            char color = move.charAt(move.length() - 1);
+            if (hole < 0 || hole >= Board.TOTAL_HOLES || (color != 'B' && color != 'R')) {
+                throw new IllegalArgumentException("Invalid move: " + move);
+            }
+            moves.add(new Move(hole, color == 'B' ? SeedColor.BLUE : SeedColor.RED));
+        }
+        return moves;
+    }
+
+    /**
+     * @return the line in the notation read by {@link #parseLine(String)}
+     */
+    static String formatLine(List<Move> line) {
+        return String.join(",", line.stream().map(Move::toNotation).toList());
+    }
+
+    /**
+     * Start a worker from the command line: {@code search-worker [--port P] [--host ADDRESS]}. The worker only listens
+     * on the loopback interface unless another address is given, e.g. {@code --host 0.0.0.0}.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        InetAddress host = InetAddress.getLoopbackAddress();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--host" -> host = InetAddress.getByName(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        SearchWorker worker = new SearchWorker(new InetSocketAddress(host, port));
+        worker.start();
+        // The first line is read by LocalSearchWorkers to find the port
+        System.out.println("Search worker listening on port " + worker.getPort());
+        System.out.flush();
+        while (worker.running) {
+            Thread.sleep(60_000);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package fr.ai.game.programming.distributed;
+
+import fr.ai.game.programming.game.elements.PositionNotation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The connection of the coordinator to one {@link SearchWorker}. Commands are sent by the coordinator thread, the
+ * responses are read on a thread of their own and put into the event queue of the coordinator.
+ */
+class WorkerConnection implements AutoCloseable {
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    /**
+     * A response of the worker, {@code type} is RESULT, STOPPED or ERR, or CLOSED if the connection was lost.
+     */
+    record Event(WorkerConnection worker, String type, long jobId, int score, long nodes, String message) {
+    }
+
+    private final InetSocketAddress address;
+    private final Socket socket;
+    private final BufferedWriter out;
+    private final BlockingQueue<Event> events;
+    private AIManagerDistributed.Job job; // The job the worker is searching, null if it is idle
+
+    WorkerConnection(InetSocketAddress address, BlockingQueue<Event> events) throws IOException {
+        this.address = address;
+        this.events = events;
+        this.socket = new Socket();
+        socket.connect(address, CONNECT_TIMEOUT_MS);
+        socket.setTcpNoDelay(true);
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+        String hello = in.readLine();
+        if (hello == null || !hello.startsWith("HELLO awale-worker")) {
+            socket.close();
+            throw new IOException("Not a search worker: " + address);
+        }
+
+        Thread reader = new Thread(() -> readLoop(in), "awale-coordinator-" + address.getPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readLoop(BufferedReader in) {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(" ", 3);
+                long id = Long.parseLong(parts[1]);
+                events.add(switch (parts[0]) {
+                    case "RESULT" -> {
+                        String[] values = parts[2].split(" ");
+                        yield new Event(this, "RESULT", id, Integer.parseInt(values[0]), Long.parseLong(values[1]), null);
+                    }
+                    case "STOPPED" -> new Event(this, "STOPPED", id, 0, Long.parseLong(parts[2]), null);
+                    default -> new Event(this, "ERR", id, 0, 0, parts.length > 2 ? parts[2] : line);
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            // Reported as a lost connection below
+        }
+        events.add(new Event(this, "CLOSED", -1, 0, 0, "Connection to " + address + " lost"));
+    }
+
+    void search(AIManagerDistributed.Job job, int depth, int alpha, int beta, long timeMs) throws IOException {
+        this.job = job;
+        send("SEARCH " + job.id + " " + depth + " " + alpha + " " + beta + " " + timeMs + " "
+                + SearchWorker.formatLine(job.line) + " " + PositionNotation.format(job.root));
+    }
+
+    void bound(AIManagerDistributed.Job job, int alpha, int beta) throws IOException {
+        send("BOUND " + job.id + " " + alpha + " " + beta);
+    }
+
+    void cancel(AIManagerDistributed.Job job) throws IOException {
+        send("CANCEL " + job.id);
+    }
+
+    private void send(String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+    }
+
+    AIManagerDistributed.Job getJob() {
+        return job;
+    }
+
+    void setIdle() {
+        job = null;
+    }
+
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,253 @@
+package fr.ai.game.programming.endgame;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.player.ProofNumberSearch.Outcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Read access to an endgame database written by {@link EndgameGenerator}: the outcome of every position with few seeds
+ * on the board for the player to move.
+ * <p>
+ * Every stored {@link EndgamePartition} is one file: the header (the magic "AWEG", the format version, the partition, the
+ * positions per block, the number of positions and blocks), the file offsets of all blocks, and the blocks, each
+ * holding the outcomes of {@link #POSITIONS_PER_BLOCK} positions with two bits per position, compressed with Deflate.
+ * A probe reads and inflates a single block; the most recently used blocks are kept in memory.
+ * <p>
+ * The database is thread-safe.
+ */
+public class EndgameDatabase implements AutoCloseable {
+
+    // Outcomes for the player to move, two bits per position
+    static final int UNKNOWN = 0;
+    static final int LOSS = 1;
+    static final int DRAW = 2;
+    static final int WIN = 3;
+
+    static final int POSITIONS_PER_BLOCK = 1 << 16; // 16 KB of outcomes per block
+
+    private static final int MAGIC = 0x41574547; // "AWEG"
+    private static final int VERSION = 2; // Version 2 stores only one of every position and its mirror
+    private static final int HEADER_BYTES = 36;
+    private static final int CACHED_BLOCKS = 256;
+
+    private final Path directory;
+    private final Map<EndgamePartition, PartitionFile> files = new ConcurrentHashMap<>();
+    private final AtomicInteger fileIds = new AtomicInteger();
+    private final Map<Long, byte[]> blocks = new LinkedHashMap<>(CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+
+    /**
+     * @param directory the directory of the partition files, partitions without a file are unknown
+     */
+    public EndgameDatabase(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Look up the outcome of a position.
+     * @return the outcome for the player to move, {@link Outcome#UNKNOWN} if the position is not in the database or
+     *         was left undecided by the generator
+     */
+    public Outcome probe(Board board) throws IOException {
+        Board copy = board.copy(); // checkGameStatus may capture the remaining seeds
+        GameStatus status = copy.checkGameStatus();
+        if (status.isGameOver()) {
+            return status.getWinner() == 0 ? Outcome.DRAW
+                    : status.getWinner() == board.getCurrentPlayer() ? Outcome.WIN : Outcome.LOSS;
+        }
+        // A position and its mirror have the same outcome for the player to move, only one of them is stored
+        Board position = EndgamePartition.stored(board);
+        EndgamePartition partition = EndgamePartition.of(position);
+        if (partition == null) {
+            return Outcome.UNKNOWN;
+        }
+        return toOutcome(probe(partition,
+                partition.index(EndgamePartition.slotsOf(position), position.getCurrentPlayer())));
+    }
+
+    /**
+     * @return true if the database has a file for the partition
+     */
+    public boolean contains(EndgamePartition partition) {
+        return Files.exists(directory.resolve(partition.fileName()));
+    }
+
+    /**
+     * @return the two-bit outcome of the position with the index, {@link #UNKNOWN} if the partition has no file
+     */
+    int probe(EndgamePartition partition, long index) throws IOException {
+        PartitionFile file = files.get(partition);
+        if (file == null) {
+            if (!contains(partition)) {
+                return UNKNOWN;
+            }
+            file = files.computeIfAbsent(partition, this::open);
+        }
+        int block = (int) (index / POSITIONS_PER_BLOCK);
+        long key = ((long) file.id << 32) | block;
+        byte[] outcomes;
+        synchronized (blocks) {
+            outcomes = blocks.get(key);
+        }
+        if (outcomes == null) {
+            outcomes = file.readBlock(block);
+            synchronized (blocks) {
+                blocks.put(key, outcomes);
+            }
+        }
+        int position = (int) (index % POSITIONS_PER_BLOCK);
+        return (outcomes[position >>> 2] >>> ((position & 3) * 2)) & 3;
+    }
+
+    private PartitionFile open(EndgamePartition partition) {
+        try {
+            return new PartitionFile(directory.resolve(partition.fileName()), partition, fileIds.getAndIncrement());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the endgame database file " + partition.fileName(), e);
+        }
+    }
+
+    static Outcome toOutcome(int outcome) {
+        return switch (outcome) {
+            case LOSS -> Outcome.LOSS;
+            case DRAW -> Outcome.DRAW;
+            case WIN -> Outcome.WIN;
+            default -> Outcome.UNKNOWN;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (PartitionFile file : files.values()) {
+            file.channel.close();
+        }
+        files.clear();
+        synchronized (blocks) {
+            blocks.clear();
+        }
+    }
+
+    /**
+     * Write the outcomes of a generated partition as a compressed, block-indexed file. The file is written next to
+     * the target and then moved over it, so a file with the name of the partition is always complete.
+     */
+    static void write(Path file, EndgamePartition partition, OutcomeSpillFile outcomes) throws IOException {
+        long positions = partition.positions();
+        int blockCount = (int) ((positions + POSITIONS_PER_BLOCK - 1) / POSITIONS_PER_BLOCK);
+        long[] offsets = new long[blockCount + 1];
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = HEADER_BYTES + 8L * offsets.length;
+            byte[] raw = new byte[POSITIONS_PER_BLOCK / 4];
+            byte[] compressed = new byte[raw.length + 1024];
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (int block = 0; block < blockCount; block++) {
+                    long firstPosition = (long) block * POSITIONS_PER_BLOCK;
+                    int length = (int) ((Math.min(positions, firstPosition + POSITIONS_PER_BLOCK) - firstPosition + 3) / 4);
+                    outcomes.read(firstPosition / 4, raw, length);
+                    deflater.reset();
+                    deflater.setInput(raw, 0, length);
+                    deflater.finish();
+                    int size = deflater.deflate(compressed);
+                    offsets[block] = position;
+                    position += channel.write(ByteBuffer.wrap(compressed, 0, size), position);
+                }
+            } finally {
+                deflater.end();
+            }
+            offsets[blockCount] = position;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 8 * offsets.length);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putInt(partition.seedsOnBoard()).putInt(partition.player1Seeds()).putInt(partition.player2Seeds())
+                    .putInt(POSITIONS_PER_BLOCK).putLong(positions).putInt(blockCount);
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * An open partition file with its block offsets.
+     */
+    private static final class PartitionFile {
+        private final int id;
+        private final FileChannel channel;
+        private final long[] offsets;
+
+        PartitionFile(Path file, EndgamePartition partition, int id) throws IOException {
+            this.id = id;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(header, 0);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an endgame database file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported endgame database version " + version + " in " + file);
+            }
+            if (header.getInt() != partition.seedsOnBoard() || header.getInt() != partition.player1Seeds()
+                    || header.getInt() != partition.player2Seeds() || header.getInt() != POSITIONS_PER_BLOCK
+                    || header.getLong() != partition.positions()) {
+                throw new IOException("The endgame database file " + file + " holds another partition");
+            }
+            int blockCount = header.getInt();
+            ByteBuffer index = ByteBuffer.allocate(8 * (blockCount + 1));
+            readFully(index, HEADER_BYTES);
+            offsets = new long[blockCount + 1];
+            index.asLongBuffer().get(offsets);
+        }
+
+        private void readFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Truncated endgame database file");
+                }
+            }
+            buffer.flip();
+        }
+
+        byte[] readBlock(int block) throws IOException {
+            ByteBuffer compressed = ByteBuffer.allocate((int) (offsets[block + 1] - offsets[block]));
+            readFully(compressed, offsets[block]);
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed.array());
+                byte[] outcomes = new byte[POSITIONS_PER_BLOCK / 4];
+                inflater.inflate(outcomes);
+                return outcomes;
+            } catch (DataFormatException e) {
+                throw new IOException("Damaged block " + block + " in an endgame database file", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package fr.ai.game.programming.endgame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates an endgame database with one worker JVM per {@link EndgamePartition}.
+ * <p>
+ * The partitions are generated in the order of their seeds on the board, since captures lead to partitions with fewer
+ * seeds; all partitions with the same seeds are independent and run in parallel, up to the given number of workers.
+ * The workers only communicate through the database directory: a worker reads the finished partitions with fewer seeds
+ * and writes its own partition file when it is done, its output goes to {@code logs/<partition>.log}. A partition
+ * whose file exists is not generated again, so an interrupted generation continues where it stopped.
+ */
+public class EndgameGenerator {
+
+    private final Path directory;
+    private final int workers;
+    private final List<String> workerJvmOptions;
+
+    /**
+     * @param directory the database directory
+     * @param workers the number of worker JVMs running at the same time
+     * @param workerJvmOptions additional options of the worker JVMs, e.g. "-Xmx512m"
+     */
+    public EndgameGenerator(Path directory, int workers, List<String> workerJvmOptions) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.directory = directory;
+        this.workers = workers;
+        this.workerJvmOptions = List.copyOf(workerJvmOptions);
+    }
+
+    /**
+     * Generate all partitions with up to the given seeds on the board.
+     */
+    public void generate(int maxSeeds) throws IOException, InterruptedException {
+        if (maxSeeds < EndgamePartition.MIN_SEEDS || maxSeeds > EndgamePartition.MAX_SEEDS) {
+            throw new IllegalArgumentException("The endgame database holds " + EndgamePartition.MIN_SEEDS + " to "
+                    + EndgamePartition.MAX_SEEDS + " seeds on the board, not " + maxSeeds);
+        }
+        Files.createDirectories(directory.resolve("logs"));
+        for (int seeds = EndgamePartition.MIN_SEEDS; seeds <= maxSeeds; seeds++) {
+            List<EndgamePartition> pending = new ArrayList<>();
+            for (EndgamePartition partition : EndgamePartition.withSeeds(seeds)) {
+                if (!Files.exists(directory.resolve(partition.fileName()))) {
+                    pending.add(partition);
+                }
+            }
+            System.out.println(seeds + " seeds: " + pending.size() + " partitions to generate");
+            runWorkers(pending);
+        }
+    }
+
+    private void runWorkers(List<EndgamePartition> partitions) throws IOException, InterruptedException {
+        List<Worker> running = new ArrayList<>();
+        int next = 0;
+        while (next < partitions.size() || !running.isEmpty()) {
+            while (running.size() < workers && next < partitions.size()) {
+                running.add(start(partitions.get(next++)));
+            }
+            Worker finished = awaitAny(running);
+            int exitCode = finished.process().exitValue();
+            if (exitCode != 0) {
+                running.forEach(worker -> worker.process().destroy());
+                throw new IOException("The worker of " + finished.partition().fileName() + " failed with exit code "
+                        + exitCode + ", see " + logOf(finished.partition()));
+            }
+            System.out.println("Generated " + finished.partition().fileName() + " ("
+                    + Files.size(directory.resolve(finished.partition().fileName())) + " bytes)");
+        }
+    }
+
+    private static Worker awaitAny(List<Worker> running) throws InterruptedException {
+        while (true) {
+            for (Worker worker : running) {
+                if (!worker.process().isAlive()) {
+                    running.remove(worker);
+                    return worker;
+                }
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Worker start(EndgamePartition partition) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(workerJvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("fr.ai.game.programming.Main");
+        command.add("endgame-worker");
+        command.add(directory.toString());
+        command.add(String.valueOf(partition.seedsOnBoard()));
+        command.add(String.valueOf(partition.player1Seeds()));
+        command.add(String.valueOf(partition.player2Seeds()));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logOf(partition).toFile())
+                .start();
+        return new Worker(partition, process);
+    }
+
+    private Path logOf(EndgamePartition partition) {
+        return directory.resolve("logs").resolve(partition.fileName() + ".log");
+    }
+
+    private record Worker(EndgamePartition partition, Process process) {
+    }
+
+    /**
+     * Run the generator from the command line:
+     * {@code endgame-db [--dir DIR] [--max-seeds N] [--workers N] [--worker-heap SIZE]}.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        Path directory = Path.of("endgame-db");
+        int maxSeeds = EndgamePartition.MIN_SEEDS;
+        int workers = Runtime.getRuntime().availableProcessors();
+        List<String> jvmOptions = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dir" -> directory = Path.of(args[++i]);
+                case "--max-seeds" -> maxSeeds = Integer.parseInt(args[++i]);
+                case "--workers" -> workers = Integer.parseInt(args[++i]);
+                case "--worker-heap" -> jvmOptions.add("-Xmx" + args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        new EndgameGenerator(directory, workers, jvmOptions).generate(maxSeeds);
+        System.out.println("Endgame database up to " + maxSeeds + " seeds generated in "
+                + (System.nanoTime() - start) / 1_000_000_000 + " s");
+    }
+}
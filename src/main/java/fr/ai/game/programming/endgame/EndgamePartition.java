@@ -0,0 +1,213 @@
+package fr.ai.game.programming.endgame;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.SeedColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * The positions of an endgame database with the same number of seeds on the board and the same captured seeds.
+ * <p>
+ * A position is the distribution of the seeds over the 32 slots (blue and red of every hole, slot
+ * {@code 2 * hole} is blue and {@code 2 * hole + 1} red) and the player to move. The distributions are numbered in
+ * lexicographic order by the combinatorial number system, so a partition is a dense array of
+ * {@code 2 * C(seeds + 31, 31)} positions. Moves without a capture stay inside the partition, moves with a capture
+ * lead to a partition with fewer seeds on the board, so partitions are generated in the order of their seeds.
+ * <p>
+ * A position and its mirror (see {@link Board#mirror()}) have the same outcome for the player to move, so only half of
+ * the positions are stored: the partitions in which Player 1 has captured at most as many seeds as Player 2, and of
+ * those with equal captured seeds only the positions with Player 1 to move. Every other position is looked up as its
+ * mirror, see {@link #isStored(int, int, int)}.
+ *
+ * @param seedsOnBoard the seeds on the board
+ * @param player1Seeds the seeds captured by player 1
+ * @param player2Seeds the seeds captured by player 2
+ */
+public record EndgamePartition(int seedsOnBoard, int player1Seeds, int player2Seeds) {
+
+    public static final int SLOTS = 2 * TOTAL_HOLES;
+    public static final int TOTAL_SEEDS = 64;
+    public static final int MIN_SEEDS = 8; // With fewer seeds on the board the game is over
+    public static final int MAX_SEEDS = 17; // The block index of a database file must fit into an int array
+
+    // COMPOSITIONS[seeds][slots] is the number of ways to put the seeds into the slots
+    private static final long[][] COMPOSITIONS = new long[MAX_SEEDS + 1][SLOTS + 1];
+
+    static {
+        for (int seeds = 0; seeds <= MAX_SEEDS; seeds++) {
+            COMPOSITIONS[seeds][0] = seeds == 0 ? 1 : 0;
+            for (int slots = 1; slots <= SLOTS; slots++) {
+                // Either the first slot is empty, or it holds at least one of the seeds
+                COMPOSITIONS[seeds][slots] = COMPOSITIONS[seeds][slots - 1] + (seeds > 0 ? COMPOSITIONS[seeds - 1][slots] : 0);
+            }
+        }
+    }
+
+    public EndgamePartition {
+        if (seedsOnBoard < MIN_SEEDS || seedsOnBoard > MAX_SEEDS) {
+            throw new IllegalArgumentException("Endgame partitions hold " + MIN_SEEDS + " to " + MAX_SEEDS
+                    + " seeds on the board, not " + seedsOnBoard);
+        }
+        if (player1Seeds < 0 || player2Seeds < 0 || seedsOnBoard + player1Seeds + player2Seeds != TOTAL_SEEDS) {
+            throw new IllegalArgumentException("Invalid captured seeds: " + player1Seeds + " and " + player2Seeds);
+        }
+    }
+
+    /**
+     * @return the stored partitions with the given seeds on the board whose positions are not decided by the captured
+     *         seeds alone, i.e. neither player has captured more than 32 seeds
+     */
+    public static List<EndgamePartition> withSeeds(int seedsOnBoard) {
+        int captured = TOTAL_SEEDS - seedsOnBoard;
+        List<EndgamePartition> partitions = new ArrayList<>();
+        for (int player1 = Math.max(0, captured - 32); player1 <= captured / 2; player1++) {
+            partitions.add(new EndgamePartition(seedsOnBoard, player1, captured - player1));
+        }
+        return partitions;
+    }
+
+    /**
+     * @return the partition of the board, or null if the board is outside of every partition
+     */
+    public static EndgamePartition of(Board board) {
+        int seeds = board.totalSeeds();
+        if (seeds < MIN_SEEDS || seeds > MAX_SEEDS || board.getPlayer1Seeds() > 32 || board.getPlayer2Seeds() > 32
+                || seeds + board.getPlayer1Seeds() + board.getPlayer2Seeds() != TOTAL_SEEDS) {
+            return null;
+        }
+        return new EndgamePartition(seeds, board.getPlayer1Seeds(), board.getPlayer2Seeds());
+    }
+
+    /**
+     * @return true if the positions with the captured seeds and the player to move are stored as they are, false if
+     *         they are stored as their mirror
+     */
+    public static boolean isStored(int player1Seeds, int player2Seeds, int player) {
+        return player1Seeds < player2Seeds || player1Seeds == player2Seeds && player == 1;
+    }
+
+    /**
+     * @return the board itself if its position is stored, otherwise its mirror
+     */
+    public static Board stored(Board board) {
+        return isStored(board.getPlayer1Seeds(), board.getPlayer2Seeds(), board.getCurrentPlayer())
+                ? board : board.mirror();
+    }
+
+    /**
+     * Mirror the seeds of a position the same way as {@link Board#mirror()}.
+     * @param player the player to move in the position
+     */
+    public static void mirrorSlots(int[] slots, int player, int[] mirrored) {
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            int target = (hole + (player == 2 ? TOTAL_HOLES - 1 : 1)) % TOTAL_HOLES;
+            mirrored[2 * target] = slots[2 * hole];
+            mirrored[2 * target + 1] = slots[2 * hole + 1];
+        }
+    }
+
+    /**
+     * @return the partition of the mirrored positions, with the captured seeds swapped
+     */
+    public EndgamePartition mirror() {
+        return new EndgamePartition(seedsOnBoard, player2Seeds, player1Seeds);
+    }
+
+    /**
+     * @return true if both players have captured the same seeds, the partition then only stores Player 1 to move
+     */
+    public boolean isSymmetric() {
+        return player1Seeds == player2Seeds;
+    }
+
+    /**
+     * @return the number of seed distributions of the partition
+     */
+    public long distributions() {
+        return COMPOSITIONS[seedsOnBoard][SLOTS];
+    }
+
+    /**
+     * @return the number of stored positions: every distribution with either player to move, or only with Player 1
+     *         to move in a symmetric partition
+     */
+    public long positions() {
+        return isSymmetric() ? distributions() : 2 * distributions();
+    }
+
+    /**
+     * @return the file name of the partition in a database directory, e.g. "n08-24-32.egdb"
+     */
+    public String fileName() {
+        return String.format("n%02d-%02d-%02d.egdb", seedsOnBoard, player1Seeds, player2Seeds);
+    }
+
+    /**
+     * @param slots the seeds of the 32 slots, summing up to the seeds of the partition
+     * @param player the player to move, 1 in a symmetric partition
+     * @return the index of the position in the partition
+     */
+    public long index(int[] slots, int player) {
+        long rank = 0;
+        int seeds = seedsOnBoard;
+        for (int slot = 0; slot < SLOTS - 1 && seeds > 0; slot++) {
+            // Skip the distributions with fewer seeds in this slot
+            int remainingSlots = SLOTS - slot;
+            rank += COMPOSITIONS[seeds][remainingSlots] - COMPOSITIONS[seeds - slots[slot]][remainingSlots];
+            seeds -= slots[slot];
+        }
+        return isSymmetric() ? rank : 2 * rank + (player - 1);
+    }
+
+    /**
+     * Fill the seeds of the position with the index.
+     * @return the player to move
+     */
+    public int position(long index, int[] slots) {
+        long rank = isSymmetric() ? index : index >>> 1;
+        int seeds = seedsOnBoard;
+        for (int slot = 0; slot < SLOTS - 1; slot++) {
+            int remainingSlots = SLOTS - slot - 1;
+            int count = 0;
+            // The distributions with count seeds in this slot come after those with fewer
+            while (rank >= COMPOSITIONS[seeds - count][remainingSlots]) {
+                rank -= COMPOSITIONS[seeds - count][remainingSlots];
+                count++;
+            }
+            slots[slot] = count;
+            seeds -= count;
+        }
+        slots[SLOTS - 1] = seeds;
+        return isSymmetric() ? 1 : (int) (index & 1) + 1;
+    }
+
+    /**
+     * @return the seeds of the board in slot order
+     */
+    public static int[] slotsOf(Board board) {
+        int[] slots = new int[SLOTS];
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            slots[2 * hole] = board.getSeedsInHole(hole, SeedColor.BLUE);
+            slots[2 * hole + 1] = board.getSeedsInHole(hole, SeedColor.RED);
+        }
+        return slots;
+    }
+
+    /**
+     * @return the board of the position with the index
+     */
+    public Board toBoard(long index) {
+        int[] slots = new int[SLOTS];
+        int player = position(index, slots);
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            blue[hole] = slots[2 * hole];
+            red[hole] = slots[2 * hole + 1];
+        }
+        return Board.fromPosition(blue, red, player1Seeds, player2Seeds, player);
+    }
+}
@@ -0,0 +1,270 @@
+package fr.ai.game.programming.endgame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static fr.ai.game.programming.endgame.EndgameDatabase.DRAW;
+import static fr.ai.game.programming.endgame.EndgameDatabase.LOSS;
+import static fr.ai.game.programming.endgame.EndgameDatabase.UNKNOWN;
+import static fr.ai.game.programming.endgame.EndgameDatabase.WIN;
+import static fr.ai.game.programming.endgame.EndgamePartition.MIN_SEEDS;
+import static fr.ai.game.programming.endgame.EndgamePartition.SLOTS;
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Generates one {@link EndgamePartition} of the endgame database, usually in its own JVM started by the
+ * {@link EndgameGenerator}.
+ * <p>
+ * The outcomes are computed by repeated sweeps over all undecided positions of the partition: a position is won if a
+ * move wins, and lost or drawn once the outcomes of all its moves are known. Moves without a capture stay inside the
+ * partition, so a sweep uses the outcomes of earlier sweeps and of positions already visited in the same sweep. Moves
+ * with a capture are looked up in the partitions with fewer seeds, which must have been generated before. The sweeps
+ * stop when one sweep decides nothing new; the positions left are undecided because both players can keep sowing
+ * forever, and stay {@link EndgameDatabase#UNKNOWN}.
+ * <p>
+ * The moves are played on an array of slots with the same rules as {@link fr.ai.game.programming.game.elements.Board}
+ * ({@code sowSeeds} followed by {@code checkGameStatus} for the opponent), since billions of moves are played.
+ */
+public class EndgameWorker {
+
+    private final Path directory;
+
+    /**
+     * @param directory the database directory, with the partitions of fewer seeds
+     */
+    public EndgameWorker(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Generate the partition and write its file into the database directory. The outcomes of the partition are kept in
+     * a memory-mapped work file in the {@code work} subdirectory while they are computed.
+     */
+    public void generate(EndgamePartition partition) throws IOException {
+        try (EndgameDatabase database = new EndgameDatabase(directory)) {
+            checkLowerPartitions(database, partition);
+
+            Path workDirectory = Files.createDirectories(directory.resolve("work"));
+            try (OutcomeSpillFile outcomes = new OutcomeSpillFile(workDirectory.resolve(partition.fileName() + ".work"),
+                    partition.positions())) {
+                long start = System.nanoTime();
+                Sweeper sweeper = new Sweeper(partition, outcomes, database);
+                long decided;
+                int sweep = 0;
+                do {
+                    decided = sweeper.sweep();
+                    sweep++;
+                    System.out.printf(Locale.ROOT, "%s sweep %d: %d positions decided, %d undecided, %.1f s%n",
+                            partition.fileName(), sweep, decided, sweeper.undecided,
+                            (System.nanoTime() - start) / 1e9);
+                } while (decided > 0);
+
+                EndgameDatabase.write(directory.resolve(partition.fileName()), partition, outcomes);
+                System.out.printf(Locale.ROOT, "%s: %d won, %d drawn, %d lost, %d undecided of %d positions%n",
+                        partition.fileName(), sweeper.counts[WIN], sweeper.counts[DRAW], sweeper.counts[LOSS],
+                        sweeper.undecided, partition.positions());
+            }
+        }
+    }
+
+    /**
+     * Captures lead to partitions with fewer seeds and more captured seeds, all of which must exist, stored as they are
+     * or as their mirror.
+     */
+    private static void checkLowerPartitions(EndgameDatabase database, EndgamePartition partition) throws IOException {
+        for (int seeds = MIN_SEEDS; seeds <= partition.seedsOnBoard() - 2; seeds++) {
+            for (EndgamePartition lower : EndgamePartition.withSeeds(seeds)) {
+                boolean reachable = lower.player1Seeds() >= partition.player1Seeds()
+                        && lower.player2Seeds() >= partition.player2Seeds()
+                        || lower.player2Seeds() >= partition.player1Seeds()
+                        && lower.player1Seeds() >= partition.player2Seeds();
+                if (reachable && !database.contains(lower)) {
+                    throw new IOException("Missing endgame partition " + lower.fileName()
+                            + ", the partitions with fewer seeds have to be generated first");
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of the sweeps over one partition.
+     */
+    private static final class Sweeper {
+        private final EndgamePartition partition;
+        private final OutcomeSpillFile outcomes;
+        private final EndgameDatabase database;
+        private final int[] slots = new int[SLOTS];
+        private final int[] child = new int[SLOTS];
+        private final int[] mirrored = new int[SLOTS];
+        private final long[] counts = new long[4];
+        private long undecided;
+
+        Sweeper(EndgamePartition partition, OutcomeSpillFile outcomes, EndgameDatabase database) {
+            this.partition = partition;
+            this.outcomes = outcomes;
+            this.database = database;
+        }
+
+        /**
+         * @return the number of positions decided by this sweep
+         */
+        long sweep() throws IOException {
+            long decided = 0;
+            undecided = 0;
+            long positions = partition.positions();
+            for (long index = 0; index < positions; index++) {
+                if (outcomes.get(index) != UNKNOWN) {
+                    continue;
+                }
+                int player = partition.position(index, slots);
+                int outcome = evaluate(player);
+                if (outcome == UNKNOWN) {
+                    undecided++;
+                } else {
+                    outcomes.set(index, outcome);
+                    counts[outcome]++;
+                    decided++;
+                }
+            }
+            return decided;
+        }
+
+        /**
+         * @return the outcome of the position in {@link #slots} for the player to move, as far as it is known
+         */
+        private int evaluate(int player) throws IOException {
+            boolean hasMove = false;
+            boolean allKnown = true;
+            int best = LOSS;
+            for (int hole = player - 1; hole < TOTAL_HOLES; hole += 2) {
+                for (int color = 0; color < 2; color++) {
+                    if (slots[2 * hole + color] == 0) {
+                        continue;
+                    }
+                    hasMove = true;
+                    System.arraycopy(slots, 0, child, 0, SLOTS);
+                    int captured = sow(child, hole, color);
+                    int outcome = outcomeAfterMove(player, captured);
+                    if (outcome == WIN) {
+                        return WIN;
+                    } else if (outcome == UNKNOWN) {
+                        allKnown = false;
+                    } else {
+                        best = Math.max(best, outcome);
+                    }
+                }
+            }
+            // A player without seeds in their holes has lost, see Board.checkGameStatus()
+            return !hasMove ? LOSS : allKnown ? best : UNKNOWN;
+        }
+
+        /**
+         * @return the outcome for the player who moved to the position in {@link #child}
+         */
+        private int outcomeAfterMove(int player, int captured) throws IOException {
+            int opponent = 3 - player;
+            int player1Seeds = partition.player1Seeds() + (player == 1 ? captured : 0);
+            int player2Seeds = partition.player2Seeds() + (player == 2 ? captured : 0);
+            int seedsOnBoard = partition.seedsOnBoard() - captured;
+
+            // The same checks as Board.checkGameStatus(), with the opponent to move
+            int winner;
+            if (player1Seeds >= 33) {
+                winner = 1;
+            } else if (player2Seeds >= 33) {
+                winner = 2;
+            } else if (player1Seeds == 32 && player2Seeds == 32) {
+                winner = 0;
+            } else if (seedsOnBoard < MIN_SEEDS) {
+                winner = player1Seeds > player2Seeds ? 1 : player1Seeds < player2Seeds ? 2 : 0;
+            } else if (!hasSeeds(child, opponent)) {
+                winner = player;
+            } else {
+                // Look the child up as it is stored, mirrored if needed; without a capture it stays in this partition
+                EndgamePartition target = new EndgamePartition(seedsOnBoard, player1Seeds, player2Seeds);
+                long index;
+                if (EndgamePartition.isStored(player1Seeds, player2Seeds, opponent)) {
+                    index = target.index(child, opponent);
+                } else {
+                    EndgamePartition.mirrorSlots(child, opponent, mirrored);
+                    target = target.mirror();
+                    index = target.index(mirrored, player);
+                }
+                int opponentOutcome = captured == 0 ? outcomes.get(index) : database.probe(target, index);
+                return opponentOutcome == WIN ? LOSS : opponentOutcome == LOSS ? WIN : opponentOutcome;
+            }
+            return winner == player ? WIN : winner == 0 ? DRAW : LOSS;
+        }
+    }
+
+    private static boolean hasSeeds(int[] slots, int player) {
+        for (int hole = player - 1; hole < TOTAL_HOLES; hole += 2) {
+            if (slots[2 * hole] + slots[2 * hole + 1] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sow the seeds of one color of a hole and capture, like {@code Board.sowSeeds}.
+     * @param color 0 for blue, 1 for red
+     * @return the captured seeds
+     */
+    static int sow(int[] slots, int hole, int color) {
+        int seeds = slots[2 * hole + color];
+        slots[2 * hole + color] = 0;
+        int last;
+        if (color == 0) {
+            // Blue seeds go into every following hole, skipping the starting hole
+            int position = hole;
+            while (seeds > 0) {
+                position = (position + 1) % TOTAL_HOLES;
+                if (position != hole) {
+                    slots[2 * position]++;
+                    seeds--;
+                }
+            }
+            last = position;
+        } else {
+            // Red seeds go into every second hole, starting with the next one
+            int position = (hole + 1) % TOTAL_HOLES;
+            while (seeds > 0) {
+                slots[2 * position + 1]++;
+                seeds--;
+                position = (position + 2) % TOTAL_HOLES;
+            }
+            last = (position - 2 + TOTAL_HOLES) % TOTAL_HOLES;
+        }
+
+        int captured = 0;
+        while (true) {
+            int seedsInHole = slots[2 * last] + slots[2 * last + 1];
+            if (seedsInHole != 2 && seedsInHole != 3) {
+                return captured;
+            }
+            captured += seedsInHole;
+            slots[2 * last] = 0;
+            slots[2 * last + 1] = 0;
+            last = (last - 1 + TOTAL_HOLES) % TOTAL_HOLES;
+        }
+    }
+
+    /**
+     * Run a worker from the command line: {@code endgame-worker DIR SEEDS PLAYER1_SEEDS PLAYER2_SEEDS}.
+     */
+    public static void run(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: endgame-worker DIR SEEDS PLAYER1_SEEDS PLAYER2_SEEDS");
+        }
+        EndgamePartition partition = new EndgamePartition(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]));
+        if (partition.player1Seeds() > partition.player2Seeds()) {
+            throw new IllegalArgumentException("The partition " + partition.fileName()
+                    + " is stored as its mirror " + partition.mirror().fileName());
+        }
+        new EndgameWorker(Path.of(args[0])).generate(partition);
+    }
+}
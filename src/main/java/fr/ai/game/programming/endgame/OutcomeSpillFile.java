@@ -0,0 +1,71 @@
+package fr.ai.game.programming.endgame;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The outcomes of the positions of a partition while it is generated, two bits per position in a memory-mapped work
+ * file. The operating system keeps the hot pages in memory and writes the rest to disk, so a partition may be much
+ * larger than the heap of the worker.
+ */
+class OutcomeSpillFile implements AutoCloseable {
+
+    private static final int SEGMENT_BITS = 30; // 1 GB per mapping, a mapping is limited to 2 GB
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Create an empty work file, all outcomes are {@link EndgameDatabase#UNKNOWN}.
+     */
+    OutcomeSpillFile(Path file, long positions) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long bytes = (positions + 3) / 4;
+        int count = (int) ((bytes + (1L << SEGMENT_BITS) - 1) >>> SEGMENT_BITS);
+        segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(1L << SEGMENT_BITS, bytes - start));
+        }
+    }
+
+    int get(long index) {
+        long bytePosition = index >>> 2;
+        byte value = segments[(int) (bytePosition >>> SEGMENT_BITS)].get((int) (bytePosition & ((1L << SEGMENT_BITS) - 1)));
+        return (value >>> ((int) (index & 3) * 2)) & 3;
+    }
+
+    void set(long index, int outcome) {
+        long bytePosition = index >>> 2;
+        MappedByteBuffer segment = segments[(int) (bytePosition >>> SEGMENT_BITS)];
+        int offset = (int) (bytePosition & ((1L << SEGMENT_BITS) - 1));
+        int shift = (int) (index & 3) * 2;
+        segment.put(offset, (byte) ((segment.get(offset) & ~(3 << shift)) | (outcome << shift)));
+    }
+
+    /**
+     * Copy the packed outcomes starting at the byte, four positions per byte.
+     */
+    void read(long bytePosition, byte[] target, int length) {
+        for (int i = 0; i < length; i++) {
+            long position = bytePosition + i;
+            target[i] = segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & ((1L << SEGMENT_BITS) - 1)));
+        }
+    }
+
+    /**
+     * Close and delete the work file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -1,8 +1,18 @@
 package fr.ai.game.programming.game;
 
+import fr.ai.game.programming.archive.GameArchiveWriter;
+import fr.ai.game.programming.archive.GameRecord;
+import fr.ai.game.programming.display.BoardRenderer;
 import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionHistory;
 import fr.ai.game.programming.game.player.*;
 import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -17,7 +27,23 @@ public class Game {
     private final Player player1;
     @Getter
     private final Player player2;
-    private boolean isRunning;
+    private volatile boolean isRunning;
+    private volatile CancellationToken moveCancellation; // Cancels the search of the move being made, see stop()
+    private final List<Move> moves = new ArrayList<>();
+    @Getter
+    private GameStatus status;
+    @Setter
+    private GameArchiveWriter archive; // Optional archive the game is appended to when it is over
+    @Getter
+    @Setter
+    private GameClock clock; // Optional clock, without it the players have unlimited time
+    @Setter
+    private BoardRenderer renderer = BoardRenderer.plain(System.out); // Shows the board after every move
+    @Getter
+    @Setter
+    private RepetitionRule repetitionRule = RepetitionRule.DEFAULT; // Ends games which repeat positions or run too long
+    @Getter
+    private PositionHistory history; // The positions of the game, also seen by the searches of the AI players
 
     public Game(Board board, Player player1, Player player2) {
         this.board = board;
@@ -28,45 +54,101 @@ public class Game {
 
     public void start() {
         this.isRunning = true;
-        // Print the board layout in the console
-        board.printBoardLayout();
+        history = new PositionHistory(repetitionRule);
+        history.push(board);
+        board.setHistory(history);
+        renderer.render(board, clockStatus());
         performNextMove();
     }
 
+    /**
+     * Stop the game after the current move. An AI which is still searching plays the best move found so far at once,
+     * so the game can be stopped from another thread without waiting for the search.
+     */
     public void stop() {
         this.isRunning = false;
+        CancellationToken cancellation = moveCancellation;
+        if (cancellation != null) {
+            cancellation.cancel();
+        }
     }
 
     public void performNextMove() {
         if(!isRunning) return;
 
         Player currentPlayer = this.getCurrentPlayer();
-        currentPlayer.makeMove(board);
+        int player = board.getCurrentPlayer();
+        if (clock != null) clock.start(player);
+        moveCancellation = new CancellationToken();
+        try {
+            moves.add(currentPlayer.makeMoveAsync(board, clock, moveCancellation).join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            moveCancellation = null;
+        }
+        if (clock != null && !clock.stop()) {
+            endGame(new GameStatus(true, player == 1 ? 2 : 1, "Player " + player + " ran out of time"));
+            return;
+        }
         board.switchPlayer();
         board.setTurns(board.getTurns() + 1);
+        history.push(board);
 
-        // Print the board layout in the console
-        board.printBoardLayout();
+        renderer.render(board, clockStatus());
 
         if (!checkGameOver()) {
             performNextMove();
         }
     }
 
+    private String clockStatus() {
+        return clock == null ? "" : "Clock: Player 1 " + clock.format(1) + " | Player 2 " + clock.format(2);
+    }
+
     private Player getCurrentPlayer() {
         return board.getCurrentPlayer() == 1 ? player1 : player2;
     }
 
     private boolean checkGameOver() {
         GameStatus status = board.checkGameStatus();
+        if (!status.isGameOver()) {
+            status = repetitionRule.check(board, history);
+        }
         if (status.isGameOver() && isRunning) {
-            stop();
-            showGameOver(status);
+            endGame(status);
         }
         return status.isGameOver();
     }
 
+    private void endGame(GameStatus status) {
+        stop();
+        this.status = status;
+        showGameOver(status);
+        archiveGame();
+    }
+
+    /**
+     * @return the record of the game with all moves played so far and the result, if the game is over
+     */
+    public GameRecord toRecord() {
+        int winner = status == null ? -1 : status.winner();
+        String reason = status == null ? "" : status.reason();
+        return new GameRecord(player1.getName(), player2.getName(), winner, reason,
+                board.getPlayer1Seeds(), board.getPlayer2Seeds(), moves);
+    }
+
+    private void archiveGame() {
+        if (archive == null) return;
+        try {
+            archive.append(toRecord());
+        } catch (IOException e) {
+            System.out.println("Could not archive the game: " + e.getMessage());
+        }
+    }
+
     private void showGameOver(GameStatus status) {
+        renderer.render(board, "FINAL BOARD");
         System.out.println("Game Over!");
 
         // Print reason for game over
@@ -81,10 +163,6 @@ public class Game {
 
         System.out.println("Thank you for playing Awalé!");
         System.out.println();
-
-        System.out.println(" -#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#- FINAL BOARD -#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#- ");
-        board.printBoardLayout();
-        System.out.println(" -#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#-#- ");
     }
 }
 
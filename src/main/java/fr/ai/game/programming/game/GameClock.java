@@ -0,0 +1,95 @@
+package fr.ai.game.programming.game;
+
+import java.util.Locale;
+
+/**
+ * Clock of a game with a total time for all moves of each player and an increment added after every move.
+ * <p>
+ * The {@link Game} starts the clock of the player to move before asking for a move and stops it afterwards. A player
+ * whose remaining time drops below zero loses the game.
+ */
+public class GameClock {
+
+    private final long totalMs;
+    private final long incrementMs;
+    private final long[] remainingNanos = new long[3]; // Indexed by the player (1 or 2)
+    private int runningPlayer; // 0 if no clock is running
+    private long turnStart;
+
+    /**
+     * @param totalMs the time of each player for the whole game
+     * @param incrementMs the time added to the clock of a player after every move
+     */
+    public GameClock(long totalMs, long incrementMs) {
+        if (totalMs <= 0 || incrementMs < 0) {
+            throw new IllegalArgumentException("Invalid time control: " + totalMs + " ms + " + incrementMs + " ms");
+        }
+        this.totalMs = totalMs;
+        this.incrementMs = incrementMs;
+        remainingNanos[1] = totalMs * 1_000_000;
+        remainingNanos[2] = totalMs * 1_000_000;
+    }
+
+    /**
+     * Start the clock of the player to move.
+     */
+    public void start(int player) {
+        if (player != 1 && player != 2) {
+            throw new IllegalArgumentException("Invalid player: " + player);
+        }
+        if (runningPlayer != 0) {
+            throw new IllegalStateException("The clock of player " + runningPlayer + " is still running");
+        }
+        runningPlayer = player;
+        turnStart = System.nanoTime();
+    }
+
+    /**
+     * Stop the running clock and add the increment if the player moved in time.
+     * @return false if the player ran out of time
+     */
+    public boolean stop() {
+        if (runningPlayer == 0) {
+            throw new IllegalStateException("No clock is running");
+        }
+        int player = runningPlayer;
+        remainingNanos[player] -= System.nanoTime() - turnStart;
+        runningPlayer = 0;
+        if (remainingNanos[player] < 0) {
+            return false;
+        }
+        remainingNanos[player] += incrementMs * 1_000_000;
+        return true;
+    }
+
+    /**
+     * @return the remaining time of the player, including the running turn
+     */
+    public long getRemainingMs(int player) {
+        long remaining = remainingNanos[player];
+        if (player == runningPlayer) {
+            remaining -= System.nanoTime() - turnStart;
+        }
+        return remaining / 1_000_000;
+    }
+
+    public long getTotalMs() {
+        return totalMs;
+    }
+
+    public long getIncrementMs() {
+        return incrementMs;
+    }
+
+    public boolean isOutOfTime(int player) {
+        return getRemainingMs(player) < 0;
+    }
+
+    /**
+     * @return the remaining time of the player as minutes, seconds and tenths, e.g. "4:32.1"
+     */
+    public String format(int player) {
+        long tenths = Math.max(0, getRemainingMs(player)) / 100;
+        return String.format(Locale.ROOT, "%d:%02d.%d", tenths / 600, tenths / 10 % 60, tenths % 10);
+    }
+}
@@ -12,24 +12,33 @@ public class GameFactory {
         // Prevent instantiation
     }
 
+    /**
+     * Create a game in which both players have the given time on their clocks.
+     */
+    public static Game createAwaleGame(GameMode gameMode, GameClock clock) {
+        Game game = createAwaleGame(gameMode);
+        game.setClock(clock);
+        return game;
+    }
+
     public static Game createAwaleGame(GameMode gameMode) {
         switch (gameMode) {
             case PLAYER_VS_AI_LOCAL -> {
                 Board board = new Board();
                 HumanPlayer player1 = new HumanPlayer();
-                AIPlayer player2 = new AIPlayer(new AIManagerUltimate());
+                AIPlayer player2 = new AIPlayer(AIDifficulty.ULTIMATE);
                 return new Game(board, player1, player2);
             }
             case AI_VS_PLAYER_LOCAL -> {
                 Board board = new Board();
-                AIPlayer player1 = new AIPlayer(new AIManagerUltimate());
+                AIPlayer player1 = new AIPlayer(AIDifficulty.ULTIMATE);
                 HumanPlayer player2 = new HumanPlayer();
                 return new Game(board, player1, player2);
             }
             case AI_VS_AI_LOCAL -> {
                 Board board = new Board();
-                AIPlayer player1 = new AIPlayer(new AIManagerUltimate());
-                AIPlayer player2 = new AIPlayer(new AIManagerPro());
+                AIPlayer player1 = new AIPlayer(AIDifficulty.ULTIMATE);
+                AIPlayer player2 = new AIPlayer(AIDifficulty.PRO);
                 return new Game(board, player1, player2);
             }
             default -> throw new IllegalArgumentException("Unsupported game mode: " + gameMode);
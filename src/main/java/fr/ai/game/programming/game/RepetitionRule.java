@@ -0,0 +1,84 @@
+package fr.ai.game.programming.game;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionHistory;
+
+/**
+ * Ends games which {@link Board#checkGameStatus()} never ends: seeds only leave the board by captures, so sowing
+ * without captures can repeat the same positions forever. A game ends when a position occurs too often or after too
+ * many moves, as a draw or adjudicated by the captured seeds.
+ *
+ * @param repetitions the number of occurrences of a position which end the game, 0 never ends it by repetition
+ * @param maxPlies    the number of moves which end the game, 0 for no limit
+ * @param resolution  the result of a game ended by this rule
+ */
+public record RepetitionRule(int repetitions, int maxPlies, Resolution resolution) {
+
+    /**
+     * The result of a game ended by the rule.
+     */
+    public enum Resolution {
+        DRAW, // Nobody wins
+        ADJUDICATION // The player with more captured seeds wins
+    }
+
+    /**
+     * Threefold repetition or 400 moves, adjudicated by the captured seeds.
+     */
+    public static final RepetitionRule DEFAULT = new RepetitionRule(3, 400, Resolution.ADJUDICATION);
+
+    public RepetitionRule {
+        if (repetitions < 0 || repetitions == 1) {
+            throw new IllegalArgumentException("Invalid number of repetitions: " + repetitions);
+        }
+        if (maxPlies < 0) {
+            throw new IllegalArgumentException("Invalid maximum number of moves: " + maxPlies);
+        }
+        if (resolution == null) {
+            throw new IllegalArgumentException("Missing resolution");
+        }
+    }
+
+    /**
+     * Check whether the rule ends the game in the current position.
+     * @param board the current position, the last position of the history
+     * @param history the positions of the game
+     * @return the status of the game, not over if the rule does not end it
+     */
+    public GameStatus check(Board board, PositionHistory history) {
+        if (repetitions > 0
+                && history.count(board.hash(), board.getPlayer1Seeds() + board.getPlayer2Seeds()) >= repetitions) {
+            return new GameStatus(true, winner(board), "Position repeated " + repetitions + " times");
+        }
+        if (maxPlies > 0 && board.getTurns() >= maxPlies) {
+            return new GameStatus(true, winner(board), "Game reached " + maxPlies + " moves");
+        }
+        return new GameStatus(false, -1, null);
+    }
+
+    /**
+     * @return the winner of a game ended by the rule in the position, 0 for a draw
+     */
+    public int winner(Board board) {
+        if (resolution == Resolution.DRAW || board.getPlayer1Seeds() == board.getPlayer2Seeds()) {
+            return 0;
+        }
+        return board.getPlayer1Seeds() > board.getPlayer2Seeds() ? 1 : 2;
+    }
+
+    /**
+     * Parse a rule written as {@code REPETITIONS,MAX_PLIES,draw|adjudication}, e.g. {@code 3,400,draw}.
+     */
+    public static RepetitionRule parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected REPETITIONS,MAX_PLIES,draw|adjudication but got: " + value);
+        }
+        Resolution resolution = switch (parts[2].trim().toLowerCase()) {
+            case "draw" -> Resolution.DRAW;
+            case "adjudication" -> Resolution.ADJUDICATION;
+            default -> throw new IllegalArgumentException("Unknown resolution: " + parts[2]);
+        };
+        return new RepetitionRule(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), resolution);
+    }
+}
@@ -0,0 +1,109 @@
+package fr.ai.game.programming.game;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionHistory;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A headless game of an AI against itself, used to generate tuning and training positions. The first moves are random,
+ * so the games differ. A game ends by the rules of the board or by its {@link RepetitionRule}, which also decides the
+ * result of the games it ends.
+ */
+public class SelfPlayGame {
+
+    /**
+     * Told about the positions of a game while it is played, e.g. to sample them.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * A position was searched, its move is not played yet. Random moves are not searched.
+         * @param board the position, must not be changed
+         * @param ply the number of moves played before the position
+         * @param result the search of the position
+         */
+        void searched(Board board, int ply, SearchResult result);
+
+        /**
+         * A move was played.
+         * @param board the position after the move, must not be changed
+         * @param ply the number of moves played, including this one
+         * @param result the search of the move, null for a random move
+         */
+        default void played(Board board, int ply, Move move, SearchResult result) {
+        }
+    }
+
+    private final AIManager manager;
+    private final SearchLimits limits;
+    private final int randomPlies;
+    private final RepetitionRule rule;
+
+    /**
+     * @param manager     the AI playing both sides
+     * @param limits      the limits of every search
+     * @param randomPlies the number of random moves at the start of the game
+     * @param rule        ends games which repeat positions or run too long
+     */
+    public SelfPlayGame(AIManager manager, SearchLimits limits, int randomPlies, RepetitionRule rule) {
+        this.manager = manager;
+        this.limits = limits;
+        this.randomPlies = randomPlies;
+        this.rule = rule;
+    }
+
+    /**
+     * Play a game from the initial position.
+     * @param random chooses the random moves
+     * @param listener told about every searched position and every move
+     * @return the status of the finished game
+     */
+    public GameStatus play(SplittableRandom random, Listener listener) {
+        Board board = new Board();
+        PositionHistory history = new PositionHistory(rule);
+        history.push(board);
+        board.setHistory(history);
+
+        GameStatus status = board.copy().checkGameStatus();
+        while (!status.isGameOver()) {
+            Move move;
+            SearchResult result = null;
+            if (board.getTurns() < randomPlies) {
+                List<Move> moves = legalMoves(board);
+                move = moves.get(random.nextInt(moves.size()));
+            } else {
+                result = manager.search(board.copy(), limits);
+                listener.searched(board, board.getTurns(), result);
+                move = result.move();
+            }
+            board.sowSeeds(move.hole(), move.color());
+            board.switchPlayer();
+            board.setTurns(board.getTurns() + 1);
+            history.push(board);
+            status = board.checkGameStatus();
+            if (!status.isGameOver()) {
+                status = rule.check(board, history);
+            }
+            listener.played(board, board.getTurns(), move, result);
+        }
+        return status;
+    }
+
+    private static List<Move> legalMoves(Board board) {
+        List<Move> moves = new ArrayList<>();
+        int player = board.getCurrentPlayer();
+        for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            moves.add(new Move(Board.moveHole(player, bit), Board.moveColor(bit)));
+        }
+        return moves;
+    }
+}
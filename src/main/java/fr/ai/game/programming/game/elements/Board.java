@@ -1,9 +1,14 @@
 package fr.ai.game.programming.game.elements;
 
 import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.EvaluationWeights.Feature;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
 @Getter
 public class Board {
 
@@ -16,6 +21,38 @@ public class Board {
     private int player1Seeds;
     private int player2Seeds;
     private int currentPlayer;
+    private BoardObserver observer; // Notified of every change, copied with the board
+    @Setter
+    private PositionHistory history; // The positions of the game up to this one, shared by the copies of the board
+
+    // Legal moves of each player, kept in sync with the holes: bit 2 * (hole / 2) + color.ordinal() is set if the hole
+    // has seeds of the color. Iterating the bits from the lowest gives the moves hole by hole in SeedColor order.
+    private static final int FULL_MOVE_MASK = 0xFFFF;
+    private static final int EVERY_HOLE_MASK = 0x5555; // One bit per hole
+    private static final SeedColor[] SEED_COLORS = SeedColor.values();
+    @Getter(AccessLevel.NONE)
+    private int player1Moves = FULL_MOVE_MASK;
+    @Getter(AccessLevel.NONE)
+    private int player2Moves = FULL_MOVE_MASK;
+
+    // Random keys for Zobrist hashing: one per hole, color and seed count, per captured count and for the player to move
+    private static final int MAX_COUNT = 128;
+    private static final long[] SEED_KEYS = new long[TOTAL_HOLES * 2 * MAX_COUNT];
+    private static final long[] PLAYER1_SEED_KEYS = new long[MAX_COUNT];
+    private static final long[] PLAYER2_SEED_KEYS = new long[MAX_COUNT];
+    private static final long PLAYER2_TO_MOVE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED5EEDL);
+        for (int i = 0; i < SEED_KEYS.length; i++) {
+            SEED_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < MAX_COUNT; i++) {
+            PLAYER1_SEED_KEYS[i] = random.nextLong();
+            PLAYER2_SEED_KEYS[i] = random.nextLong();
+        }
+        PLAYER2_TO_MOVE_KEY = random.nextLong();
+    }
 
     public Board() {
         // Initialize each hole with the initial number of seeds per color
@@ -29,6 +66,37 @@ public class Board {
         this.currentPlayer = 1; // Player 1 starts the game
     }
 
+    /**
+     * Create a board in an arbitrary position.
+     * @param blueSeeds the number of blue seeds in each of the 16 holes
+     * @param redSeeds the number of red seeds in each of the 16 holes
+     * @param player1Seeds the seeds captured by player 1
+     * @param player2Seeds the seeds captured by player 2
+     * @param currentPlayer the player to move (1 or 2)
+     * @return the board
+     */
+    public static Board fromPosition(int[] blueSeeds, int[] redSeeds, int player1Seeds, int player2Seeds, int currentPlayer) {
+        if (blueSeeds.length != TOTAL_HOLES || redSeeds.length != TOTAL_HOLES) {
+            throw new IllegalArgumentException("A position needs seed counts for " + TOTAL_HOLES + " holes");
+        }
+        if (player1Seeds < 0 || player2Seeds < 0) {
+            throw new IllegalArgumentException("Captured seeds cannot be negative");
+        }
+        Board board = new Board();
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            if (blueSeeds[i] < 0 || redSeeds[i] < 0) {
+                throw new IllegalArgumentException("Invalid seed count in hole " + (i + 1));
+            }
+            board.holes[i][0] = blueSeeds[i];
+            board.holes[i][1] = redSeeds[i];
+        }
+        board.player1Seeds = player1Seeds;
+        board.player2Seeds = player2Seeds;
+        board.forceCurrentPlayer(currentPlayer);
+        board.updateMoveMasks();
+        return board;
+    }
+
     /**
      * Check if a hole has seeds of a specific color.
      * @param holeIndex the index of the hole (0 to 15)
@@ -77,11 +145,188 @@ public class Board {
                 : new int[]{1, 3, 5, 7, 9, 11, 13, 15}; // 2, 4, 6, 8, 10, 12, 14, 16
     }
 
+    /* -------------------------------------------- Legal Move Masks -------------------------------------------- */
+
+    /**
+     * Get the legal moves of a player as a bit mask, see {@link #moveHole(int, int)} and {@link #moveColor(int)} to
+     * decode the bits. Iterate the moves with {@code for (int m = mask; m != 0; m &= m - 1)} and
+     * {@code Integer.numberOfTrailingZeros(m)}, the order is the same as looping over {@link #getPlayerHoles(int)} and
+     * {@link SeedColor#values()}.
+     * @param player the player (1 or 2)
+     * @return the 16-bit mask, 0 if the player cannot move
+     */
+    public int getMoveMask(int player) {
+        return player == 1 ? player1Moves : player2Moves;
+    }
+
+    /**
+     * @param player the player (1 or 2)
+     * @param bit the index of a bit of the move mask of the player
+     * @return the hole of the move
+     */
+    public static int moveHole(int player, int bit) {
+        return (bit & ~1) + player - 1;
+    }
+
+    /**
+     * @param bit the index of a bit of a move mask
+     * @return the seed color of the move
+     */
+    public static SeedColor moveColor(int bit) {
+        return SEED_COLORS[bit & 1];
+    }
+
+    /**
+     * @return the number of legal moves of the player
+     */
+    public int countMoves(int player) {
+        return Integer.bitCount(getMoveMask(player));
+    }
+
+    /**
+     * @return the number of holes of the player with seeds
+     */
+    public int countHolesWithSeeds(int player) {
+        int mask = getMoveMask(player);
+        return Integer.bitCount((mask | mask >>> 1) & EVERY_HOLE_MASK);
+    }
+
+    /**
+     * Update the move mask of the player owning the hole after the seeds of the hole changed.
+     */
+    private void updateMoveMask(int hole) {
+        int shift = hole & ~1;
+        // SeedColor.RED has the ordinal 0, BLUE the ordinal 1
+        int bits = (holes[hole][1] > 0 ? 1 : 0) | (holes[hole][0] > 0 ? 2 : 0);
+        if (hole % 2 == 0) {
+            player1Moves = player1Moves & ~(3 << shift) | bits << shift;
+        } else {
+            player2Moves = player2Moves & ~(3 << shift) | bits << shift;
+        }
+    }
+
+    private void updateMoveMasks() {
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            updateMoveMask(i);
+        }
+    }
+
+    /**
+     * Compute the Zobrist hash of the position: the seeds in every hole, the captured seeds and the player to move.
+     * The turn counter is not part of the hash.
+     * @return the 64-bit hash
+     */
+    public long hash() {
+        long hash = currentPlayer == 2 ? PLAYER2_TO_MOVE_KEY : 0L;
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            hash ^= SEED_KEYS[(i * 2) * MAX_COUNT + (holes[i][0] & (MAX_COUNT - 1))];
+            hash ^= SEED_KEYS[(i * 2 + 1) * MAX_COUNT + (holes[i][1] & (MAX_COUNT - 1))];
+        }
+        hash ^= PLAYER1_SEED_KEYS[player1Seeds & (MAX_COUNT - 1)];
+        hash ^= PLAYER2_SEED_KEYS[player2Seeds & (MAX_COUNT - 1)];
+        return hash;
+    }
+
+    /**
+     * Compute the Zobrist hash of the position with the given player to move, for boards whose current player is not
+     * the player to move (see {@code SearchEngine.playLine}).
+     * @param playerToMove the player to move (1 or 2)
+     * @return the 64-bit hash
+     */
+    public long hash(int playerToMove) {
+        long hash = hash();
+        return currentPlayer == playerToMove ? hash : hash ^ PLAYER2_TO_MOVE_KEY;
+    }
+
+    /* ---------------------------------------------- Symmetry ---------------------------------------------- */
+
+    /*
+     * The rules do not depend on the hole index: sowing and capturing only move forward or backward around the board.
+     * Rotating all holes by one index therefore turns the holes of Player 2 into the holes of Player 1, and together
+     * with swapping the captured seeds and the player to move it maps every position onto an equivalent position seen
+     * from the other side. The canonical orientation is the one with Player 1 to move.
+     */
+
+    /**
+     * Create the mirrored position: the captured seeds are swapped, the other player is to move and every hole is
+     * rotated by one index, back if Player 2 is to move and forward if Player 1 is to move. A move from hole h in this
+     * position corresponds to the move from {@link #mirrorHole(int) mirrorHole(h)} in the mirrored position, and
+     * mirroring twice gives back the original position.
+     * @return the mirrored position
+     */
+    public Board mirror() {
+        Board mirror = new Board();
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            int target = mirrorHole(i);
+            mirror.holes[target][0] = holes[i][0];
+            mirror.holes[target][1] = holes[i][1];
+        }
+        mirror.player1Seeds = player2Seeds;
+        mirror.player2Seeds = player1Seeds;
+        mirror.currentPlayer = currentPlayer == 1 ? 2 : 1;
+        mirror.updateMoveMasks();
+        return mirror;
+    }
+
+    /**
+     * @param hole a hole of this position
+     * @return the corresponding hole of the mirrored position (see {@link #mirror()})
+     */
+    public int mirrorHole(int hole) {
+        return (hole + (currentPlayer == 2 ? TOTAL_HOLES - 1 : 1)) % TOTAL_HOLES;
+    }
+
+    /**
+     * @return true if the position is in the canonical orientation, i.e. Player 1 is to move
+     */
+    public boolean isCanonical() {
+        return currentPlayer == 1;
+    }
+
+    /**
+     * Get the position in the canonical orientation. If Player 2 is to move, the position is mirrored (see
+     * {@link #mirror()}): the result of a canonical position for Player 1 is then the result for Player 2 in this
+     * position, and its moves are shifted by one hole (see {@link #mirrorHole(int)}).
+     * @return a copy of the position with Player 1 to move
+     */
+    public Board canonical() {
+        return isCanonical() ? copy() : mirror();
+    }
+
+    /**
+     * Compute the hash of the canonical position (see {@link #canonical()}) without creating it. A position and its
+     * mirror have the same canonical hash, so a table indexed by it stores every pair of equivalent positions once.
+     * @return the 64-bit hash of the canonical position
+     */
+    public long canonicalHash() {
+        if (isCanonical()) {
+            return hash();
+        }
+        long hash = 0L;
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            int target = mirrorHole(i);
+            hash ^= SEED_KEYS[(target * 2) * MAX_COUNT + (holes[i][0] & (MAX_COUNT - 1))];
+            hash ^= SEED_KEYS[(target * 2 + 1) * MAX_COUNT + (holes[i][1] & (MAX_COUNT - 1))];
+        }
+        hash ^= PLAYER1_SEED_KEYS[player2Seeds & (MAX_COUNT - 1)];
+        hash ^= PLAYER2_SEED_KEYS[player1Seeds & (MAX_COUNT - 1)];
+        return hash;
+    }
+
     /**
      * Switches the current player.
      */
     public void switchPlayer() {
         currentPlayer = (currentPlayer == 1) ? 2 : 1;
+        if (observer != null) observer.currentPlayerChanged(currentPlayer == 1 ? 2 : 1, currentPlayer);
+    }
+
+    /**
+     * Set the observer notified of every change of this board and of its copies.
+     * @param observer the observer, already in sync with this board, or null to remove it
+     */
+    public void setObserver(BoardObserver observer) {
+        this.observer = observer;
     }
 
     /**
@@ -123,32 +368,8 @@ public class Board {
             return new GameStatus(true, winner, "Less than 8 seeds remaining");
         }
 
-        // Check for valid moves for current player
-        boolean hasValidMoveForPlayer1 = false;
-        boolean hasValidMoveForPlayer2 = false;
-
-        // Get the correct holes for each player
-        int[] player1Holes = getPlayerHoles(1);
-        int[] player2Holes = getPlayerHoles(2);
-
-        // Check if player 1 has a valid move
-        for (int i : player1Holes) {
-            if (getSeedsInHole(i) != 0) {
-                hasValidMoveForPlayer1 = true;
-                break;  // No need to check further if one valid move is found
-            }
-        }
-
-        // Check if player 2 has a valid move
-        for (int i : player2Holes) {
-            if (getSeedsInHole(i) != 0) {
-                hasValidMoveForPlayer2 = true;
-                break;  // No need to check further if one valid move is found
-            }
-        }
-
         // If the current player has no valid moves
-        if ((currentPlayer == 1 && !hasValidMoveForPlayer1) || (currentPlayer == 2 && !hasValidMoveForPlayer2)) {
+        if (getMoveMask(currentPlayer) == 0) {
             int winner = currentPlayer == 1 ? 2 : 1;
             captureRemainingSeeds(winner);
             return new GameStatus(true, winner, "No valid moves left");
@@ -194,10 +415,13 @@ public class Board {
         if (seedColor == SeedColor.BLUE) {
             seedsToTake = holes[index][0];
             holes[index][0] = 0;
+            if (observer != null) observer.seedsChanged(index, 0, -seedsToTake);
         } else {
             seedsToTake = holes[index][1];
             holes[index][1] = 0;
+            if (observer != null) observer.seedsChanged(index, 1, -seedsToTake);
         }
+        updateMoveMask(index);
         return seedsToTake;
     }
 
@@ -216,6 +440,8 @@ public class Board {
             }
             // Add one blue seed to the next hole
             holes[pos][0]++;
+            updateMoveMask(pos);
+            if (observer != null) observer.seedsChanged(pos, 0, 1);
             seeds--;
         }
         return pos; // Return the last hole where a seed was placed
@@ -231,6 +457,8 @@ public class Board {
         int oppositeHole = (startingHole + 1) % TOTAL_HOLES; // Track the current hole
         while (seeds != 0) {
             holes[oppositeHole][1]++;  // Add one red seed to the opposite hole
+            updateMoveMask(oppositeHole);
+            if (observer != null) observer.seedsChanged(oppositeHole, 1, 1);
             seeds--;
             oppositeHole = (oppositeHole + 2) % TOTAL_HOLES;
         }
@@ -241,6 +469,7 @@ public class Board {
         if (player != 1 && player != 2) {
             throw new IllegalArgumentException("Invalid player: " + player);
         }
+        if (observer != null && player != currentPlayer) observer.currentPlayerChanged(currentPlayer, player);
         this.currentPlayer = player;
     }
     
@@ -261,8 +490,7 @@ public class Board {
             // Capture if the hole has 2 or 3 seeds
             if (seedsInHole == 2 || seedsInHole == 3) {
                 capturedSeeds += seedsInHole;
-                holes[lastHole][0] = 0;
-                holes[lastHole][1] = 0;
+                clearHole(lastHole);
             } else {
                 break;  // Stop capturing if the current hole doesn't have 2 or 3 seeds
             }
@@ -277,22 +505,31 @@ public class Board {
         } else {
             player2Seeds += capturedSeeds;
         }
+        if (observer != null && capturedSeeds > 0) observer.capturedSeedsChanged(player, capturedSeeds);
     }
 
     private void captureRemainingSeeds(int player) {
+        int capturedSeeds = 0;
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            capturedSeeds += holes[i][0] + holes[i][1];
+            clearHole(i);
+        }
         if (player == 1) {
-            for (int i = 0; i < TOTAL_HOLES; i++) {
-                player1Seeds += holes[i][0] + holes[i][1];
-                holes[i][0] = 0;
-                holes[i][1] = 0;
-            }
+            player1Seeds += capturedSeeds;
         } else {
-            for (int i = 0; i < TOTAL_HOLES; i++) {
-                player2Seeds += holes[i][0] + holes[i][1];
-                holes[i][0] = 0;
-                holes[i][1] = 0;
-            }
+            player2Seeds += capturedSeeds;
+        }
+        if (observer != null && capturedSeeds > 0) observer.capturedSeedsChanged(player, capturedSeeds);
+    }
+
+    private void clearHole(int index) {
+        if (observer != null) {
+            if (holes[index][0] != 0) observer.seedsChanged(index, 0, -holes[index][0]);
+            if (holes[index][1] != 0) observer.seedsChanged(index, 1, -holes[index][1]);
         }
+        holes[index][0] = 0;
+        holes[index][1] = 0;
+        updateMoveMask(index);
     }
 
     /**
@@ -329,6 +566,11 @@ public class Board {
         copy.player1Seeds = player1Seeds;
         copy.player2Seeds = player2Seeds;
         copy.currentPlayer = currentPlayer;
+        copy.turns = turns;
+        copy.player1Moves = player1Moves;
+        copy.player2Moves = player2Moves;
+        copy.observer = observer != null ? observer.copy() : null;
+        copy.history = history;
         return copy;
     }
 
@@ -423,103 +665,6 @@ public class Board {
         return capturedSeeds;
     }
 
-
-
-    /* --------------------------------------- Methods for Console Printing --------------------------------------- */
-
-    /**
-     * Print the board layout in the console with a table-like grid and better spacing.
-     */
-    public void printBoardLayout() {
-        System.out.println();
-        final String RESET = "\u001B[0m";
-        final String EVEN_COLOR = "\u001B[32m"; // Green for even numbers
-        final String ODD_COLOR = "\u001B[33m"; // Yellow for odd numbers
-
-        // Display seed counts for both players
-        System.out.println(EVEN_COLOR + "Player 1 Seeds: " + RESET + this.getPlayer1Seeds() + " | "
-                + ODD_COLOR + "Player 2 Seeds: " + RESET + this.getPlayer2Seeds());
-        System.out.println();
-        System.out.println("TURN: " + this.getTurns());
-        System.out.println();
-
-        // Print header for grid
-        printRowSeparator();
-        System.out.print("|");
-        for (int i = 0; i < 8; i++) {
-            String formattedHole = formatHoleWithColor(i, holeSummary(i));
-            System.out.print("    " + centerText(formattedHole, 15) + "    |");
-        }
-        System.out.println();
-
-        // Print separator between rows
-        printRowSeparator();
-
-        // Print bottom row (holes 15 to 8 in reverse)
-        System.out.print("|");
-        for (int i = 15; i >= 8; i--) {
-            String formattedHole = formatHoleWithColor(i, holeSummary(i));
-            System.out.print("    " + centerText(formattedHole, 15) + "    |");
-        }
-        System.out.println();
-        printRowSeparator();
-        System.out.println();
-    }
-
-    /**
-     * Generates a summary of the seeds in a hole with colored formatting.
-     */
-    private String holeSummary(int holeIndex) {
-        int blueCount = holes[holeIndex][0];
-        int redCount = holes[holeIndex][1];
-
-        // Define ANSI colors
-        final String RESET = "\u001B[0m";
-        final String BLUE_SEED_COLOR = "\u001B[34m"; // Blue for B seeds
-        final String RED_SEED_COLOR = "\u001B[31m";  // Red for R seeds
-        final String GREY_COLOR = "\u001B[90m";      // Grey for 0 counts
-
-        // Apply grey color if the count is 0
-        String blueText = (blueCount > 0 ? BLUE_SEED_COLOR : GREY_COLOR) + blueCount + "B" + RESET;
-        String redText = (redCount > 0 ? RED_SEED_COLOR : GREY_COLOR) + redCount + "R" + RESET;
-
-        return blueText + " " + redText;
-    }
-
-    /**
-     * Formats the hole summary with color based on the index (even or odd).
-     */
-    private String formatHoleWithColor(int holeIndex, String holeSummary) {
-        // Define ANSI escape codes for colors
-        final String RESET = "\u001B[0m"; // Reset color
-        final String EVEN_COLOR = "\u001B[32m"; // Green for even numbers
-        final String ODD_COLOR = "\u001B[33m"; // Yellow for odd numbers
-
-        // Apply color to parentheses based on hole index (even or odd)
-        return (holeIndex % 2 == 0)
-                ? EVEN_COLOR + "(" + RESET + holeSummary + EVEN_COLOR + ")" + RESET
-                : ODD_COLOR + "(" + RESET + holeSummary + ODD_COLOR + ")" + RESET;
-    }
-
-    /**
-     * Prints a horizontal row separator for the grid.
-     */
-    private void printRowSeparator() {
-        System.out.println("+---------------+---------------+---------------+---------------+---------------+---------------+---------------+---------------+");
-    }
-
-    /**
-     * Centers the given text within a fixed width, padding with spaces as needed.
-     */
-    private String centerText(String text, int width) {
-        if (width <= text.length()) {
-            return text; // If the text is too long, return it as is
-        }
-        int padding = (width - text.length()) / 2;
-        String paddingSpaces = " ".repeat(padding);
-        return paddingSpaces + text + " ".repeat(width - text.length() - padding);
-    }
-
     //Board state for AIManagerPro
     public int evaluateBoardHeuristic() {
         // 1) Check if game is over
@@ -560,6 +705,15 @@ public class Board {
     //methods to understand and evaluate the board state for the AIManagerTest called later AIManagerUltimate
     //this is a test method to evaluate the board state
     public int evaluateBoardHeuristicUltimate() {
+        return evaluateBoardHeuristicUltimate(EvaluationWeights.getActive());
+    }
+
+    /**
+     * Evaluate the board as the weighted sum of the features collected by {@link #collectEvaluationFeatures(int[])}.
+     * @param weights the weights of the features
+     * @return the heuristic value, positive if Player 1 is better
+     */
+    public int evaluateBoardHeuristicUltimate(EvaluationWeights weights) {
         // 1) Check if game is over
         GameStatus status = checkGameStatus();
         if (status.isGameOver()) {
@@ -575,48 +729,110 @@ public class Board {
             return 0;
         }
 
+        return evaluationFeatures(null, weights);
+    }
+
+    /**
+     * Collect the features of the position evaluated by {@link #evaluateBoardHeuristicUltimate(EvaluationWeights)},
+     * e.g. for tuning the weights.
+     * @param features the array to fill, indexed by the ordinal of {@link EvaluationWeights.Feature}
+     */
+    public void collectEvaluationFeatures(int[] features) {
+        Arrays.fill(features, 0);
+        evaluationFeatures(features, EvaluationWeights.DEFAULT);
+    }
+
+    /**
+     * Weight the features of the position as they are counted, so evaluating a leaf allocates nothing.
+     * @param features the array to store the feature values in, null if only the evaluation is needed
+     * @return the weighted sum of the features
+     */
+    private int evaluationFeatures(int[] features, EvaluationWeights weights) {
+        int totalSeeds = totalSeeds();
+
         // Basic difference from P1's perspective:
         int seedDiff = player1Seeds - player2Seeds;   // + => P1 leads, - => P2 leads
-    
-        int seedsP1OnBoard = countSeedsOnBoard(1);
-        int seedsP2OnBoard = countSeedsOnBoard(2);
-        int boardDiff = seedsP1OnBoard - seedsP2OnBoard;
+        int boardDiff = countSeedsOnBoard(1) - countSeedsOnBoard(2);
+
+        // The weight of the captured seeds grows towards the end of the game, the weight of the board shrinks
+        Feature seedFeature;
+        Feature boardFeature;
+        if (totalSeeds > 64) {
+            seedFeature = Feature.SEED_DIFF_EARLY;
+            boardFeature = Feature.BOARD_DIFF_EARLY;
+        } else {
+            seedFeature = totalSeeds > 32 ? Feature.SEED_DIFF_MID : Feature.SEED_DIFF_LATE;
+            boardFeature = Feature.BOARD_DIFF_LATE;
+        }
+        int mobility = countHolesWithSeeds(1) - countHolesWithSeeds(2);
+        int starvation = getMoveMask(currentPlayer) == 0 ? 1 : 0;
 
-        int score = getSeedWeight() * seedDiff + getBoardWeight() * boardDiff
-                    + holeByHoleEvaluation() 
-                    + mobilityAdvantage() 
-                    + starvationPenalty();
-        return score;
+        if (features != null) {
+            features[seedFeature.ordinal()] = seedDiff;
+            features[boardFeature.ordinal()] = boardDiff;
+            features[Feature.MOBILITY.ordinal()] = mobility;
+            features[Feature.STARVATION.ordinal()] = starvation;
+        }
+        return weights.get(seedFeature) * seedDiff + weights.get(boardFeature) * boardDiff
+                + holeFeatures(features, weights)
+                + weights.get(Feature.MOBILITY) * mobility + weights.get(Feature.STARVATION) * starvation;
     }
-    
-    
+
     private int holeByHoleEvaluation() {
-        int adjustment = 0;
+        return holeFeatures(null, EvaluationWeights.DEFAULT);
+    }
+
+    /**
+     * Count the hole-by-hole features of the current player's holes.
+     * @param features the array to store the counts in, null if only the weighted sum is needed
+     * @return the weighted sum of the hole features
+     */
+    private int holeFeatures(int[] features, EvaluationWeights weights) {
+        int singleSeeds = 0;
+        int singleSeedsExposed = 0;
+        int capturable = 0;
+        int capturableExposed = 0;
+        int seedSurplus = 0;
+        int captureSetups = 0;
         int[] myHoles = getPlayerHoles(currentPlayer);
         for (int i = 0; i < myHoles.length; i++) {
             int holeIndex = myHoles[i];
             int totalSeeds = getSeedsInHole(holeIndex);
-            
+
             // Penalize holes with 1 seed, but more if adjacent to opponent's hole
             if (totalSeeds == 1) {
-                adjustment -= 2;
-                if (i > 0 && getPlayerForHole(myHoles[i - 1]) != currentPlayer) adjustment -= 3;
-                if (i < myHoles.length - 1 && getPlayerForHole(myHoles[i + 1]) != currentPlayer) adjustment -= 3;
+                singleSeeds++;
+                if (i > 0 && getPlayerForHole(myHoles[i - 1]) != currentPlayer) singleSeedsExposed++;
+                if (i < myHoles.length - 1 && getPlayerForHole(myHoles[i + 1]) != currentPlayer) singleSeedsExposed++;
             }
             // Penalize holes with 2 or 3 seeds, heavy penalty if adjacent to opponent's hole
             else if (totalSeeds == 2 || totalSeeds == 3) {
-                adjustment -= 5;
-                if (i > 0 && getPlayerForHole(myHoles[i - 1]) != currentPlayer) adjustment -= 5;
-                if (i < myHoles.length - 1 && getPlayerForHole(myHoles[i + 1]) != currentPlayer) adjustment -= 5;
+                capturable++;
+                if (i > 0 && getPlayerForHole(myHoles[i - 1]) != currentPlayer) capturableExposed++;
+                if (i < myHoles.length - 1 && getPlayerForHole(myHoles[i + 1]) != currentPlayer) capturableExposed++;
             }
             // Bonus for having more seeds, especially if it sets up for a capture
             else if (totalSeeds > 3) {
-                adjustment += (totalSeeds - 3); // Small bonus for having more seeds
+                seedSurplus += totalSeeds - 3; // Small bonus for having more seeds
                 // Check if sowing could lead to captures in the next few moves
-                if (couldLeadToCapture(holeIndex, totalSeeds)) adjustment += 5;
+                if (couldLeadToCapture(holeIndex, totalSeeds)) captureSetups++;
             }
         }
-        return adjustment;
+
+        if (features != null) {
+            features[Feature.SINGLE_SEED.ordinal()] = singleSeeds;
+            features[Feature.SINGLE_SEED_EXPOSED.ordinal()] = singleSeedsExposed;
+            features[Feature.CAPTURABLE.ordinal()] = capturable;
+            features[Feature.CAPTURABLE_EXPOSED.ordinal()] = capturableExposed;
+            features[Feature.SEED_SURPLUS.ordinal()] = seedSurplus;
+            features[Feature.CAPTURE_SETUP.ordinal()] = captureSetups;
+        }
+        return weights.get(Feature.SINGLE_SEED) * singleSeeds
+                + weights.get(Feature.SINGLE_SEED_EXPOSED) * singleSeedsExposed
+                + weights.get(Feature.CAPTURABLE) * capturable
+                + weights.get(Feature.CAPTURABLE_EXPOSED) * capturableExposed
+                + weights.get(Feature.SEED_SURPLUS) * seedSurplus
+                + weights.get(Feature.CAPTURE_SETUP) * captureSetups;
     }
     
     private int getPlayerForHole(int holeIndex) {
@@ -647,40 +863,4 @@ public class Board {
         }
         return total;
     }
-
-    private int getSeedWeight() {
-        int totalSeeds = totalSeeds();
-        if (totalSeeds > 64) return 5; // Early game, less focus on capturing
-        if (totalSeeds > 32) return 15; // Mid game, balancing capture and position
-        return 25; // Late game, capturing becomes critical
-    }
-    
-    private int getBoardWeight() {
-        int totalSeeds = totalSeeds();
-        if (totalSeeds > 64) return 10; // Early game, board position matters more
-        return 5; // Later, capturing becomes more important than position
-    }
-    
-    
-    /*The method aims to quantify the difference in mobility between the two players*/
-    private int mobilityAdvantage() {
-        int player1Moves = countValidMoves(1);
-        int player2Moves = countValidMoves(2);
-        return (player1Moves - player2Moves) * 3; // here this factor is fairly small so not to dominate other factors
-    }
-    
-    private int countValidMoves(int player) {
-        int count = 0;
-        for (int hole : getPlayerHoles(player)) {
-            if (getSeedsInHole(hole) > 0) count++;
-        }
-        return count;
-    }
-
-    private int starvationPenalty() {
-        if (countValidMoves(currentPlayer) == 0) return -500; // large negative value to avoid this situation
-        return 0;
-    }
-
 }
-
@@ -0,0 +1,35 @@
+package fr.ai.game.programming.game.elements;
+
+/**
+ * Receives every change of a {@link Board}, so state derived from the position (e.g. the accumulator of a neural
+ * evaluation) can be updated incrementally instead of being recomputed for every position.
+ * <p>
+ * {@link Board#copy()} copies the observer together with the board, so every simulated position of a search keeps
+ * its own derived state.
+ */
+public interface BoardObserver {
+
+    /**
+     * @param hole the index of the hole (0 to 15)
+     * @param color the color of the seeds (0 for blue, 1 for red)
+     * @param delta the number of seeds added to the hole, negative if seeds were removed
+     */
+    void seedsChanged(int hole, int color, int delta);
+
+    /**
+     * @param player the player who captured the seeds (1 or 2)
+     * @param delta the number of seeds captured
+     */
+    void capturedSeedsChanged(int player, int delta);
+
+    /**
+     * @param previousPlayer the player to move before the change (1 or 2)
+     * @param currentPlayer the player to move after the change (1 or 2)
+     */
+    void currentPlayerChanged(int previousPlayer, int currentPlayer);
+
+    /**
+     * @return an independent copy of this observer for a copy of the observed board
+     */
+    BoardObserver copy();
+}
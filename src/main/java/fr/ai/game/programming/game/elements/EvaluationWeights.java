@@ -0,0 +1,186 @@
+package fr.ai.game.programming.game.elements;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Weights of the features used by {@link Board#evaluateBoardHeuristicUltimate()}. The evaluation is the sum of every
+ * feature value multiplied by its weight, so the weights can be tuned automatically (see the tuning package).
+ * <p>
+ * The active weights are loaded once from the properties file given by the system property {@code awale.weights}, or
+ * from {@code awale-weights.properties} in the working directory, and fall back to the hand-written defaults.
+ */
+public final class EvaluationWeights {
+
+    public static final String WEIGHTS_PROPERTY = "awale.weights";
+    public static final String DEFAULT_WEIGHTS_FILE = "awale-weights.properties";
+
+    /**
+     * Features of a position, all counted from Player 1's perspective except for the hole features, which describe
+     * the holes of the player to move. The board never holds more than 64 seeds, so the EARLY features are always 0
+     * and tuning leaves their weights unchanged.
+     */
+    public enum Feature {
+        SEED_DIFF_EARLY(5),       // Captured seeds difference, more than 64 seeds on the board
+        SEED_DIFF_MID(15),        // Captured seeds difference, 33 to 64 seeds on the board
+        SEED_DIFF_LATE(25),       // Captured seeds difference, 32 seeds or less on the board
+        BOARD_DIFF_EARLY(10),     // Seeds in the own holes difference, more than 64 seeds on the board
+        BOARD_DIFF_LATE(5),       // Seeds in the own holes difference, 64 seeds or less on the board
+        SINGLE_SEED(-2),          // Holes with a single seed
+        SINGLE_SEED_EXPOSED(-3),  // Neighbours of single seed holes that belong to the opponent
+        CAPTURABLE(-5),           // Holes with 2 or 3 seeds
+        CAPTURABLE_EXPOSED(-5),   // Neighbours of holes with 2 or 3 seeds that belong to the opponent
+        SEED_SURPLUS(1),          // Seeds above 3 in holes with more than 3 seeds
+        CAPTURE_SETUP(5),         // Holes whose sowing could end on 2 or 3 seeds
+        MOBILITY(3),              // Difference of the holes with seeds
+        STARVATION(-500);         // The player to move has no seeds left
+
+        private final int defaultWeight;
+
+        Feature(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final int FEATURE_COUNT = Feature.values().length;
+
+    public static final EvaluationWeights DEFAULT = new EvaluationWeights(
+            Arrays.stream(Feature.values()).mapToInt(feature -> feature.defaultWeight).toArray());
+
+    private static volatile EvaluationWeights active = loadConfigured();
+
+    private final int[] weights;
+
+    public EvaluationWeights(int[] weights) {
+        if (weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights but got " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * @return the weights used by the evaluation
+     */
+    public static EvaluationWeights getActive() {
+        return active;
+    }
+
+    public static void setActive(EvaluationWeights weights) {
+        active = weights;
+    }
+
+    public int get(Feature feature) {
+        return weights[feature.ordinal()];
+    }
+
+    /**
+     * @return a copy of all weights, indexed by the ordinal of the features
+     */
+    public int[] toArray() {
+        return weights.clone();
+    }
+
+    /**
+     * @param features the feature values, indexed by the ordinal of the features
+     * @return the weighted sum of the features
+     */
+    public int evaluate(int[] features) {
+        int score = 0;
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            score += weights[i] * features[i];
+        }
+        return score;
+    }
+
+    /**
+     * @return a 64-bit hash of the weights, equal in every process for equal weights
+     */
+    public long fingerprint() {
+        long fingerprint = 0xCBF29CE484222325L; // FNV-1a
+        for (int weight : weights) {
+            fingerprint = (fingerprint ^ weight) * 0x100000001B3L;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Load weights from a properties file ({@code feature=weight}). Missing features keep their default weight.
+     */
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        int[] values = DEFAULT.toArray();
+        for (Feature feature : Feature.values()) {
+            String value = properties.getProperty(feature.key());
+            if (value != null) {
+                try {
+                    values[feature.ordinal()] = Integer.parseInt(value.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid weight for " + feature.key() + " in " + file + ": " + value);
+                }
+            }
+        }
+        return new EvaluationWeights(values);
+    }
+
+    /**
+     * Save the weights to a properties file.
+     */
+    public void save(Path file, String comment) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# " + comment + System.lineSeparator());
+            for (Feature feature : Feature.values()) {
+                writer.write(feature.key() + "=" + weights[feature.ordinal()] + System.lineSeparator());
+            }
+        }
+    }
+
+    private static EvaluationWeights loadConfigured() {
+        String configured = System.getProperty(WEIGHTS_PROPERTY);
+        Path file = Path.of(configured != null ? configured : DEFAULT_WEIGHTS_FILE);
+        if (configured == null && !Files.exists(file)) {
+            return DEFAULT;
+        }
+        try {
+            return load(file);
+        } catch (IOException e) {
+            System.out.println("Could not load evaluation weights, using the defaults: " + e.getMessage());
+            return DEFAULT;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EvaluationWeights other && Arrays.equals(weights, other.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Feature feature : Feature.values()) {
+            if (!builder.isEmpty()) {
+                builder.append(", ");
+            }
+            builder.append(feature.key()).append('=').append(weights[feature.ordinal()]);
+        }
+        return builder.toString();
+    }
+}
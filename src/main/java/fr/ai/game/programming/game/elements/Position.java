@@ -0,0 +1,220 @@
+package fr.ai.game.programming.game.elements;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Immutable position of the game: the seeds in every hole, the captured seeds and the player to move.
+ * <p>
+ * Unlike a {@link Board}, a position can be shared between threads without copying or locking, e.g. by a search, a
+ * renderer and a game at the same time. Two positions are equal if all seeds, the captured seeds and the player to move
+ * are equal; the turn counter of a board is not part of the position. Child positions are derived with
+ * {@link #play(int, SeedColor)} by the rules of {@link Board#sowSeeds(int, SeedColor)}.
+ */
+public final class Position {
+
+    public static final Position START = of(new Board());
+
+    // Blue seeds of hole h at index 2 * h, red seeds at 2 * h + 1. A board holds 64 seeds, so every count fits a byte.
+    private final byte[] seeds;
+    @Getter
+    private final int player1Seeds;
+    @Getter
+    private final int player2Seeds;
+    @Getter
+    private final int currentPlayer;
+    private final int hashCode;
+
+    private Position(byte[] seeds, int player1Seeds, int player2Seeds, int currentPlayer) {
+        this.seeds = seeds;
+        this.player1Seeds = player1Seeds;
+        this.player2Seeds = player2Seeds;
+        this.currentPlayer = currentPlayer;
+        this.hashCode = 31 * (31 * (31 * Arrays.hashCode(seeds) + player1Seeds) + player2Seeds) + currentPlayer;
+    }
+
+    /**
+     * Take the position of a board. Later changes of the board do not change the position.
+     * @param board the board
+     * @return the position of the board
+     * @throws IllegalArgumentException if a hole holds more seeds of a color than a byte can count
+     */
+    public static Position of(Board board) {
+        byte[] seeds = new byte[2 * TOTAL_HOLES];
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            seeds[2 * i] = count(board, i, SeedColor.BLUE);
+            seeds[2 * i + 1] = count(board, i, SeedColor.RED);
+        }
+        return new Position(seeds, board.getPlayer1Seeds(), board.getPlayer2Seeds(), board.getCurrentPlayer());
+    }
+
+    private static byte count(Board board, int hole, SeedColor color) {
+        int count = board.getSeedsInHole(hole, color);
+        if (count > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Hole " + (hole + 1) + " holds " + count + " " + color
+                    + " seeds, a position counts at most " + Byte.MAX_VALUE);
+        }
+        return (byte) count;
+    }
+
+    /**
+     * Create a new board in this position, with the turn counter at 0.
+     * @return the board
+     */
+    public Board toBoard() {
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            blue[i] = seeds[2 * i];
+            red[i] = seeds[2 * i + 1];
+        }
+        return Board.fromPosition(blue, red, player1Seeds, player2Seeds, currentPlayer);
+    }
+
+    /**
+     * Get the number of seeds in a hole only of a specific color.
+     * @param hole the index of the hole (0 to 15)
+     * @param color the color of the seeds (BLUE or RED)
+     */
+    public int getSeedsInHole(int hole, SeedColor color) {
+        return seeds[2 * hole + (color == SeedColor.BLUE ? 0 : 1)];
+    }
+
+    /**
+     * Get the total number of seeds in a hole.
+     * @param hole the index of the hole (0 to 15)
+     */
+    public int getSeedsInHole(int hole) {
+        return seeds[2 * hole] + seeds[2 * hole + 1];
+    }
+
+    /**
+     * Get the legal moves of a player as a bit mask, encoded like {@link Board#getMoveMask(int)}.
+     * @param player the player (1 or 2)
+     * @return the 16-bit mask, 0 if the player cannot move
+     */
+    public int getMoveMask(int player) {
+        int mask = 0;
+        for (int hole = player - 1; hole < TOTAL_HOLES; hole += 2) {
+            // SeedColor.RED has the ordinal 0, BLUE the ordinal 1
+            int bits = (seeds[2 * hole + 1] > 0 ? 1 : 0) | (seeds[2 * hole] > 0 ? 2 : 0);
+            mask |= bits << (hole & ~1);
+        }
+        return mask;
+    }
+
+    /**
+     * Derive the position after a move of the player to move: the seeds are sown and captured like by
+     * {@link Board#sowSeeds(int, SeedColor)} and then the other player is to move.
+     * @param hole the hole to sow from, one of the holes of the player to move
+     * @param color the color of the seeds to sow
+     * @return the child position
+     * @throws IllegalArgumentException if the move is not legal
+     */
+    public Position play(int hole, SeedColor color) {
+        if (hole < 0 || hole >= TOTAL_HOLES || hole % 2 != currentPlayer - 1) {
+            throw new IllegalArgumentException("Player " + currentPlayer + " cannot sow seeds from hole " + (hole + 1));
+        }
+        int index = 2 * hole + (color == SeedColor.BLUE ? 0 : 1);
+        int seedsToSow = seeds[index];
+        if (seedsToSow == 0) {
+            throw new IllegalArgumentException("Invalid move! No " + color + " seeds in hole " + (hole + 1) + ".");
+        }
+
+        byte[] child = seeds.clone();
+        child[index] = 0;
+        int lastHole;
+        if (color == SeedColor.BLUE) {
+            // One seed into every following hole, skipping the starting hole
+            lastHole = hole;
+            while (seedsToSow > 0) {
+                lastHole = (lastHole + 1) % TOTAL_HOLES;
+                if (lastHole != hole) {
+                    child[2 * lastHole]++;
+                    seedsToSow--;
+                }
+            }
+        } else {
+            // One seed into every other hole, starting with the next one, i.e. only into the opponent's holes
+            lastHole = (hole + 1) % TOTAL_HOLES;
+            child[2 * lastHole + 1]++;
+            while (--seedsToSow > 0) {
+                lastHole = (lastHole + 2) % TOTAL_HOLES;
+                child[2 * lastHole + 1]++;
+            }
+        }
+
+        // Capture backwards from the last hole while the holes hold 2 or 3 seeds
+        int captured = 0;
+        int seedsInHole = child[2 * lastHole] + child[2 * lastHole + 1];
+        while (seedsInHole == 2 || seedsInHole == 3) {
+            captured += seedsInHole;
+            child[2 * lastHole] = 0;
+            child[2 * lastHole + 1] = 0;
+            lastHole = (lastHole - 1 + TOTAL_HOLES) % TOTAL_HOLES;
+            seedsInHole = child[2 * lastHole] + child[2 * lastHole + 1];
+        }
+
+        return currentPlayer == 1
+                ? new Position(child, player1Seeds + captured, player2Seeds, 2)
+                : new Position(child, player1Seeds, player2Seeds + captured, 1);
+    }
+
+    /**
+     * Derive the position after a move encoded as a bit of the move mask of the player to move.
+     * @param bit the index of a set bit of {@link #getMoveMask(int)}
+     * @return the child position
+     */
+    public Position playMoveBit(int bit) {
+        return play(Board.moveHole(currentPlayer, bit), Board.moveColor(bit));
+    }
+
+    /**
+     * @return the total number of seeds in the holes
+     */
+    public int totalSeeds() {
+        int total = 0;
+        for (byte count : seeds) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Position other)) {
+            return false;
+        }
+        return hashCode == other.hashCode && player1Seeds == other.player1Seeds && player2Seeds == other.player2Seeds
+                && currentPlayer == other.currentPlayer && Arrays.equals(seeds, other.seeds);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * @return the position in the notation of {@link PositionNotation}
+     */
+    @Override
+    public String toString() {
+        StringBuilder notation = new StringBuilder(80);
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            if (i > 0) {
+                notation.append(',');
+            }
+            notation.append(seeds[2 * i]).append('.').append(seeds[2 * i + 1]);
+        }
+        return notation.append(' ').append(player1Seeds)
+                .append(' ').append(player2Seeds)
+                .append(' ').append(currentPlayer)
+                .toString();
+    }
+}
@@ -0,0 +1,91 @@
+package fr.ai.game.programming.game.elements;
+
+import fr.ai.game.programming.game.RepetitionRule;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The positions of a game, or of a line of a search, in the order they were played, stored as their
+ * {@link Board#hash() hashes} to detect repeated positions. Seeds only leave the board by captures and a capture is
+ * never undone, so a position can only repeat a position played after the last capture; the lookups stop there.
+ */
+public class PositionHistory {
+
+    @Getter
+    private final RepetitionRule rule; // How the game ends when positions repeat or it gets too long
+    private long[] hashes = new long[64];
+    private int[] capturedSeeds = new int[64]; // Seeds captured by both players in the position
+    private int size;
+
+    public PositionHistory(RepetitionRule rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * Add a position as the last position of the history.
+     */
+    public void push(Board board) {
+        push(board.hash(), board.getPlayer1Seeds() + board.getPlayer2Seeds());
+    }
+
+    /**
+     * Add a position as the last position of the history.
+     * @param hash the hash of the position, with the player to move
+     * @param captured the seeds captured by both players in the position
+     */
+    public void push(long hash, int captured) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            capturedSeeds = Arrays.copyOf(capturedSeeds, size * 2);
+        }
+        hashes[size] = hash;
+        capturedSeeds[size] = captured;
+        size++;
+    }
+
+    /**
+     * Remove the last position.
+     */
+    public void pop() {
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the hash of the last position, 0 if the history is empty
+     */
+    public long lastHash() {
+        return size == 0 ? 0L : hashes[size - 1];
+    }
+
+    /**
+     * Count how often a position occurs in the history.
+     * @param hash the hash of the position, with the player to move
+     * @param captured the seeds captured by both players in the position
+     * @return the number of occurrences
+     */
+    public int count(long hash, int captured) {
+        int count = 0;
+        for (int i = size - 1; i >= 0 && capturedSeeds[i] == captured; i--) {
+            if (hashes[i] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return an independent copy with the same rule
+     */
+    public PositionHistory copy() {
+        PositionHistory copy = new PositionHistory(rule);
+        copy.hashes = Arrays.copyOf(hashes, hashes.length);
+        copy.capturedSeeds = Arrays.copyOf(capturedSeeds, capturedSeeds.length);
+        copy.size = size;
+        return copy;
+    }
+}
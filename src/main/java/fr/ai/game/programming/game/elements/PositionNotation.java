@@ -0,0 +1,71 @@
+package fr.ai.game.programming.game.elements;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Compact text notation of a board position:
+ * <pre>
+ *   b.r,b.r,...,b.r p1 p2 side
+ * </pre>
+ * The first field holds the blue and red seed counts of the 16 holes in hole order (hole 1 first), followed by the
+ * seeds captured by Player 1 and Player 2 and the player to move (1 or 2). The starting position is
+ * {@code 2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2,2.2 0 0 1}.
+ */
+public final class PositionNotation {
+
+    private PositionNotation() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Parse a position in the compact notation.
+     * @param notation the position
+     * @return a new board in that position
+     * @throws IllegalArgumentException if the notation is malformed
+     */
+    public static Board parse(String notation) {
+        String[] fields = notation.trim().split("\\s+");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected '<holes> <p1> <p2> <side>' but got: " + notation);
+        }
+        String[] holes = fields[0].split(",");
+        if (holes.length != TOTAL_HOLES) {
+            throw new IllegalArgumentException("Expected " + TOTAL_HOLES + " holes but got " + holes.length);
+        }
+
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        try {
+            for (int i = 0; i < TOTAL_HOLES; i++) {
+                int dot = holes[i].indexOf('.');
+                if (dot < 0) {
+                    throw new IllegalArgumentException("Expected '<blue>.<red>' for hole " + (i + 1) + " but got: " + holes[i]);
+                }
+                blue[i] = Integer.parseInt(holes[i].substring(0, dot));
+                red[i] = Integer.parseInt(holes[i].substring(dot + 1));
+            }
+            return Board.fromPosition(blue, red, Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in position: " + notation);
+        }
+    }
+
+    /**
+     * Format the position of a board in the compact notation. The turn counter is not part of the notation.
+     * @param board the board
+     * @return the position
+     */
+    public static String format(Board board) {
+        StringBuilder notation = new StringBuilder(80);
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            if (i > 0) {
+                notation.append(',');
+            }
+            notation.append(board.getSeedsInHole(i, SeedColor.BLUE)).append('.').append(board.getSeedsInHole(i, SeedColor.RED));
+        }
+        return notation.append(' ').append(board.getPlayer1Seeds())
+                .append(' ').append(board.getPlayer2Seeds())
+                .append(' ').append(board.getCurrentPlayer())
+                .toString();
+    }
+}
@@ -0,0 +1,100 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.neural.NeuralEvaluator;
+
+import java.util.Locale;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Difficulty levels of the AI. All levels except SOLVER are configurations of the {@link SearchEngine}, see
+ * {@link #config()}.
+ */
+public enum AIDifficulty {
+    BEGINNER,
+    INTERMEDIATE,
+    PRO,
+    ULTIMATE,
+    SOLVER;
+
+    // Depth of a search for the number of legal moves of the root: the fewer moves, the deeper the search
+    private static final IntUnaryOperator BEGINNER_DEPTHS = moves -> moves > 8 ? 5 : moves > 4 ? 6 : moves > 2 ? 8 : 9;
+    private static final IntUnaryOperator INTERMEDIATE_DEPTHS =
+            moves -> moves > 8 ? 5 : moves > 4 ? 10 : moves > 3 ? 11 : moves > 2 ? 12 : 13;
+    private static final IntUnaryOperator PRO_DEPTHS =
+            moves -> moves > 8 ? 5 : moves > 6 ? 7 : moves > 4 ? 8 : moves > 3 ? 9 : moves > 2 ? 10 : 11;
+
+    /**
+     * Create a new AIManager for this difficulty. AIManagers keep search state, so every game needs its own instance.
+     * With the system property {@code awale.cache.dir} the AIManagers of a difficulty share one evaluation cache, which
+     * is kept across runs (see {@link EvaluationCacheStore#shared()}), otherwise every AIManager starts with an empty one.
+     * @param verbose whether the AIManager prints search information to the console
+     * @return a new AIManager
+     */
+    public AIManager createManager(boolean verbose) {
+        EvaluationCacheStore store = EvaluationCacheStore.shared();
+        return createManager(verbose, store != null ? store.get(this) : new EvaluationCache());
+    }
+
+    /**
+     * Create a new AIManager for this difficulty using the given evaluation cache. Only use the same cache for
+     * AIManagers of the same difficulty, since they evaluate positions differently. BEGINNER and INTERMEDIATE only
+     * count the captured seeds and do not use a cache.
+     * @param verbose whether the AIManager prints search information to the console
+     * @param evaluationCache the evaluation cache, may be shared between threads
+     * @return a new AIManager
+     */
+    public AIManager createManager(boolean verbose, EvaluationCache evaluationCache) {
+        return switch (this) {
+            case BEGINNER, INTERMEDIATE, PRO, ULTIMATE -> new SearchEngine(config(), verbose, evaluationCache);
+            case SOLVER -> new AIManagerSolver(verbose, evaluationCache);
+        };
+    }
+
+    /**
+     * The features of the search of this difficulty. The levels differ in the depth they choose from the number of
+     * legal moves, the move ordering and the evaluation; only ULTIMATE uses selective search and the proof-number
+     * solver. SOLVER proves positions first and searches the others with the configuration of ULTIMATE without the
+     * solver.
+     * @return the configuration, with the pruning, solver and network settings of the system properties
+     */
+    public SearchConfig config() {
+        return switch (this) {
+            case BEGINNER -> new SearchConfig(BEGINNER_DEPTHS, MoveOrdering.MOST_SEEDS, BoardEvaluator.CAPTURED_SEEDS,
+                    false, false, PruningSettings.NONE, 0);
+            case INTERMEDIATE -> new SearchConfig(INTERMEDIATE_DEPTHS, MoveOrdering.MOST_SEEDS,
+                    BoardEvaluator.CAPTURED_SEEDS, false, false, PruningSettings.NONE, 0);
+            case PRO -> new SearchConfig(PRO_DEPTHS, MoveOrdering.CAPTURES_FIRST, BoardEvaluator.HEURISTIC, true, true,
+                    PruningSettings.NONE, 0);
+            case ULTIMATE -> new SearchConfig(PRO_DEPTHS, MoveOrdering.CAPTURES_FIRST, NeuralEvaluator.getConfigured(),
+                    true, true, PruningSettings.getConfigured(), Integer.getInteger("awale.solver.seeds", 16));
+            case SOLVER -> ULTIMATE.config().withSolverSeeds(0);
+        };
+    }
+
+    /**
+     * @return true if the AIManagers of this difficulty use an {@link EvaluationCache}
+     */
+    public boolean usesEvaluationCache() {
+        return config().cacheEvaluations();
+    }
+
+    /**
+     * @return the fingerprint of the leaf evaluation of this difficulty, see {@link BoardEvaluator#fingerprint()}
+     */
+    public long evaluationFingerprint() {
+        return config().evaluator().fingerprint();
+    }
+
+    /**
+     * Parse a difficulty from its (case-insensitive) name, e.g. "ultimate".
+     * @param name the name of the difficulty
+     * @return the matching difficulty
+     */
+    public static AIDifficulty fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown AI difficulty: " + name);
+        }
+    }
+}
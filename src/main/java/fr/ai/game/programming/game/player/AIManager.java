@@ -1,6 +1,11 @@
 package fr.ai.game.programming.game.player;
 
 import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.Position;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Interface for AI managers that can find moves for the AI player using a specific algorithm.
@@ -13,4 +18,72 @@ public interface AIManager {
      * @return The move for the AI player.
      */
     Move findMove(Board board);
+
+    /**
+     * Find the move for the AI player within the given search limits.
+     *
+     * @return The move for the AI player together with the statistics of the search.
+     */
+    SearchResult search(Board board, SearchLimits limits);
+
+    /**
+     * Find the move for the AI player in a shared position within the given search limits. The search runs on its own
+     * board, so the position can be used by other threads at the same time.
+     *
+     * @return The move for the AI player together with the statistics of the search.
+     */
+    default SearchResult search(Position position, SearchLimits limits) {
+        return search(position.toBoard(), limits);
+    }
+
+    /**
+     * Find the move for the AI player within the given search limits, stopping early when the token is cancelled and
+     * reporting the best move of every completed depth. The default searches like {@link #search(Board, SearchLimits)}
+     * and only reports the final result, it cannot be stopped once started.
+     *
+     * @param cancellation stops the search, which then returns the best move found so far
+     * @param progress     called on the search thread after every completed depth
+     * @return The move for the AI player together with the statistics of the search.
+     */
+    default SearchResult search(Board board, SearchLimits limits, CancellationToken cancellation,
+                                Consumer<SearchResult> progress) {
+        SearchResult result = search(board, limits);
+        progress.accept(result);
+        return result;
+    }
+
+    /**
+     * Find the move for the AI player on an executor, without blocking the caller. The search runs on a copy of the
+     * board, so the caller may use its board meanwhile; the copy keeps the turns and the history of the game, which the
+     * {@link fr.ai.game.programming.game.RepetitionRule} of the search needs.
+     * <p>
+     * The future completes with the best move when the search ends, reaches the limits or the deadline of the request,
+     * or when the token of the request is cancelled, e.g. because the move found so far is good enough. Cancelling the
+     * future cancels the token too, the search then ends without a move. Searches of one AIManager must not overlap:
+     * wait for a future before requesting the next move.
+     *
+     * @param executor runs the search, e.g. a pool shared by many games
+     * @return the future move, completed exceptionally if the search fails
+     */
+    default CompletableFuture<Move> findMoveAsync(Board board, SearchRequest request, Executor executor) {
+        Board position = board.copy();
+        CompletableFuture<Move> future = new CompletableFuture<>();
+        future.whenComplete((move, error) -> {
+            if (future.isCancelled()) {
+                request.cancellation().cancel();
+            }
+        });
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return; // Cancelled while waiting for a thread
+            }
+            try {
+                SearchLimits limits = request.limitsAt(System.nanoTime());
+                future.complete(search(position, limits, request.cancellation(), request.progress()).move());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
 }
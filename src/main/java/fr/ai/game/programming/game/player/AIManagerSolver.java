@@ -0,0 +1,105 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.elements.Board;
+
+import java.util.function.Consumer;
+
+/**
+ * AI manager which tries to prove the outcome of every position with {@link ProofNumberSearch} before searching it.
+ * <p>
+ * A proven win or draw is played at once. Lost positions and positions the solver cannot decide within its node
+ * limit and half of the time are searched by a {@link SearchEngine} configured like ULTIMATE with the remaining time.
+ */
+public class AIManagerSolver implements AIManager {
+    private static final int TIME_LIMIT_MS = 2000; // Time limit for the solver and the search together
+    private static final int WIN_SCORE = 100000; // Evaluation of a won game
+    private final boolean verbose; // Print search information to the console
+    private final ProofNumberSearch solver;
+    private final SearchEngine fallback;
+
+    public AIManagerSolver() {
+        this(true);
+    }
+
+    /**
+     * @param verbose whether the search information (outcome, computation time) is printed to the console
+     */
+    public AIManagerSolver(boolean verbose) {
+        this(verbose, new EvaluationCache());
+    }
+
+    /**
+     * @param verbose whether the search information (outcome, computation time) is printed to the console
+     * @param evaluationCache the cache for the leaf evaluations of the alpha-beta search
+     */
+    public AIManagerSolver(boolean verbose, EvaluationCache evaluationCache) {
+        this(verbose, evaluationCache, ProofNumberSearch.DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * @param verbose whether the search information (outcome, computation time) is printed to the console
+     * @param evaluationCache the cache for the leaf evaluations of the alpha-beta search
+     * @param maxNodes the node limit of the solver, see {@link ProofNumberSearch#ProofNumberSearch(int)}
+     */
+    public AIManagerSolver(boolean verbose, EvaluationCache evaluationCache, int maxNodes) {
+        this.verbose = verbose;
+        this.solver = new ProofNumberSearch(maxNodes);
+        // The position was already given to the solver
+        this.fallback = new SearchEngine(AIDifficulty.SOLVER.config(), verbose, evaluationCache);
+    }
+
+    public Move findMove(Board board) {
+        return search(board, new SearchLimits(0, TIME_LIMIT_MS)).move();
+    }
+
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        return search(board, limits, new CancellationToken(), result -> { });
+    }
+
+    /**
+     * Search like {@link #search(Board, SearchLimits)}. The proof cannot be cancelled, only the alpha-beta search
+     * after it stops early and reports its depths.
+     */
+    @Override
+    public SearchResult search(Board board, SearchLimits limits, CancellationToken cancellation,
+                               Consumer<SearchResult> progress) {
+        ProofNumberSearch.Solution solution = solve(board, limits.softTimeLimitMs() / 2);
+        if (solution.move() != null) {
+            int score = solution.outcome() == ProofNumberSearch.Outcome.DRAW ? 0
+                    : board.getCurrentPlayer() == 1 ? WIN_SCORE : -WIN_SCORE;
+            SearchResult solved = new SearchResult(solution.move(), score, 0, solution.nodes(), solution.timeMs(),
+                    false);
+            progress.accept(solved);
+            return solved;
+        }
+
+        long remainingMs = Math.max(1, limits.timeLimitMs() - solution.timeMs());
+        SearchLimits remaining = new SearchLimits(limits.depth(), remainingMs,
+                Math.max(1, Math.min(remainingMs, limits.softTimeLimitMs() - solution.timeMs())));
+        SearchResult result = fallback.search(board, remaining, cancellation,
+                depth -> progress.accept(withSolution(depth, solution)));
+        return withSolution(result, solution);
+    }
+
+    /**
+     * @return the result of the alpha-beta search with the nodes and the time of the proof before it
+     */
+    private static SearchResult withSolution(SearchResult result, ProofNumberSearch.Solution solution) {
+        return new SearchResult(result.move(), result.score(), result.depth(), solution.nodes() + result.nodes(),
+                solution.timeMs() + result.timeMs(), result.timeLimitReached());
+    }
+
+    /**
+     * Prove the outcome of a position for the player to move.
+     * @param timeLimitMs the time for the proof
+     * @return the outcome with a winning or drawing move, {@link ProofNumberSearch.Outcome#UNKNOWN} if it could not be
+     *         proven within the limits
+     */
+    public ProofNumberSearch.Solution solve(Board board, long timeLimitMs) {
+        ProofNumberSearch.Solution solution = solver.solve(board, Math.max(1, timeLimitMs));
+        if (verbose) System.out.println("Solver: " + solution.outcome() + " after " + solution.nodes() + " nodes in "
+                + solution.timeMs() + " ms");
+        return solution;
+    }
+}
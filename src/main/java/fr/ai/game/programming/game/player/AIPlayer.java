@@ -1,28 +1,128 @@
 package fr.ai.game.programming.game.player;
 
+import fr.ai.game.programming.game.GameClock;
 import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.metrics.MoveLatencies;
+import lombok.Setter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
- * AI player for the Awale game.
+ * AI player for the Awale game. The AI searches on an executor (see {@link AIManager#findMoveAsync}), so a game can
+ * stop it early. The time of every move is recorded in {@link MoveLatencies#global()} under the name of the player, its
+ * difficulty, so the two AIs of a game are kept apart although both search with a {@link SearchEngine}.
  */
 public class AIPlayer implements Player {
+    private static final long MOVE_TIME_LIMIT_MS = 2000; // Time of a move without a game clock, as AIManager.findMove
+    // Shared by the AI players of all games, a thread per running search
+    private static final Executor SEARCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "awale-ai-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     protected final AIManager aiManager;
+    private final String name; // The difficulty of the AI, or the class of its AIManager
+    private final TimeManager timeManager;
+    private final Executor executor;
+    @Setter
+    private Consumer<SearchResult> progressListener = result -> { }; // Told the best move of every completed depth
+
+    /**
+     * Create an AI player of a difficulty, named after it.
+     */
+    public AIPlayer(AIDifficulty difficulty) {
+        this(difficulty.name(), difficulty.createManager(true), new TimeManager(), SEARCH_EXECUTOR);
+    }
 
     public AIPlayer(AIManager aiManager) {
+        this(aiManager, new TimeManager());
+    }
+
+    /**
+     * @param timeManager divides the time on the game clock between the moves, if the game has a clock
+     */
+    public AIPlayer(AIManager aiManager, TimeManager timeManager) {
+        this(aiManager, timeManager, SEARCH_EXECUTOR);
+    }
+
+    /**
+     * @param timeManager divides the time on the game clock between the moves, if the game has a clock
+     * @param executor runs the searches, e.g. a pool shared by many games
+     */
+    public AIPlayer(AIManager aiManager, TimeManager timeManager, Executor executor) {
+        this(aiManager.getClass().getSimpleName(), aiManager, timeManager, executor);
+    }
+
+    /**
+     * @param name the name of the player in game records, e.g. its difficulty
+     * @param timeManager divides the time on the game clock between the moves, if the game has a clock
+     * @param executor runs the searches, e.g. a pool shared by many games
+     */
+    public AIPlayer(String name, AIManager aiManager, TimeManager timeManager, Executor executor) {
+        this.name = name;
         this.aiManager = aiManager;
+        this.timeManager = timeManager;
+        this.executor = executor;
     }
 
     @Override
-    public void makeMove(Board board) {
-        System.out.println("AI is making a move...");
+    public Move makeMove(Board board) {
+        return makeMove(board, null);
+    }
+
+    @Override
+    public Move makeMove(Board board, GameClock clock) {
+        try {
+            return makeMoveAsync(board, clock, new CancellationToken()).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Search the move on the executor of the player and make it once found. With a clock, the search gets the time
+     * given by the time manager and must be done before the player's time runs out.
+     */
+    @Override
+    public CompletableFuture<Move> makeMoveAsync(Board board, GameClock clock, CancellationToken cancellation) {
+        SearchRequest request;
+        if (clock == null) {
+            System.out.println("AI is making a move...");
+            request = SearchRequest.of(SearchLimits.ofTime(MOVE_TIME_LIMIT_MS));
+        } else {
+            int player = board.getCurrentPlayer();
+            System.out.println("AI is making a move... (" + clock.format(player) + " left)");
+            long remainingMs = clock.getRemainingMs(player);
+            request = SearchRequest.of(timeManager.allocate(board, remainingMs, clock.getIncrementMs()))
+                    .withDeadline(System.nanoTime() + remainingMs * 1_000_000);
+        }
 
-        Move aiMove = aiManager.findMove(board);
+        long start = System.nanoTime();
+        int seedsOnBoard = board.totalSeeds();
+        return aiManager.findMoveAsync(board, request.withCancellation(cancellation).withProgress(progressListener),
+                executor).thenApply(move -> {
+            MoveLatencies.global().record(getName(), seedsOnBoard, (System.nanoTime() - start) / 1_000);
+            return playMove(board, move);
+        });
+    }
 
+    private Move playMove(Board board, Move aiMove) {
         int oneBasedHole = aiMove.hole() + 1;
         int currentPlayerId = board.getCurrentPlayer();
         System.out.println("Player " + currentPlayerId + " chose to sow " + aiMove.color() + " seeds from hole " + oneBasedHole + ". (" + oneBasedHole + aiMove.color().toString().charAt(0) + ")");
 
         board.sowSeeds(aiMove.hole(), aiMove.color());
+        return aiMove;
+    }
+
+    @Override
+    public String getName() {
+        return name;
     }
 
 }
@@ -0,0 +1,79 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.EvaluationWeights;
+
+/**
+ * Evaluation function used at the leaves of a search.
+ */
+public interface BoardEvaluator {
+
+    /**
+     * The difference of the captured seeds, see {@link Board#evaluateBoard()}.
+     */
+    BoardEvaluator CAPTURED_SEEDS = new BoardEvaluator() {
+        @Override
+        public int evaluate(Board board) {
+            return board.evaluateBoard();
+        }
+
+        @Override
+        public long fingerprint() {
+            return 0x4341505455524544L; // "CAPTURED"
+        }
+    };
+
+    /**
+     * The heuristic of {@link Board#evaluateBoardHeuristic()}, which has no weights.
+     */
+    BoardEvaluator HEURISTIC = new BoardEvaluator() {
+        @Override
+        public int evaluate(Board board) {
+            return board.evaluateBoardHeuristic();
+        }
+
+        @Override
+        public long fingerprint() {
+            return 0x50524F0000000001L; // "PRO"
+        }
+    };
+
+    /**
+     * The hand-written heuristic with the active {@link fr.ai.game.programming.game.elements.EvaluationWeights}.
+     */
+    BoardEvaluator ULTIMATE_HEURISTIC = new BoardEvaluator() {
+        @Override
+        public int evaluate(Board board) {
+            return board.evaluateBoardHeuristicUltimate();
+        }
+
+        @Override
+        public long fingerprint() {
+            return 0x554C54494D415445L ^ EvaluationWeights.getActive().fingerprint(); // "ULTIMATE"
+        }
+    };
+
+    /**
+     * Evaluate a position. The board may be changed if the game is over, see {@link Board#checkGameStatus()}.
+     * @return the evaluation, positive if Player 1 is better
+     */
+    int evaluate(Board board);
+
+    /**
+     * Prepare the root position of a search, e.g. by attaching incrementally updated state to a copy of it. All
+     * positions evaluated during the search must be derived from the returned board.
+     * @return the board to search from
+     */
+    default Board prepare(Board board) {
+        return board;
+    }
+
+    /**
+     * Identify the evaluation, including its weights, so that evaluations stored by one process are only reused with
+     * the same evaluation (see {@link EvaluationCache#save(java.nio.file.Path, long)}).
+     * @return the same value in every process for the same evaluation, the default is only stable within a process
+     */
+    default long fingerprint() {
+        return System.identityHashCode(this);
+    }
+}
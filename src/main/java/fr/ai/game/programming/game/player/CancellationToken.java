@@ -0,0 +1,22 @@
+package fr.ai.game.programming.game.player;
+
+/**
+ * Stops a running search from another thread, see {@link AIManager#findMoveAsync}. A cancelled search ends as if its
+ * time limit was reached: it returns the best move found so far instead of failing. A token cannot be reset, every
+ * search gets a new one.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Stop the searches using this token as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,191 @@
+package fr.ai.game.programming.game.player;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small, lossy cache of leaf evaluations indexed by the hash of the position (see {@code Board.hash()}).
+ * <p>
+ * Every slot holds two longs: the data (the evaluation) and the key xor the data. The slots are written without
+ * locks, so a concurrent write may leave a slot torn between two positions. A lookup recomputes the key from both
+ * longs and only accepts the slot if it matches the full 64-bit hash, so a torn slot reads as a miss and never as a
+ * wrong evaluation. New entries always replace the old entry of their slot.
+ * <p>
+ * A cache must only be shared between searches using the same evaluation function.
+ * <p>
+ * A cache can be saved to a file and loaded by a later process, so it does not start empty. The file is a header
+ * (the magic "AWEC", the format version, the fingerprint of the evaluation and the size of the cache) followed by the
+ * keys and data of all slots, big-endian. Both directions go through a memory-mapped file.
+ */
+public class EvaluationCache {
+
+    /**
+     * Returned by {@link #get(long)} if the position is not cached. It is outside the range of an int, so every
+     * evaluation can be cached, including {@link Integer#MIN_VALUE} for a game won by Player 2.
+     */
+    public static final long MISS = Long.MIN_VALUE;
+
+    public static final int DEFAULT_SIZE_BITS = 16; // 65536 slots, 1 MB
+
+    private static final int MAGIC = 0x41574543; // "AWEC"
+    private static final int VERSION = 1; // Changes with the format and with the hash function of Board
+    private static final int HEADER_BYTES = 24;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EvaluationCache() {
+        this(DEFAULT_SIZE_BITS);
+    }
+
+    /**
+     * @param sizeBits the cache holds 2^sizeBits slots of 16 bytes
+     */
+    public EvaluationCache(int sizeBits) {
+        if (sizeBits < 1 || sizeBits > 28) {
+            throw new IllegalArgumentException("Invalid evaluation cache size: 2^" + sizeBits);
+        }
+        this.keys = new long[1 << sizeBits];
+        this.data = new long[1 << sizeBits];
+        this.mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * @param hash the hash of the position
+     * @return the cached evaluation or {@link #MISS}
+     */
+    public long get(long hash) {
+        int slot = (int) hash & mask;
+        long value = data[slot];
+        if ((keys[slot] ^ value) == hash && value != 0) {
+            hits.increment();
+            return (int) value;
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * @param hash the hash of the position
+     * @param evaluation the evaluation of the position
+     */
+    public void put(long hash, int evaluation) {
+        int slot = (int) hash & mask;
+        // The upper half marks the slot as used, so an empty slot never matches the hash 0
+        long value = (1L << 32) | (evaluation & 0xFFFFFFFFL);
+        data[slot] = value;
+        keys[slot] = hash ^ value;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the share of lookups answered from the cache, between 0 and 1
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Save all entries to a file. The file is written next to the target and then moved over it, so an interrupted
+     * save never leaves a damaged file behind.
+     * @param fingerprint the fingerprint of the evaluation whose results are cached, see {@link BoardEvaluator#fingerprint()}
+     */
+    public void save(Path file, long fingerprint) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes = HEADER_BYTES + 16L * keys.length;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putInt(Integer.bitCount(mask)).putInt(0);
+            LongBuffer slots = buffer.asLongBuffer();
+            slots.put(keys);
+            slots.put(data);
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Add the entries of a file written by {@link #save(Path, long)}. The file may hold a cache of any size, its entries
+     * replace the entries of this cache in the same slots.
+     * @param fingerprint the fingerprint of the evaluation of this cache, the file must have been saved with the same one
+     * @return the number of entries loaded
+     * @throws IOException if the file cannot be read, is not a cache of this version or belongs to another evaluation
+     */
+    public int load(Path file, long fingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not an evaluation cache file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an evaluation cache file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported evaluation cache version " + version + " in " + file);
+            }
+            if (buffer.getLong() != fingerprint) {
+                throw new IOException("The evaluation cache in " + file + " was saved with other evaluation settings");
+            }
+            int sizeBits = buffer.getInt();
+            buffer.getInt();
+            if (sizeBits < 1 || sizeBits > 28 || channel.size() != HEADER_BYTES + (16L << sizeBits)) {
+                throw new IOException("Damaged evaluation cache file: " + file);
+            }
+            return loadSlots(buffer.slice().asLongBuffer(), 1 << sizeBits);
+        }
+    }
+
+    private int loadSlots(LongBuffer slots, int slotCount) {
+        int fileMask = slotCount - 1;
+        int loaded = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            long value = slots.get(slotCount + slot);
+            long hash = slots.get(slot) ^ value;
+            // Empty and torn slots are skipped: a valid entry is always stored in the slot of its hash
+            if (value != 0 && ((int) hash & fileMask) == slot) {
+                put(hash, (int) value);
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Remove all entries and reset the statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        hits.reset();
+        misses.reset();
+    }
+}
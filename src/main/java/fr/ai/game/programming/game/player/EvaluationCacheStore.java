@@ -0,0 +1,109 @@
+package fr.ai.game.programming.game.player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared {@link EvaluationCache} per AI difficulty, optionally kept in a directory across process restarts.
+ * <p>
+ * The directory is given by the system property {@code awale.cache.dir}. A cache is loaded from
+ * {@code evaluation-<difficulty>.cache} when it is first used and written back by {@link #saveAll()}, so servers and
+ * batch runs start with the evaluations of the previous run. A file saved with other evaluation weights or another
+ * network is ignored. Messages go to stderr, so they do not mix with results written to stdout.
+ */
+public class EvaluationCacheStore {
+
+    public static final String DIRECTORY_PROPERTY = "awale.cache.dir";
+    private static final int SHARED_SIZE_BITS = 20;
+    private static EvaluationCacheStore shared; // Created on first use if a directory is configured
+
+    private final Path directory;
+    private final int sizeBits;
+    private final Map<AIDifficulty, EvaluationCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory the directory of the cache files, null to keep the caches in memory only
+     * @param sizeBits the size of every cache, see {@link EvaluationCache#EvaluationCache(int)}
+     */
+    public EvaluationCacheStore(Path directory, int sizeBits) {
+        this.directory = directory;
+        this.sizeBits = sizeBits;
+    }
+
+    /**
+     * @return a store in the directory given by the system property {@code awale.cache.dir}, if it is set
+     */
+    public static EvaluationCacheStore configured(int sizeBits) {
+        String property = System.getProperty(DIRECTORY_PROPERTY);
+        return new EvaluationCacheStore(property != null ? Path.of(property) : null, sizeBits);
+    }
+
+    /**
+     * The store of the AIManagers created by {@link AIDifficulty#createManager(boolean)}, e.g. by the game menu and the
+     * batch modes, so their games share one cache per difficulty and continue it across runs. The caches are saved when
+     * the process exits.
+     * @return the store in the directory given by the system property {@code awale.cache.dir}, null if it is not set
+     */
+    static synchronized EvaluationCacheStore shared() {
+        if (shared == null && System.getProperty(DIRECTORY_PROPERTY) != null) {
+            EvaluationCacheStore store = configured(SHARED_SIZE_BITS);
+            Runtime.getRuntime().addShutdownHook(new Thread(store::saveAll, "evaluation-cache-save"));
+            shared = store;
+        }
+        return shared;
+    }
+
+    /**
+     * @return the cache of the difficulty, loaded from its file on first use
+     */
+    public EvaluationCache get(AIDifficulty difficulty) {
+        return caches.computeIfAbsent(difficulty, this::open);
+    }
+
+    private EvaluationCache open(AIDifficulty difficulty) {
+        EvaluationCache cache = new EvaluationCache(sizeBits);
+        if (directory == null || !difficulty.usesEvaluationCache()) {
+            return cache;
+        }
+        Path file = fileOf(difficulty);
+        try {
+            int entries = cache.load(file, difficulty.evaluationFingerprint());
+            System.err.println("Loaded " + entries + " cached evaluations of " + difficulty + " from " + file);
+        } catch (NoSuchFileException e) {
+            // First run with this directory, start empty
+        } catch (IOException e) {
+            System.err.println("Could not load the evaluation cache, starting empty: " + e.getMessage());
+        }
+        return cache;
+    }
+
+    /**
+     * Write all caches used so far to their files. Does nothing without a directory.
+     */
+    public void saveAll() {
+        if (directory == null) {
+            return;
+        }
+        for (Map.Entry<AIDifficulty, EvaluationCache> entry : caches.entrySet()) {
+            AIDifficulty difficulty = entry.getKey();
+            if (!difficulty.usesEvaluationCache()) {
+                continue;
+            }
+            try {
+                Files.createDirectories(directory);
+                entry.getValue().save(fileOf(difficulty), difficulty.evaluationFingerprint());
+            } catch (IOException e) {
+                System.err.println("Could not save the evaluation cache of " + difficulty + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path fileOf(AIDifficulty difficulty) {
+        return directory.resolve("evaluation-" + difficulty.name().toLowerCase(Locale.ROOT) + ".cache");
+    }
+}
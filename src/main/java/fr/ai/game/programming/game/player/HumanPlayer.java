@@ -18,7 +18,7 @@ import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
 public class HumanPlayer implements Player {
 
     @Override
-    public void makeMove(Board board) {
+    public Move makeMove(Board board) {
         System.out.print("Enter your move (e.g., '3B'): ");
 
         // Read the player's move from the console
@@ -28,8 +28,9 @@ public class HumanPlayer implements Player {
                 String input = reader.readLine();
 
                 if (input != null && !input.isEmpty()) {
-                    if (processConsoleMove(input, board)) {
-                        break;
+                    Move move = processConsoleMove(input, board);
+                    if (move != null) {
+                        return move;
                     } else {
                         System.out.print("Enter your move (e.g., '3B'): ");
                     }
@@ -41,7 +42,11 @@ public class HumanPlayer implements Player {
         }
     }
 
-    private boolean processConsoleMove(String input, Board board) {
+    /**
+     * Parse and apply a move entered in the console.
+     * @return the move, or null if the input was not a valid move
+     */
+    private Move processConsoleMove(String input, Board board) {
         try {
             // Validate and parse input using regex
             String pattern = "^(\\d{1,2})([RB])$"; // Match 1-2 digits followed by 'R' or 'B'
@@ -50,7 +55,7 @@ public class HumanPlayer implements Player {
 
             if (!matcher.matches()) {
                 System.out.println("Invalid input format. Example: '11R' or '3B'.");
-                return false;
+                return null;
             }
 
             // Extract hole index and color
@@ -60,12 +65,12 @@ public class HumanPlayer implements Player {
             // Validate hole index
             if (holeIndex < 1 || holeIndex > TOTAL_HOLES) {
                 System.out.println("Invalid hole number. Please choose a number between 1 and " + board.getHoles().length + ".");
-                return false;
+                return null;
             }
 
             if (holeIndex % 2 != board.getCurrentPlayer() % 2) {
                 System.out.println("Invalid hole number " + holeIndex +". This hole is not yours " + "player" + board.getCurrentPlayer() + ".");
-                return false;
+                return null;
             }
 
             // Apply the move
@@ -75,18 +80,23 @@ public class HumanPlayer implements Player {
                 System.out.println("Player " + board.getCurrentPlayer() + " chose to sow " + chosenColor + " seeds from hole " + holeIndex + ".");
             } catch (IllegalArgumentException e) {
                 System.out.println(e.getMessage());
-                return false;
+                return null;
             }
 
-            return true; // Move successfully processed
+            return new Move(holeIndex - 1, chosenColor); // Move successfully processed
 
         } catch (Exception e) {
             System.out.println("An error occurred while processing your move. Please try again.");
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
+    @Override
+    public String getName() {
+        return "Human";
+    }
+
     private SeedColor parseColor(String colorCode) {
         switch (colorCode.toUpperCase()) {
             case "B":
@@ -9,4 +9,11 @@ public record Move(int hole, SeedColor color) {
         char colorChar = color == SeedColor.RED ? 'R' : 'B'; // Adjust based on the color enum values
         return hole + "" + colorChar;
     }
+
+    /**
+     * @return the move as entered by a human player, with the one-based hole number (e.g. "3B" for hole index 2)
+     */
+    public String toNotation() {
+        return (hole + 1) + (color == SeedColor.RED ? "R" : "B");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.elements.Board;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order in which a {@link SearchEngine} searches the moves of a node. The better the first moves, the more of the
+ * remaining moves are cut off by alpha-beta pruning.
+ */
+public interface MoveOrdering {
+
+    /**
+     * The order of {@link Board#getMoveMask(int)}: hole by hole, red before blue.
+     */
+    MoveOrdering NONE = (player, board, moves) -> {
+    };
+
+    /**
+     * The moves sowing the most seeds first.
+     */
+    MoveOrdering MOST_SEEDS = (player, board, moves) ->
+            moves.sort(Comparator.comparingInt((Move move) -> -board.getSeedsInHole(move.hole(), move.color())));
+
+    /**
+     * The moves capturing the most seeds first, then the moves sowing the fewest seeds. Every move is simulated once,
+     * not once per comparison.
+     */
+    MoveOrdering CAPTURES_FIRST = (player, board, moves) -> {
+        int[] capturedSeeds = new int[2 * Board.TOTAL_HOLES];
+        for (Move move : moves) {
+            Board simulationBoard = board.copy();
+            simulationBoard.forceCurrentPlayer(player);
+            capturedSeeds[moveIndex(move)] = simulationBoard.sowSeedsForSimulation(move.hole(), move.color());
+        }
+        moves.sort(Comparator.comparingInt((Move move) -> -capturedSeeds[moveIndex(move)])
+                .thenComparingInt(move -> board.getSeedsInHole(move.hole(), move.color())));
+    };
+
+    /**
+     * Sort the legal moves of a player.
+     * @param player the player to move (1 or 2)
+     * @param board the position, which must not be changed
+     * @param moves the legal moves of the player, sorted in place
+     */
+    void sort(int player, Board board, List<Move> moves);
+
+    /**
+     * Generate all legal moves of a player in the order they are searched.
+     */
+    default List<Move> orderedMoves(int player, Board board) {
+        List<Move> moves = new ArrayList<>();
+        for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            moves.add(new Move(Board.moveHole(player, bit), Board.moveColor(bit)));
+        }
+        sort(player, board, moves);
+        return moves;
+    }
+
+    /**
+     * @param name "none", "seeds" or "captures"
+     * @return the ordering with the name
+     */
+    static MoveOrdering fromName(String name) {
+        return switch (name) {
+            case "none" -> NONE;
+            case "seeds" -> MOST_SEEDS;
+            case "captures" -> CAPTURES_FIRST;
+            default -> throw new IllegalArgumentException("Unknown move ordering: " + name);
+        };
+    }
+
+    private static int moveIndex(Move move) {
+        return 2 * move.hole() + move.color().ordinal();
+    }
+}
@@ -0,0 +1,28 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.elements.Board;
+
+import java.util.List;
+
+/**
+ * Result of a multi-PV search, see {@link SearchEngine#searchMultiPv(Board, int, SearchLimits)}.
+ *
+ * @param lines             the best moves of the root with their principal variations, the best move first
+ * @param depth             the depth that was searched
+ * @param nodes             the number of positions visited
+ * @param timeMs            the wall-clock time of the search in milliseconds
+ * @param timeLimitReached  true if the search was aborted by the time limit
+ */
+public record MultiPvResult(List<PrincipalVariation> lines, int depth, long nodes, long timeMs, boolean timeLimitReached) {
+
+    public MultiPvResult {
+        lines = List.copyOf(lines);
+    }
+
+    /**
+     * @return the number of positions visited per second
+     */
+    public long nodesPerSecond() {
+        return timeMs == 0 ? nodes * 1000 : nodes * 1000 / timeMs;
+    }
+}
@@ -1,7 +1,10 @@
 package fr.ai.game.programming.game.player;
 
+import fr.ai.game.programming.game.GameClock;
 import fr.ai.game.programming.game.elements.Board;
 
+import java.util.concurrent.CompletableFuture;
+
 
 /**
  * Interface for a player in the Awale game.
@@ -12,6 +15,37 @@ public interface Player {
      * Makes a move on the given board.
      *
      * @param board the board on which to make the move
+     * @return the move that was made
+     */
+    Move makeMove(Board board);
+
+    /**
+     * Makes a move on the given board while the player's game clock is running.
+     *
+     * @param board the board on which to make the move
+     * @param clock the clock of the game, the clock of this player is running
+     * @return the move that was made
+     */
+    default Move makeMove(Board board, GameClock clock) {
+        return makeMove(board);
+    }
+
+    /**
+     * Makes a move on the given board without blocking the caller while the player thinks. The move is made on the
+     * board before the future completes, so the board must not be used until then. The default makes the move at
+     * once with {@link #makeMove(Board, GameClock)}.
+     *
+     * @param board the board on which to make the move
+     * @param clock the clock of the game, null for unlimited time
+     * @param cancellation asks the player to decide at once, an AI then plays the best move found so far
+     * @return the move that was made
+     */
+    default CompletableFuture<Move> makeMoveAsync(Board board, GameClock clock, CancellationToken cancellation) {
+        return CompletableFuture.completedFuture(makeMove(board, clock));
+    }
+
+    /**
+     * @return the name of the player, as stored in game records
      */
-    void makeMove(Board board);
+    String getName();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package fr.ai.game.programming.game.player;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A move of the root together with the line of play the search expects to follow it.
+ *
+ * @param score the minimax score of the line, from Player 1's perspective (positive is good for Player 1)
+ * @param moves the moves of the line, starting with the move of the root
+ */
+public record PrincipalVariation(int score, List<Move> moves) {
+
+    public PrincipalVariation {
+        if (moves.isEmpty()) {
+            throw new IllegalArgumentException("A principal variation needs at least one move");
+        }
+        moves = List.copyOf(moves);
+    }
+
+    /**
+     * @return the move of the root
+     */
+    public Move move() {
+        return moves.get(0);
+    }
+
+    /**
+     * @return the moves as entered by a human player, separated by commas, e.g. "3B,6R,1B"
+     */
+    public String toNotation() {
+        return moves.stream().map(Move::toNotation).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,315 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.SeedColor;
+
+import java.util.Arrays;
+
+/**
+ * Proof-number search: proves whether the player to move wins, draws or loses a position under the rules of
+ * {@link Board#checkGameStatus()}.
+ * <p>
+ * The search grows a tree best-first, always expanding the most-proving node: the leaf which proves or disproves the
+ * root with the least effort, judged by the number of leaves still to be proven (proof number) or disproven (disproof
+ * number) below every node. Unlike alpha-beta, it does not look at all moves to a fixed depth, so forced wins deep in
+ * the endgame are found in few nodes. Three outcomes need two proofs: first whether the player to move wins, and if
+ * not, whether they at least draw.
+ * <p>
+ * The tree is stored in parallel arrays of at most {@code maxNodes} nodes, the boards are replayed from the root when
+ * a leaf is expanded. Sowing without captures can go on forever under the rules, so a position which repeats a
+ * position on its path from the root, or lies deeper than {@link #MAX_PLIES}, is undecided. An undecided leaf counts
+ * against the player trying to reach the target, so proofs never depend on it; a disproof which met one is not
+ * trusted. The search gives up with {@link Outcome#UNKNOWN} when the tree is full or the time limit is reached.
+ */
+public class ProofNumberSearch {
+
+    public static final int DEFAULT_MAX_NODES = 2_000_000; // About 40 MB
+
+    private static final int INFINITY = Integer.MAX_VALUE / 2; // The sum of two numbers never overflows
+    private static final int MAX_CHILDREN = 16; // 8 holes with two colors
+    public static final int MAX_PLIES = 128;
+
+    /**
+     * Game-theoretic value of a position for the player to move.
+     */
+    public enum Outcome {
+        LOSS, DRAW, WIN, UNKNOWN
+    }
+
+    /**
+     * Result of {@link #solve(Board, long)}.
+     *
+     * @param outcome the proven value of the position for the player to move, {@link Outcome#UNKNOWN} if the limits
+     *                were reached first
+     * @param move    a move which keeps the outcome (a winning move for a win, a drawing move for a draw), null for a
+     *                loss or an unknown outcome
+     * @param nodes   the number of nodes created by both proofs
+     * @param timeMs  the wall-clock time of the search in milliseconds
+     */
+    public record Solution(Outcome outcome, Move move, long nodes, long timeMs) {
+
+        public boolean isSolved() {
+            return outcome != Outcome.UNKNOWN;
+        }
+    }
+
+    private final int maxNodes;
+
+    // The tree: the children of a node are stored next to each other
+    private int[] proof;
+    private int[] disproof;
+    private int[] parent;
+    private int[] firstChild;
+    private byte[] childCount;
+    private byte[] move; // 2 * hole + color ordinal of the move leading to the node
+    private int size;
+
+    private long nodes;
+    private boolean undecidedLeaves; // Set when the current tree has an undecided leaf
+    private long startTime;
+    private long timeLimitMs;
+
+    public ProofNumberSearch() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * @param maxNodes the maximum number of nodes of a tree, bounds the memory to about 20 bytes per node
+     */
+    public ProofNumberSearch(int maxNodes) {
+        if (maxNodes < 2) {
+            throw new IllegalArgumentException("Invalid node limit: " + maxNodes);
+        }
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Solve the position for the player to move.
+     * @param timeLimitMs the time for both proofs together
+     */
+    public Solution solve(Board board, long timeLimitMs) {
+        startTime = System.nanoTime();
+        this.timeLimitMs = timeLimitMs;
+        nodes = 0;
+
+        Outcome outcome = Outcome.UNKNOWN;
+        Move solutionMove = null;
+        if (prove(board, Outcome.WIN)) {
+            outcome = Outcome.WIN;
+            solutionMove = provingMove();
+        } else if (isDisproven()) {
+            if (prove(board, Outcome.DRAW)) {
+                outcome = Outcome.DRAW;
+                solutionMove = provingMove();
+            } else if (isDisproven()) {
+                outcome = Outcome.LOSS;
+            }
+        }
+        return new Solution(outcome, solutionMove, nodes, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * Build a tree to prove that the player to move reaches at least the target.
+     * @return true if it was proven, see {@link #isDisproven()} for the other outcomes
+     */
+    private boolean prove(Board root, Outcome target) {
+        allocate();
+        int rootPlayer = root.getCurrentPlayer();
+        // The root is never terminal here, the AIManagers only solve positions whose game is not over
+        size = 1;
+        parent[0] = -1;
+        childCount[0] = 0;
+        proof[0] = 1;
+        disproof[0] = 1;
+        undecidedLeaves = false;
+
+        long[] pathHashes = new long[MAX_PLIES + 1];
+        while (proof[0] != 0 && disproof[0] != 0) {
+            if ((System.nanoTime() - startTime) / 1_000_000 > timeLimitMs || size + MAX_CHILDREN > maxNodes) {
+                return false;
+            }
+
+            // Walk down to the most-proving node, replaying its moves
+            Board board = root.copy();
+            int node = 0;
+            int depth = 0;
+            pathHashes[depth] = board.hash();
+            while (childCount[node] > 0) {
+                boolean orNode = board.getCurrentPlayer() == rootPlayer;
+                node = orNode ? minChild(node, proof) : minChild(node, disproof);
+                play(board, move[node]);
+                pathHashes[++depth] = board.hash();
+            }
+
+            ensureCapacity(size + MAX_CHILDREN);
+            expand(node, board, rootPlayer, target, pathHashes, depth);
+            update(node, board.getCurrentPlayer() == rootPlayer);
+        }
+        return proof[0] == 0;
+    }
+
+    /**
+     * @return true if the last proof showed that the target cannot be reached
+     */
+    private boolean isDisproven() {
+        return disproof[0] == 0 && !undecidedLeaves;
+    }
+
+    private Move provingMove() {
+        for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++) {
+            if (proof[child] == 0) {
+                return toMove(move[child]);
+            }
+        }
+        throw new IllegalStateException("A proven root has a proven child");
+    }
+
+    private void expand(int node, Board board, int rootPlayer, Outcome target, long[] pathHashes, int depth) {
+        int player = board.getCurrentPlayer();
+        boolean orNode = player == rootPlayer;
+        firstChild[node] = size;
+        for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            int hole = Board.moveHole(player, bit);
+            SeedColor color = Board.moveColor(bit);
+            int child = size++;
+            nodes++;
+            parent[child] = node;
+            childCount[child] = 0;
+            move[child] = (byte) (2 * hole + color.ordinal());
+
+            Board childBoard = board.copy();
+            childBoard.sowSeeds(hole, color);
+            childBoard.switchPlayer();
+            Outcome outcome = terminalOutcome(childBoard, rootPlayer, pathHashes, depth);
+            if (outcome == Outcome.UNKNOWN) {
+                undecidedLeaves = true;
+                proof[child] = INFINITY;
+                disproof[child] = 0;
+            } else if (outcome == null) {
+                // Every move of a player is a way out for them, so it counts as one leaf to refute
+                boolean childIsOrNode = !orNode;
+                int moves = countMoves(childBoard);
+                proof[child] = childIsOrNode ? 1 : moves;
+                disproof[child] = childIsOrNode ? moves : 1;
+            } else if (outcome.compareTo(target) >= 0) {
+                proof[child] = 0;
+                disproof[child] = INFINITY;
+            } else {
+                proof[child] = INFINITY;
+                disproof[child] = 0;
+            }
+        }
+        childCount[node] = (byte) (size - firstChild[node]);
+    }
+
+    /**
+     * @param depth the depth of the parent of the position
+     * @return the outcome for the root player if the game is over, {@link Outcome#UNKNOWN} if the position is
+     *         undecided, otherwise null
+     */
+    private static Outcome terminalOutcome(Board board, int rootPlayer, long[] pathHashes, int depth) {
+        GameStatus status = board.checkGameStatus();
+        if (!status.isGameOver()) {
+            if (depth + 1 >= MAX_PLIES) {
+                return Outcome.UNKNOWN;
+            }
+            long hash = board.hash();
+            for (int i = depth; i >= 0; i--) {
+                if (pathHashes[i] == hash) {
+                    return Outcome.UNKNOWN;
+                }
+            }
+            return null;
+        }
+        return status.getWinner() == 0 ? Outcome.DRAW : status.getWinner() == rootPlayer ? Outcome.WIN : Outcome.LOSS;
+    }
+
+    /**
+     * Recompute the proof and disproof numbers from the expanded node up to the first ancestor which does not change.
+     */
+    private void update(int node, boolean orNode) {
+        boolean expanded = true;
+        while (node >= 0) {
+            int newProof;
+            int newDisproof;
+            int first = firstChild[node];
+            int last = first + childCount[node];
+            if (orNode) {
+                newProof = INFINITY;
+                newDisproof = 0;
+                for (int child = first; child < last; child++) {
+                    newProof = Math.min(newProof, proof[child]);
+                    newDisproof = Math.min(INFINITY, newDisproof + disproof[child]);
+                }
+            } else {
+                newProof = 0;
+                newDisproof = INFINITY;
+                for (int child = first; child < last; child++) {
+                    newProof = Math.min(INFINITY, newProof + proof[child]);
+                    newDisproof = Math.min(newDisproof, disproof[child]);
+                }
+            }
+            if (!expanded && newProof == proof[node] && newDisproof == disproof[node]) {
+                return;
+            }
+            proof[node] = newProof;
+            disproof[node] = newDisproof;
+            node = parent[node];
+            orNode = !orNode;
+            expanded = false;
+        }
+    }
+
+    private int minChild(int node, int[] numbers) {
+        int best = firstChild[node];
+        for (int child = best + 1; child < firstChild[node] + childCount[node]; child++) {
+            if (numbers[child] < numbers[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void allocate() {
+        if (proof == null) {
+            int capacity = Math.min(maxNodes, 1 << 16);
+            proof = new int[capacity];
+            disproof = new int[capacity];
+            parent = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new byte[capacity];
+            move = new byte[capacity];
+        }
+    }
+
+    /**
+     * Grow the arrays of the tree, they never grow beyond the node limit.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= proof.length) {
+            return;
+        }
+        int newCapacity = (int) Math.min(maxNodes, Math.max(capacity, 2L * proof.length));
+        proof = Arrays.copyOf(proof, newCapacity);
+        disproof = Arrays.copyOf(disproof, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        firstChild = Arrays.copyOf(firstChild, newCapacity);
+        childCount = Arrays.copyOf(childCount, newCapacity);
+        move = Arrays.copyOf(move, newCapacity);
+    }
+
+    private static int countMoves(Board board) {
+        return Math.max(1, board.countMoves(board.getCurrentPlayer()));
+    }
+
+    private static void play(Board board, byte encodedMove) {
+        board.sowSeeds(encodedMove / 2, SeedColor.values()[encodedMove % 2]);
+        board.switchPlayer();
+    }
+
+    private static Move toMove(byte encodedMove) {
+        return new Move(encodedMove / 2, SeedColor.values()[encodedMove % 2]);
+    }
+}
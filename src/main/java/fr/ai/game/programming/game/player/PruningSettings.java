@@ -0,0 +1,62 @@
+package fr.ai.game.programming.game.player;
+
+/**
+ * Selective search settings of {@link SearchEngine}.
+ * <p>
+ * Late move reductions search the quiet moves (moves without a capture) that come late in the move order with a
+ * reduced depth, and only search them again at full depth if they unexpectedly improve the result. Futility pruning
+ * skips the quiet moves of nodes close to the leaves whose static evaluation is so far outside the alpha-beta window
+ * that a quiet move is not expected to bring it back.
+ * <p>
+ * The configured settings are read once from system properties, e.g. {@code -Dawale.lmr=false} or
+ * {@code -Dawale.futility.margin=80}, so their effect can be measured with any mode of the application.
+ *
+ * @param lateMoveReductions whether late move reductions are used
+ * @param reductionMinDepth  the minimum remaining depth of a node whose moves are reduced
+ * @param fullDepthMoves     the number of moves of a node that are always searched at full depth
+ * @param reduction          the number of plies a late move is reduced by
+ * @param futilityPruning    whether futility pruning is used
+ * @param futilityDepth      the maximum remaining depth of a node whose moves are pruned
+ * @param futilityMargin     the margin per remaining ply added to the static evaluation
+ */
+public record PruningSettings(boolean lateMoveReductions, int reductionMinDepth, int fullDepthMoves, int reduction,
+                              boolean futilityPruning, int futilityDepth, int futilityMargin) {
+
+    public static final PruningSettings DEFAULT = new PruningSettings(true, 3, 3, 1, true, 2, 60);
+    public static final PruningSettings NONE = new PruningSettings(false, 3, 3, 1, false, 2, 60);
+
+    private static final PruningSettings CONFIGURED = fromSystemProperties(DEFAULT);
+
+    public PruningSettings {
+        if (reductionMinDepth < 1 || fullDepthMoves < 0 || reduction < 1) {
+            throw new IllegalArgumentException("Invalid late move reduction settings");
+        }
+        if (futilityDepth < 1 || futilityMargin < 0) {
+            throw new IllegalArgumentException("Invalid futility pruning settings");
+        }
+    }
+
+    /**
+     * @return the settings given by the system properties, see {@link #fromSystemProperties(PruningSettings)}
+     */
+    public static PruningSettings getConfigured() {
+        return CONFIGURED;
+    }
+
+    /**
+     * Read the settings from the system properties {@code awale.lmr}, {@code awale.lmr.depth}, {@code awale.lmr.moves},
+     * {@code awale.lmr.reduction}, {@code awale.futility}, {@code awale.futility.depth} and
+     * {@code awale.futility.margin}.
+     * @param defaults the values of the properties which are not set
+     */
+    public static PruningSettings fromSystemProperties(PruningSettings defaults) {
+        return new PruningSettings(
+                Boolean.parseBoolean(System.getProperty("awale.lmr", String.valueOf(defaults.lateMoveReductions()))),
+                Integer.getInteger("awale.lmr.depth", defaults.reductionMinDepth()),
+                Integer.getInteger("awale.lmr.moves", defaults.fullDepthMoves()),
+                Integer.getInteger("awale.lmr.reduction", defaults.reduction()),
+                Boolean.parseBoolean(System.getProperty("awale.futility", String.valueOf(defaults.futilityPruning()))),
+                Integer.getInteger("awale.futility.depth", defaults.futilityDepth()),
+                Integer.getInteger("awale.futility.margin", defaults.futilityMargin()));
+    }
+}
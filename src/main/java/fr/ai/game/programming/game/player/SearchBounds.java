@@ -0,0 +1,45 @@
+package fr.ai.game.programming.game.player;
+
+/**
+ * The alpha-beta window of a running search, shared with other threads: they can narrow the window while the search
+ * runs, e.g. when a sibling subtree searched elsewhere has raised the bound of the root, or stop the search.
+ * See {@link SearchEngine#searchLine}.
+ */
+public class SearchBounds {
+
+    private volatile int alpha;
+    private volatile int beta;
+    private volatile boolean stopped;
+
+    public SearchBounds(int alpha, int beta) {
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    public int alpha() {
+        return alpha;
+    }
+
+    public int beta() {
+        return beta;
+    }
+
+    /**
+     * Narrow the window, bounds which would widen it are ignored.
+     */
+    public synchronized void narrow(int alpha, int beta) {
+        this.alpha = Math.max(this.alpha, alpha);
+        this.beta = Math.min(this.beta, beta);
+    }
+
+    /**
+     * Stop the search at its next node.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.neural.NeuralEvaluator;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The features used by a {@link SearchEngine}. Every {@link AIDifficulty} is one configuration of the same engine, see
+ * {@link AIDifficulty#config()}, and every feature can be switched on or off on its own to measure its effect, e.g.
+ * with {@code analyze --engine ordering=none,lmr=off}.
+ *
+ * @param depthPolicy        the depth of a search without a given depth, chosen from the number of legal moves of the
+ *                           root
+ * @param ordering           the order in which the moves of a node are searched
+ * @param evaluator          the evaluation of the leaves
+ * @param cacheEvaluations   whether the evaluations of the leaves are kept in an {@link EvaluationCache}
+ * @param iterativeDeepening whether a search with a managed time (see {@link SearchLimits#isTimeManaged()}) deepens
+ *                           iteratively, otherwise every search without a given depth uses the depth policy and stops
+ *                           at the soft time limit
+ * @param pruning            the late move reductions and futility pruning
+ * @param solverSeeds        positions with at most this many seeds on the board are first handed to the proof-number
+ *                           solver, 0 never uses the solver
+ */
+public record SearchConfig(IntUnaryOperator depthPolicy, MoveOrdering ordering, BoardEvaluator evaluator,
+                           boolean cacheEvaluations, boolean iterativeDeepening, PruningSettings pruning,
+                           int solverSeeds) {
+
+    public SearchConfig {
+        if (solverSeeds < 0) {
+            throw new IllegalArgumentException("Invalid number of solver seeds: " + solverSeeds);
+        }
+    }
+
+    public SearchConfig withOrdering(MoveOrdering ordering) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    public SearchConfig withEvaluator(BoardEvaluator evaluator) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    public SearchConfig withCacheEvaluations(boolean cacheEvaluations) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    public SearchConfig withIterativeDeepening(boolean iterativeDeepening) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    public SearchConfig withPruning(PruningSettings pruning) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    public SearchConfig withSolverSeeds(int solverSeeds) {
+        return new SearchConfig(depthPolicy, ordering, evaluator, cacheEvaluations, iterativeDeepening, pruning,
+                solverSeeds);
+    }
+
+    /**
+     * Change features of the configuration with a comma separated list of {@code key=value} options:
+     * {@code ordering=none|seeds|captures}, {@code eval=captured|heuristic|configured}, {@code cache=on|off},
+     * {@code iterative=on|off}, {@code lmr=on|off}, {@code futility=on|off} and {@code solver=SEEDS}.
+     * @param options the options, may be empty
+     * @return the changed configuration
+     */
+    public SearchConfig withOptions(String options) {
+        SearchConfig config = this;
+        for (String option : options.split(",")) {
+            if (option.isBlank()) {
+                continue;
+            }
+            String[] keyValue = option.trim().split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got: " + option);
+            }
+            String value = keyValue[1];
+            PruningSettings p = config.pruning();
+            config = switch (keyValue[0]) {
+                case "ordering" -> config.withOrdering(MoveOrdering.fromName(value));
+                case "eval" -> config.withEvaluator(switch (value) {
+                    case "captured" -> BoardEvaluator.CAPTURED_SEEDS;
+                    case "heuristic" -> BoardEvaluator.HEURISTIC;
+                    case "configured" -> NeuralEvaluator.getConfigured();
+                    default -> throw new IllegalArgumentException("Unknown evaluation: " + value);
+                });
+                case "cache" -> config.withCacheEvaluations(parseSwitch(value));
+                case "iterative" -> config.withIterativeDeepening(parseSwitch(value));
+                case "lmr" -> config.withPruning(new PruningSettings(parseSwitch(value), p.reductionMinDepth(),
+                        p.fullDepthMoves(), p.reduction(), p.futilityPruning(), p.futilityDepth(), p.futilityMargin()));
+                case "futility" -> config.withPruning(new PruningSettings(p.lateMoveReductions(),
+                        p.reductionMinDepth(), p.fullDepthMoves(), p.reduction(), parseSwitch(value), p.futilityDepth(),
+                        p.futilityMargin()));
+                case "solver" -> config.withSolverSeeds(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown engine option: " + keyValue[0]);
+            };
+        }
+        return config;
+    }
+
+    private static boolean parseSwitch(String value) {
+        return switch (value) {
+            case "on" -> true;
+            case "off" -> false;
+            default -> throw new IllegalArgumentException("Expected on or off but got: " + value);
+        };
+    }
+}
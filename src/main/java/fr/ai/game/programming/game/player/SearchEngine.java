@@ -0,0 +1,633 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.RepetitionRule;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionHistory;
+import fr.ai.game.programming.game.elements.SeedColor;
+
+import javax.naming.TimeLimitExceededException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Alpha-beta search of the AIManagers of all difficulty levels, with the features chosen by a {@link SearchConfig}:
+ * the depth of a search, the order of the moves, the evaluation of the leaves and its cache, iterative deepening,
+ * late move reductions and futility pruning and the handoff of endgames to the proof-number solver.
+ * <p>
+ * Positions which repeat a position of the search path or of the game before the root (see
+ * {@link Board#getHistory()}) end the line under the {@link RepetitionRule} of the game, so cycles of sowing without
+ * captures are not searched again.
+ */
+public class SearchEngine implements AIManager {
+    private static final int TIME_LIMIT_MS = 2000; // Time limit for the Minimax algorithm
+    private static final int MAX_DEPTH = 40; // Maximum depth of an iteratively deepening search
+    private static final int WIN_SCORE = 100000; // Evaluation of a won game
+    private static final int RULE_SEED_SCORE = 1000; // Evaluation of a captured seed when the repetition rule ends a line
+    private static final int MAX_RULE_SCORE = WIN_SCORE / 2; // Keeps ended lines apart from proven wins
+    private static final int MAX_PLY = 64; // Maximum distance of a node from the root
+    private static final int SOLVER_NODES = 100_000; // Bounds the time and memory of a handoff to a few MB
+    private long startTime;
+    private long timeLimitMs = TIME_LIMIT_MS;
+    private long nodes; // Number of positions visited by the current search
+    private final boolean verbose; // Print search information to the console
+    private final SearchConfig config;
+    private final EvaluationCache evaluationCache; // Leaf evaluations, kept between moves
+    private final BoardEvaluator evaluator;
+    private final PruningSettings pruning;
+    private long reductions; // Late moves searched with a reduced depth by the current search
+    private long researches; // Reduced moves searched again at full depth
+    private long futilityPrunes; // Quiet moves skipped by futility pruning
+    // Principal variations of the nodes on the current path, pvTable[ply] holds the moves (see moveIndex) of the best
+    // line of the node at that ply, starting with the node's own move
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private ProofNumberSearch solver; // Created on the first handoff
+    private SearchBounds sharedBounds; // Window shared with another thread during searchLine(), otherwise null
+    private PositionHistory path; // The positions of the game up to the root and of the search from the root to the node
+    private int rootTurns; // The number of moves played before the root
+    private CancellationToken cancellation; // Stops the current search like the time limit, null if it cannot stop
+    private Consumer<SearchResult> progress = result -> { }; // Told the best move of every completed depth
+
+    /**
+     * @param config the features of the search
+     * @param verbose whether the search information (depth, computation time) is printed to the console
+     */
+    public SearchEngine(SearchConfig config, boolean verbose) {
+        this(config, verbose, new EvaluationCache());
+    }
+
+    /**
+     * @param config the features of the search
+     * @param verbose whether the search information (depth, computation time) is printed to the console
+     * @param evaluationCache the cache for the leaf evaluations, only share it with engines using the same evaluator.
+     *                        It is not used if the configuration does not cache evaluations.
+     */
+    public SearchEngine(SearchConfig config, boolean verbose, EvaluationCache evaluationCache) {
+        this.config = config;
+        this.verbose = verbose;
+        this.evaluationCache = evaluationCache;
+        this.evaluator = config.evaluator();
+        this.pruning = config.pruning();
+    }
+
+    public SearchConfig getConfig() {
+        return config;
+    }
+
+    public Move findMove(Board board) {
+        return search(board, new SearchLimits(0, TIME_LIMIT_MS)).move();
+    }
+
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        return findBestMove(board, limits);
+    }
+
+    @Override
+    public SearchResult search(Board board, SearchLimits limits, CancellationToken cancellation,
+                               Consumer<SearchResult> progress) {
+        this.cancellation = cancellation;
+        this.progress = progress;
+        try {
+            return findBestMove(board, limits);
+        } finally {
+            this.cancellation = null;
+            this.progress = result -> { };
+        }
+    }
+
+    /**
+     * Find the best move for the player using the Minimax algorithm with Alpha-Beta pruning.
+     * @param limits the depth and time limits of the search, a depth of 0 chooses the depth based on the possible moves
+     *               or, if the time is managed and the search deepens iteratively, deepens within the soft time limit
+     * @return the best move which includes seed color and number of seeds, together with the search statistics
+     */
+    private SearchResult findBestMove(Board board, SearchLimits limits) {
+        // Start timing
+        startTime = System.nanoTime();
+        // Without iterative deepening there is no earlier result to fall back on, so stay within the soft limit
+        timeLimitMs = config.iterativeDeepening() ? limits.timeLimitMs() : limits.softTimeLimitMs();
+        nodes = 0;
+        reductions = 0;
+        researches = 0;
+        futilityPrunes = 0;
+
+        if (board.totalSeeds() <= config.solverSeeds()) {
+            SearchResult solved = solve(board, limits);
+            if (solved != null) {
+                progress.accept(solved);
+                return solved;
+            }
+        }
+
+        board = evaluator.prepare(board); // All simulated boards are copies of the prepared root
+        startPath(board);
+
+        int player = board.getCurrentPlayer();
+
+        // Generate a sorted list of all possible moves for the player
+        List<Move> possibleMoves = getAllPossibleMoves(player, board);
+
+        if (config.iterativeDeepening() && limits.isTimeManaged()) {
+            return searchIteratively(board, possibleMoves, limits);
+        }
+
+        int depth = limits.depth() > 0 ? limits.depth() : config.depthPolicy().applyAsInt(possibleMoves.size());
+        if (verbose) System.out.println("Current depth: " + depth);
+
+        SearchResult result = searchRoot(board, possibleMoves, depth);
+        if (result.timeLimitReached()) {
+            return result;
+        }
+        progress.accept(result);
+
+        if (verbose) System.out.println("AI move computation time: " + result.timeMs() + " ms");
+        if (verbose && config.cacheEvaluations()) {
+            System.out.printf("Evaluation cache hit rate: %.1f%%%n", evaluationCache.getHitRate() * 100);
+        }
+        if (verbose) printPruningStatistics();
+
+        return result;
+    }
+
+    /**
+     * Try to prove the outcome of an endgame position with the proof-number solver, within a quarter of the soft time
+     * limit. The time spent on it counts against the limits of the following alpha-beta search.
+     * @return the winning or drawing move, or null if the position could not be solved or is lost, since then the
+     *         alpha-beta search chooses the move which resists longest
+     */
+    private SearchResult solve(Board board, SearchLimits limits) {
+        if (solver == null) {
+            solver = new ProofNumberSearch(SOLVER_NODES);
+        }
+        ProofNumberSearch.Solution solution = solver.solve(board, Math.max(1, limits.softTimeLimitMs() / 4));
+        nodes += solution.nodes();
+        if (verbose) System.out.println("Solver: " + solution.outcome() + " after " + solution.nodes() + " nodes in "
+                + solution.timeMs() + " ms");
+        if (solution.move() == null) {
+            return null;
+        }
+        int score = solution.outcome() == ProofNumberSearch.Outcome.DRAW ? 0
+                : board.getCurrentPlayer() == 1 ? WIN_SCORE : -WIN_SCORE;
+        return new SearchResult(solution.move(), score, 0, nodes, (System.nanoTime() - startTime) / 1_000_000, false);
+    }
+
+    /**
+     * Search with increasing depth until the soft time limit, the best move of every iteration is searched first in
+     * the next one. If an iteration is aborted by the time limit, the result of the last complete iteration is used.
+     */
+    private SearchResult searchIteratively(Board board, List<Move> possibleMoves, SearchLimits limits) {
+        SearchResult best = null;
+        int stableIterations = 0;
+        boolean timeLimitReached = false;
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            SearchResult result = searchRoot(board, possibleMoves, depth);
+            if (result.timeLimitReached()) {
+                timeLimitReached = true;
+                if (best == null) best = result;
+                break;
+            }
+
+            stableIterations = best != null && best.move().equals(result.move()) ? stableIterations + 1 : 0;
+            best = result;
+            progress.accept(result);
+            possibleMoves.remove(result.move());
+            possibleMoves.add(0, result.move());
+
+            long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+            if (Math.abs(result.score()) >= WIN_SCORE || !limits.canStartIteration(elapsedMs, stableIterations)) {
+                break;
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        if (verbose) System.out.println("Depth " + best.depth() + " in " + elapsedMs + " ms (soft limit "
+                + limits.softTimeLimitMs() + " ms, hard limit " + limits.timeLimitMs() + " ms)");
+        if (verbose) printPruningStatistics();
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes, elapsedMs, timeLimitReached);
+    }
+
+    /**
+     * Search all moves of the root to the given depth.
+     * @return the best move, or the best move found so far if the time limit was reached
+     */
+    private SearchResult searchRoot(Board board, List<Move> possibleMoves, int depth) {
+        int player = board.getCurrentPlayer();
+        // Define initial alpha and beta values
+        int alpha = Integer.MIN_VALUE;
+        int beta = Integer.MAX_VALUE;
+
+        // The best move so far, kept if no move is better than a lost game (or the time runs out first), the same move in every run
+        Move bestMove = possibleMoves.get(0);
+        int bestValue = (player == 1) ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+        // Iterate through all holes to find the best move
+        for (Move move : possibleMoves) {
+                if (board.hasSeeds(move.hole(), move.color())) { // Check if seeds of this color exist in the hole
+                    // Create a temporary board state for simulation
+                    Board simulatedBoard = board.copy();
+                    simulatedBoard.sowSeeds(move.hole(), move.color()); // Perform the move on the simulated board
+
+                    // Calculate the utility of the move using the minimax algorithm
+                    int moveValue;
+                    try {
+                        // Calculate the utility of the move using the minimax algorithm
+                        moveValue = minimax(simulatedBoard, depth, alpha, beta, player == 2, 1);
+
+                    } catch (TimeLimitExceededException e) {
+                        if (verbose) System.out.println("Time limit exceeded. Returning the best move found so far.");
+                        if (verbose) System.out.println("AI move computation time: " + timeLimitMs + " ms");
+                        return new SearchResult(bestMove, bestValue, depth, nodes, (System.nanoTime() - startTime) / 1_000_000, true);
+                    }
+
+                    // Update the best move if the current move has a better value
+                    if ((player == 1 && moveValue > bestValue) || (player == 2 && moveValue < bestValue)) {
+                        bestValue = moveValue;
+                        bestMove = new Move(move.hole(), move.color());
+                    }
+
+                    // Update alpha or beta for pruning
+                    if (player == 1) {
+                        alpha = Math.max(alpha, bestValue);
+                    } else {
+                        beta = Math.min(beta, bestValue);
+                    }
+
+                    // Prune the search tree if the move cannot improve the current state
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+        }
+
+        return new SearchResult(bestMove, bestValue, depth, nodes, (System.nanoTime() - startTime) / 1_000_000, false);
+    }
+
+    /**
+     * Search the subtree below a line of moves from the root the way {@link #search(Board, SearchLimits)} with a fixed
+     * depth searches it: the first move of the line gets the full depth and every further move takes one ply of it.
+     * A distributed search uses this to search parts of the tree of one root on different machines.
+     * @param board the root position
+     * @param line the moves from the root, at least one, see {@link #playLine(Board, List)}
+     * @param depth the depth of the root search
+     * @param bounds the window of the search, another thread may narrow it or stop the search while it runs
+     * @param timeLimitMs the time after which the search is stopped
+     * @return the first move of the line with the score of the line from Player 1's perspective, which is only an upper
+     *         (lower) bound if it is not above alpha (below beta), or with timeLimitReached if the search was stopped
+     */
+    public SearchResult searchLine(Board board, List<Move> line, int depth, SearchBounds bounds, long timeLimitMs) {
+        if (line.isEmpty() || depth < line.size() - 1) {
+            throw new IllegalArgumentException("Invalid line of " + line.size() + " moves for depth " + depth);
+        }
+        startTime = System.nanoTime();
+        this.timeLimitMs = timeLimitMs;
+        nodes = 0;
+        reductions = 0;
+        researches = 0;
+        futilityPrunes = 0;
+
+        Board root = evaluator.prepare(board);
+        startPath(root);
+        for (int i = 1; i < line.size(); i++) {
+            Board linePosition = playLine(root, line.subList(0, i));
+            path.push(linePosition.hash(i % 2 == 0 ? board.getCurrentPlayer() : 3 - board.getCurrentPlayer()),
+                    linePosition.getPlayer1Seeds() + linePosition.getPlayer2Seeds());
+        }
+        Board simulatedBoard = playLine(root, line);
+        boolean isMaximizing = (board.getCurrentPlayer() == 1) == (line.size() % 2 == 0);
+        sharedBounds = bounds;
+        try {
+            int score = minimax(simulatedBoard, depth - line.size() + 1, bounds.alpha(), bounds.beta(), isMaximizing,
+                    line.size());
+            return new SearchResult(line.get(0), score, depth, nodes, (System.nanoTime() - startTime) / 1_000_000, false);
+        } catch (TimeLimitExceededException e) {
+            return new SearchResult(line.get(0), 0, depth, nodes, (System.nanoTime() - startTime) / 1_000_000, true);
+        } finally {
+            sharedBounds = null;
+        }
+    }
+
+    /**
+     * Play a line of moves from the root as the search plays them: the player is not switched after the move of the
+     * root (see {@link #searchRoot}), but after every further move.
+     * @return the position at the end of the line, as the search evaluates it
+     * @throws IllegalArgumentException if a move of the line has no seeds
+     */
+    public static Board playLine(Board board, List<Move> line) {
+        Board simulatedBoard = board.copy();
+        int player = board.getCurrentPlayer();
+        for (int i = 0; i < line.size(); i++) {
+            Move move = line.get(i);
+            int mover = i % 2 == 0 ? player : 3 - player;
+            if (!simulatedBoard.hasSeeds(move.hole(), move.color())) {
+                throw new IllegalArgumentException("Move " + move.toNotation() + " of the line has no seeds");
+            }
+            if (i > 0) {
+                simulatedBoard.forceCurrentPlayer(mover);
+            }
+            simulatedBoard.sowSeeds(move.hole(), move.color());
+            if (i > 0) {
+                simulatedBoard.switchPlayer();
+            }
+        }
+        return simulatedBoard;
+    }
+
+    /**
+     * Find the best moves of the player with their exact scores and principal variations.
+     * <p>
+     * All lines are searched together: every iteration of the search searches the lines of the previous iteration
+     * first, and a move only gets an exact score if a null window search around the score of the last line shows that
+     * it is better. So the search costs little more than a search for the best move, instead of one search per line.
+     * @param lineCount the number of moves to return, less are returned if the player has fewer moves
+     * @param limits the depth and time limits of the search, a depth of 0 deepens iteratively within the time limit
+     * @return the moves ranked from the best to the worst for the player, the lines of the last complete iteration if
+     *         the time limit was reached
+     */
+    public MultiPvResult searchMultiPv(Board board, int lineCount, SearchLimits limits) {
+        if (lineCount < 1) {
+            throw new IllegalArgumentException("Invalid number of lines: " + lineCount);
+        }
+        startTime = System.nanoTime();
+        timeLimitMs = limits.timeLimitMs();
+        nodes = 0;
+        reductions = 0;
+        researches = 0;
+        futilityPrunes = 0;
+        board = evaluator.prepare(board);
+        startPath(board);
+
+        List<Move> possibleMoves = getAllPossibleMoves(board.getCurrentPlayer(), board);
+        int maxDepth = limits.depth() > 0 ? limits.depth() : MAX_DEPTH;
+        List<PrincipalVariation> best = new ArrayList<>();
+        int bestDepth = 0;
+        boolean timeLimitReached = false;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            List<PrincipalVariation> lines = new ArrayList<>();
+            try {
+                searchRootMultiPv(board, possibleMoves, depth, lineCount, lines);
+            } catch (TimeLimitExceededException e) {
+                timeLimitReached = true;
+                if (best.isEmpty()) {
+                    best = lines;
+                    bestDepth = depth;
+                }
+                break;
+            }
+            best = lines;
+            bestDepth = depth;
+
+            // The next iteration searches the lines first, in the order of their scores
+            List<Move> lineMoves = lines.stream().map(PrincipalVariation::move).toList();
+            possibleMoves.removeAll(lineMoves);
+            possibleMoves.addAll(0, lineMoves);
+
+            long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+            if (limits.depth() == 0 && !limits.canStartIteration(elapsedMs, 0)) {
+                break;
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        if (verbose) System.out.println("Multi-PV depth " + bestDepth + " in " + elapsedMs + " ms");
+        if (verbose) printPruningStatistics();
+        return new MultiPvResult(best, bestDepth, nodes, elapsedMs, timeLimitReached);
+    }
+
+    /**
+     * Search all moves of the root to the given depth and collect the best lines, ranked for the player to move.
+     */
+    private void searchRootMultiPv(Board board, List<Move> possibleMoves, int depth, int lineCount,
+                                   List<PrincipalVariation> lines) throws TimeLimitExceededException {
+        boolean maximizing = board.getCurrentPlayer() == 1;
+        Comparator<PrincipalVariation> ranking = maximizing
+                ? Comparator.comparingInt(PrincipalVariation::score).reversed()
+                : Comparator.comparingInt(PrincipalVariation::score);
+
+        for (Move move : possibleMoves) {
+            Board simulatedBoard = board.copy();
+            simulatedBoard.sowSeeds(move.hole(), move.color());
+
+            int score;
+            if (lines.size() < lineCount) {
+                score = minimax(simulatedBoard, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, !maximizing, 1);
+            } else {
+                // A null window search shows whether the move is better than the last line, only then it needs an
+                // exact score
+                int bound = lines.get(lineCount - 1).score();
+                if (bound == (maximizing ? Integer.MAX_VALUE : Integer.MIN_VALUE)) {
+                    continue; // Nothing is better than the last line
+                }
+                int alpha = maximizing ? bound : bound - 1;
+                int beta = maximizing ? bound + 1 : bound;
+                score = minimax(simulatedBoard.copy(), depth, alpha, beta, !maximizing, 1);
+                if (maximizing ? score <= bound : score >= bound) {
+                    continue;
+                }
+                lines.remove(lineCount - 1);
+                score = minimax(simulatedBoard, depth, maximizing ? bound : Integer.MIN_VALUE,
+                        maximizing ? Integer.MAX_VALUE : bound, !maximizing, 1);
+            }
+            lines.add(rootVariation(move, score));
+            lines.sort(ranking);
+        }
+    }
+    
+
+    /**
+     * Minimax with Alpha-Beta pruning, late move reductions and futility pruning (see {@link PruningSettings}).
+     * @param simulatedBoard the current board state
+     * @param depth the remaining search depth
+     * @param alpha the alpha value for pruning
+     * @param beta the beta value for pruning
+     * @param isMaximizing true if it is Player 1's turn (maximize)
+     * @param ply the distance from the root, the principal variation of the node is stored in {@code pvTable[ply]}
+     * @return the evaluation score
+     */
+    private int minimax(Board simulatedBoard, int depth, int alpha, int beta, boolean isMaximizing, int ply) throws TimeLimitExceededException {
+        nodes++;
+        pvLength[ply] = 0;
+        // Base case: depth = 0 or game over
+        if (depth == 0 || simulatedBoard.checkGameStatus().isGameOver()) {
+            return evaluate(simulatedBoard);
+        }
+
+        // Only inner nodes are looked up in the path, hashing every leaf costs more than the repetitions it finds
+        int player = isMaximizing ? 1 : 2;
+        int capturedBefore = simulatedBoard.getPlayer1Seeds() + simulatedBoard.getPlayer2Seeds();
+        long hash = simulatedBoard.hash(player); // The board of a child of the root has the wrong player to move
+        RepetitionRule rule = path.getRule();
+        // A repetition is scored as if the cycle went on until the rule ends the game
+        if (rule.repetitions() > 0 && path.count(hash, capturedBefore) > 0
+                || rule.maxPlies() > 0 && rootTurns + ply >= rule.maxPlies()) {
+            return ruleScore(simulatedBoard, rule);
+        }
+
+        if ((System.nanoTime() - startTime) / 1_000_000 > timeLimitMs
+                || sharedBounds != null && sharedBounds.isStopped()
+                || cancellation != null && cancellation.isCancelled()) {
+            throw new TimeLimitExceededException(); // Algorithmus abbrechen
+        }
+        if (sharedBounds != null) {
+            // The window of the root bounds every node, narrowing it only prunes more
+            alpha = Math.max(alpha, sharedBounds.alpha());
+            beta = Math.min(beta, sharedBounds.beta());
+        }
+
+        // Close to the leaves, a node whose static evaluation is too far outside the window only searches captures
+        int futilityValue = 0;
+        boolean futile = false;
+        if (pruning.futilityPruning() && depth <= pruning.futilityDepth()) {
+            int staticEval = evaluate(simulatedBoard);
+            int margin = pruning.futilityMargin() * depth;
+            // Saturated, since an evaluation may be Integer.MAX_VALUE or MIN_VALUE for a won game
+            futilityValue = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE,
+                    isMaximizing ? (long) staticEval + margin : (long) staticEval - margin));
+            futile = isMaximizing ? futilityValue <= alpha : futilityValue >= beta;
+        }
+
+        int bestEval = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int searchedMoves = 0;
+        path.push(hash, capturedBefore);
+        for (Move move : getAllPossibleMoves(player, simulatedBoard)) {
+            if (!simulatedBoard.hasSeeds(move.hole(), move.color())) {
+                continue;
+            }
+            Board childBoard = simulatedBoard.copy();
+            // Ensure we're setting the correct player before making the move
+            childBoard.forceCurrentPlayer(player);
+            try {
+                childBoard.sowSeeds(move.hole(), move.color());
+            } catch (IllegalArgumentException e) {
+                // Skip invalid moves
+                continue;
+            }
+            childBoard.switchPlayer();
+            boolean quiet = childBoard.getPlayer1Seeds() + childBoard.getPlayer2Seeds() == capturedBefore;
+
+            if (futile && quiet && searchedMoves > 0) {
+                futilityPrunes++;
+                bestEval = isMaximizing ? Math.max(bestEval, futilityValue) : Math.min(bestEval, futilityValue);
+                continue;
+            }
+
+            int eval;
+            if (pruning.lateMoveReductions() && quiet && depth >= pruning.reductionMinDepth()
+                    && searchedMoves >= pruning.fullDepthMoves()) {
+                reductions++;
+                int reducedDepth = Math.max(0, depth - 1 - pruning.reduction());
+                eval = minimax(childBoard.copy(), reducedDepth, alpha, beta, !isMaximizing, ply + 1);
+                // A reduced move which improves the result is searched again at full depth
+                if (isMaximizing ? eval > alpha : eval < beta) {
+                    researches++;
+                    eval = minimax(childBoard, depth - 1, alpha, beta, !isMaximizing, ply + 1);
+                }
+            } else {
+                eval = minimax(childBoard, depth - 1, alpha, beta, !isMaximizing, ply + 1);
+            }
+            searchedMoves++;
+
+            if (isMaximizing ? eval > bestEval : eval < bestEval) {
+                bestEval = eval;
+                updatePrincipalVariation(ply, move);
+            }
+            if (isMaximizing) {
+                alpha = Math.max(alpha, eval);
+            } else {
+                beta = Math.min(beta, eval);
+            }
+            if (alpha >= beta) {
+                break; // Beta cutoff (maximizing) or alpha cutoff (minimizing)
+            }
+        }
+        path.pop();
+        return bestEval;
+    }
+
+    /**
+     * Score a line ended by the repetition rule. An adjudicated game is only won by the captured seeds, not proven won:
+     * the score stays strictly between the scores of won and lost games, so the iterative deepening goes on and a lead
+     * of one seed is not searched like a forced win.
+     */
+    private static int ruleScore(Board board, RepetitionRule rule) {
+        if (rule.resolution() == RepetitionRule.Resolution.DRAW) {
+            return 0;
+        }
+        int seedDifference = board.getPlayer1Seeds() - board.getPlayer2Seeds();
+        return Math.max(-MAX_RULE_SCORE, Math.min(MAX_RULE_SCORE, seedDifference * RULE_SEED_SCORE));
+    }
+
+    /**
+     * Start the search path with the positions of the game up to the root, or with the root alone under the default
+     * rule if the board has no history. A search stopped by the time limit leaves its path behind, so every search
+     * starts a new one.
+     */
+    private void startPath(Board root) {
+        PositionHistory history = root.getHistory();
+        path = history != null ? history.copy() : new PositionHistory(RepetitionRule.DEFAULT);
+        if (path.size() == 0 || path.lastHash() != root.hash()) {
+            path.push(root);
+        }
+        rootTurns = root.getTurns();
+    }
+
+    /**
+     * Store the move followed by the principal variation of its child as the principal variation of the node at the ply.
+     */
+    private void updatePrincipalVariation(int ply, Move move) {
+        pvTable[ply][0] = moveIndex(move);
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    /**
+     * @return the move of the root followed by the principal variation of the last search of its child
+     */
+    private PrincipalVariation rootVariation(Move move, int score) {
+        List<Move> moves = new ArrayList<>();
+        moves.add(move);
+        for (int i = 0; i < pvLength[1]; i++) {
+            int index = pvTable[1][i];
+            moves.add(new Move(index / 2, SeedColor.values()[index % 2]));
+        }
+        return new PrincipalVariation(score, moves);
+    }
+
+    private void printPruningStatistics() {
+        System.out.println("Nodes: " + nodes + ", reduced moves: " + reductions + " (" + researches
+                + " searched again), futility pruned moves: " + futilityPrunes);
+    }
+
+    /**
+     * Evaluate a leaf, looking it up in the evaluation cache first.
+     */
+    private int evaluate(Board board) {
+        if (!config.cacheEvaluations()) {
+            return evaluator.evaluate(board);
+        }
+        long hash = board.hash();
+        long cached = evaluationCache.get(hash);
+        if (cached != EvaluationCache.MISS) {
+            return (int) cached;
+        }
+        int evaluation = evaluator.evaluate(board);
+        evaluationCache.put(hash, evaluation);
+        return evaluation;
+    }
+
+    /**
+     * Generate all possible moves of a player in the order of the configured {@link MoveOrdering}.
+     */
+    private List<Move> getAllPossibleMoves(int player, Board board) {
+        return config.ordering().orderedMoves(player, board);
+    }
+
+    private static int moveIndex(Move move) {
+        return 2 * move.hole() + move.color().ordinal();
+    }
+}
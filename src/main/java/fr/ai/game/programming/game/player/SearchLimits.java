@@ -0,0 +1,62 @@
+package fr.ai.game.programming.game.player;
+
+/**
+ * Limits of a single AI search.
+ *
+ * @param depth           the search depth, 0 lets the AIManager choose the depth itself
+ * @param timeLimitMs     the time after which the search is aborted and the best move found so far is returned
+ * @param softTimeLimitMs the time after which an iteratively deepening search starts no new iteration, see
+ *                        {@link #canStartIteration(long, int)}. Equal to the time limit unless the time is managed
+ *                        by a {@link TimeManager}.
+ */
+public record SearchLimits(int depth, long timeLimitMs, long softTimeLimitMs) {
+
+    public SearchLimits {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Invalid search depth: " + depth);
+        }
+        if (timeLimitMs <= 0) {
+            throw new IllegalArgumentException("Invalid time limit: " + timeLimitMs);
+        }
+        if (softTimeLimitMs <= 0 || softTimeLimitMs > timeLimitMs) {
+            throw new IllegalArgumentException("Invalid soft time limit: " + softTimeLimitMs);
+        }
+    }
+
+    public SearchLimits(int depth, long timeLimitMs) {
+        this(depth, timeLimitMs, timeLimitMs);
+    }
+
+    /**
+     * Search to a fixed depth without a time limit.
+     */
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Search with the AIManagers own depth but within the given time.
+     */
+    public static SearchLimits ofTime(long timeLimitMs) {
+        return new SearchLimits(0, timeLimitMs);
+    }
+
+    /**
+     * @return true if the search should deepen iteratively until the soft time limit instead of using a fixed depth
+     */
+    public boolean isTimeManaged() {
+        return depth == 0 && softTimeLimitMs < timeLimitMs;
+    }
+
+    /**
+     * Decide whether an iteratively deepening search starts its next iteration. An iteration usually takes longer than
+     * all previous ones together, so it is only started within the first half of the soft time limit. The longer the
+     * best move stays the same, the less time is given to the search.
+     * @param elapsedMs the time spent on the search so far
+     * @param stableIterations the number of finished iterations in a row that did not change the best move
+     */
+    public boolean canStartIteration(long elapsedMs, int stableIterations) {
+        double share = stableIterations >= 4 ? 0.15 : stableIterations >= 2 ? 0.3 : 0.5;
+        return elapsedMs < softTimeLimitMs * share;
+    }
+}
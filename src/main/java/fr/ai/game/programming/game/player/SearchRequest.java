@@ -0,0 +1,57 @@
+package fr.ai.game.programming.game.player;
+
+import java.util.function.Consumer;
+
+/**
+ * An asynchronous search, see {@link AIManager#findMoveAsync}.
+ *
+ * @param limits        the depth and time limits of the search, counted from its start
+ * @param deadlineNanos the {@link System#nanoTime()} by which the search must have ended, whenever it starts, or
+ *                      {@link Long#MAX_VALUE} for none. The time the search waits for a thread counts against it.
+ * @param cancellation  stops the search early with the best move found so far
+ * @param progress      called on the search thread with the best move after every completed depth, and with the
+ *                      final result if the search does not deepen
+ */
+public record SearchRequest(SearchLimits limits, long deadlineNanos, CancellationToken cancellation,
+                            Consumer<SearchResult> progress) {
+
+    private static final Consumer<SearchResult> NO_PROGRESS = result -> { };
+
+    public SearchRequest {
+        if (limits == null || cancellation == null || progress == null) {
+            throw new IllegalArgumentException("Incomplete search request");
+        }
+    }
+
+    /**
+     * A search within the limits, without deadline, cancelled only by its future and without progress callbacks.
+     */
+    public static SearchRequest of(SearchLimits limits) {
+        return new SearchRequest(limits, Long.MAX_VALUE, new CancellationToken(), NO_PROGRESS);
+    }
+
+    public SearchRequest withDeadline(long deadlineNanos) {
+        return new SearchRequest(limits, deadlineNanos, cancellation, progress);
+    }
+
+    public SearchRequest withCancellation(CancellationToken cancellation) {
+        return new SearchRequest(limits, deadlineNanos, cancellation, progress);
+    }
+
+    public SearchRequest withProgress(Consumer<SearchResult> progress) {
+        return new SearchRequest(limits, deadlineNanos, cancellation, progress);
+    }
+
+    /**
+     * @param nowNanos the {@link System#nanoTime()} at the start of the search
+     * @return the limits of a search starting now, the time limits cut to the deadline
+     */
+    public SearchLimits limitsAt(long nowNanos) {
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return limits;
+        }
+        long remainingMs = Math.max(1, (deadlineNanos - nowNanos) / 1_000_000);
+        return new SearchLimits(limits.depth(), Math.min(limits.timeLimitMs(), remainingMs),
+                Math.min(limits.softTimeLimitMs(), remainingMs));
+    }
+}
@@ -0,0 +1,21 @@
+package fr.ai.game.programming.game.player;
+
+/**
+ * Result of an AI search.
+ *
+ * @param move              the best move found
+ * @param score             the minimax score of the move, from Player 1's perspective (positive is good for Player 1)
+ * @param depth             the depth that was searched, 0 if the outcome was proven by {@link ProofNumberSearch}
+ * @param nodes             the number of positions visited
+ * @param timeMs            the wall-clock time of the search in milliseconds
+ * @param timeLimitReached  true if the search was aborted by the time limit
+ */
+public record SearchResult(Move move, int score, int depth, long nodes, long timeMs, boolean timeLimitReached) {
+
+    /**
+     * @return the number of positions visited per second
+     */
+    public long nodesPerSecond() {
+        return timeMs == 0 ? nodes * 1000 : nodes * 1000 / timeMs;
+    }
+}
@@ -0,0 +1,63 @@
+package fr.ai.game.programming.game.player;
+
+import fr.ai.game.programming.game.elements.Board;
+
+/**
+ * Divides the time on a player's game clock between the moves.
+ * <p>
+ * The base time of a move is the remaining time divided by an estimate of the moves still to play, plus most of the
+ * increment. It is scaled by the phase of the game: the middlegame, where most seeds are captured, gets more time
+ * than the opening. Positions with only a few moves get less, and a forced move is played at once. The result is a
+ * soft limit for an iteratively deepening search, which stops even earlier when the best move is stable (see
+ * {@link SearchLimits#canStartIteration(long, int)}), and a hard limit of a few times the soft limit which aborts the
+ * search.
+ */
+public class TimeManager {
+
+    private static final long MOVE_OVERHEAD_MS = 20;   // Kept in reserve for everything around the search
+    private static final long FORCED_MOVE_MS = 50;
+    private static final int MIN_MOVES_TO_GO = 8;
+    private static final int MAX_MOVES_TO_GO = 32;
+    private static final double OPENING_FACTOR = 0.7;     // More than 52 seeds on the board
+    private static final double MIDDLEGAME_FACTOR = 1.6;  // 24 to 52 seeds on the board
+    private static final double FEW_MOVES_FACTOR = 0.5;   // Three legal moves or less
+    private static final double HARD_LIMIT_FACTOR = 3;
+    private static final double MAX_SHARE_OF_REMAINING = 0.25;
+
+    /**
+     * Compute the limits of the search for the next move.
+     * @param board the position, with the player to move
+     * @param remainingMs the remaining time on the clock of the player to move
+     * @param incrementMs the time added to the clock after the move
+     */
+    public SearchLimits allocate(Board board, long remainingMs, long incrementMs) {
+        long available = Math.max(1, remainingMs - MOVE_OVERHEAD_MS);
+        int legalMoves = countLegalMoves(board);
+        if (legalMoves <= 1) {
+            return new SearchLimits(1, Math.min(available, FORCED_MOVE_MS));
+        }
+
+        int seedsOnBoard = board.totalSeeds();
+        // Most moves capture seeds in the second half of the game, so the seeds on the board estimate the moves left
+        int movesToGo = Math.max(MIN_MOVES_TO_GO, Math.min(MAX_MOVES_TO_GO, seedsOnBoard / 2));
+        double soft = (double) available / movesToGo + incrementMs * 0.75;
+
+        if (seedsOnBoard > 52) {
+            soft *= OPENING_FACTOR;
+        } else if (seedsOnBoard >= 24) {
+            soft *= MIDDLEGAME_FACTOR;
+        }
+        if (legalMoves <= 3) {
+            soft *= FEW_MOVES_FACTOR;
+        }
+
+        long hard = (long) Math.min(soft * HARD_LIMIT_FACTOR, available * MAX_SHARE_OF_REMAINING + incrementMs);
+        hard = Math.max(1, Math.min(hard, available));
+        long softLimit = Math.max(1, Math.min((long) soft, hard - 1));
+        return new SearchLimits(0, Math.max(hard, softLimit + 1), softLimit);
+    }
+
+    private static int countLegalMoves(Board board) {
+        return board.countMoves(board.getCurrentPlayer());
+    }
+}
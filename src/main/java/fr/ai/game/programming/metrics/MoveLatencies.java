@@ -0,0 +1,157 @@
+package fr.ai.game.programming.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Distribution of the time the AIs take for a move, in microseconds, with one {@link LatencyHistogram} per AI and
+ * game phase. The phase is given by the seeds left on the board, in steps of 16 seeds: the searches of the opening, the
+ * middlegame and the endgame take very different times, so an average over a whole game hides the slow moves.
+ * Recording is lock-free after the first move of an AI and can be done from any number of threads.
+ */
+public class MoveLatencies {
+
+    private static final int SEEDS_PER_PHASE = 16;
+    private static final String[] PHASES = {"0-16", "17-32", "33-48", "49-64"}; // Seeds on the board
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final MoveLatencies GLOBAL = new MoveLatencies();
+
+    // Histograms of every AI by phase, sorted by the name of the AI
+    private final Map<String, LatencyHistogram[]> histograms = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return the latencies recorded by the AI players of all games of this process
+     */
+    public static MoveLatencies global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Record the time of a move.
+     * @param ai the name of the AI, its difficulty
+     * @param seedsOnBoard the seeds on the board when the AI started to search
+     * @param micros the wall-clock time of the move in microseconds
+     */
+    public void record(String ai, int seedsOnBoard, long micros) {
+        histograms.computeIfAbsent(ai, name -> newHistograms())[phase(seedsOnBoard)].record(micros);
+    }
+
+    /**
+     * @return the phase of a position, the index of its seed range in {@link #PHASES}
+     */
+    private static int phase(int seedsOnBoard) {
+        return Math.min(PHASES.length - 1, Math.max(0, seedsOnBoard - 1) / SEEDS_PER_PHASE);
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        return phases;
+    }
+
+    public boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    /**
+     * @return the latencies of an AI in all phases, empty if it has not moved yet
+     */
+    public LatencyHistogram getHistogram(String ai) {
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram[] phases = histograms.get(ai);
+        if (phases != null) {
+            for (LatencyHistogram phase : phases) {
+                total.add(phase);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the latencies of an AI in the phase of a position, empty if it has not moved in that phase yet
+     */
+    public LatencyHistogram getHistogram(String ai, int seedsOnBoard) {
+        LatencyHistogram[] phases = histograms.get(ai);
+        return phases == null ? new LatencyHistogram() : phases[phase(seedsOnBoard)];
+    }
+
+    /**
+     * Forget all recorded moves, e.g. before a new tournament.
+     */
+    public void clear() {
+        histograms.clear();
+    }
+
+    /**
+     * One row of the report: the latencies of an AI in one phase, or in all phases.
+     *
+     * @param ai        the name of the AI
+     * @param phase     the seeds on the board, e.g. "17-32", or "all"
+     * @param histogram the latencies
+     */
+    public record Row(String ai, String phase, LatencyHistogram histogram) {
+    }
+
+    /**
+     * @return for every AI a row with all its moves followed by a row for every phase it moved in, from the endgame
+     *         to the opening
+     */
+    public List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram[]> entry : histograms.entrySet()) {
+            rows.add(new Row(entry.getKey(), "all", getHistogram(entry.getKey())));
+            LatencyHistogram[] phases = entry.getValue();
+            for (int i = 0; i < phases.length; i++) {
+                if (phases[i].getCount() > 0) {
+                    rows.add(new Row(entry.getKey(), PHASES[i], phases[i]));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return a table of the percentiles of every row in milliseconds, for the console
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-16s %-6s %7s %9s %9s %9s %9s %9s%n",
+                "AI", "seeds", "moves", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Row row : rows()) {
+            LatencyHistogram histogram = row.histogram();
+            report.append(String.format(Locale.ROOT, "%-16s %-6s %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    row.ai(), row.phase(), histogram.getCount(), histogram.getMean() / 1000,
+                    histogram.getValueAtPercentile(PERCENTILES[0]) / 1000.0,
+                    histogram.getValueAtPercentile(PERCENTILES[1]) / 1000.0,
+                    histogram.getValueAtPercentile(PERCENTILES[2]) / 1000.0, histogram.getMax() / 1000.0));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the percentiles of every row in microseconds as CSV:
+     * {@code ai,seeds,moves,mean_us,p50_us,p90_us,p99_us,max_us}.
+     */
+    public void writeCsv(Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("ai,seeds,moves,mean_us,p50_us,p90_us,p99_us,max_us\n");
+        for (Row row : rows()) {
+            LatencyHistogram histogram = row.histogram();
+            csv.append(row.ai()).append(',').append(row.phase()).append(',').append(histogram.getCount())
+                    .append(',').append(Math.round(histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                csv.append(',').append(histogram.getValueAtPercentile(percentile));
+            }
+            csv.append(',').append(histogram.getMax()).append('\n');
+        }
+        Files.writeString(file, csv.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package fr.ai.game.programming.neural;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.BoardObserver;
+
+/**
+ * First layer of a {@link NeuralNetwork} for one board, kept up to date while seeds are sown and captured. A move
+ * changes only a few inputs, so updating the accumulator costs a few vector additions instead of the full first layer.
+ */
+public final class NeuralAccumulator implements BoardObserver {
+
+    private final NeuralNetwork network;
+    private final int[] values;
+
+    /**
+     * Create the accumulator of the given position. Attach it with {@link Board#setObserver(BoardObserver)}.
+     */
+    public NeuralAccumulator(NeuralNetwork network, Board board) {
+        this.network = network;
+        this.values = new int[NeuralNetwork.HIDDEN1];
+        network.refresh(values, board);
+    }
+
+    private NeuralAccumulator(NeuralNetwork network, int[] values) {
+        this.network = network;
+        this.values = values;
+    }
+
+    public NeuralNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * @return the evaluation of the current position from Player 1's perspective
+     */
+    public int evaluate() {
+        return network.evaluate(values);
+    }
+
+    @Override
+    public void seedsChanged(int hole, int color, int delta) {
+        network.addInput(values, 2 * hole + color, delta);
+    }
+
+    @Override
+    public void capturedSeedsChanged(int player, int delta) {
+        network.addInput(values, player == 1 ? NeuralNetwork.PLAYER1_SEEDS_INPUT : NeuralNetwork.PLAYER2_SEEDS_INPUT, delta);
+    }
+
+    @Override
+    public void currentPlayerChanged(int previousPlayer, int currentPlayer) {
+        network.addInput(values, NeuralNetwork.PLAYER2_TO_MOVE_INPUT, currentPlayer == 2 ? 1 : -1);
+    }
+
+    @Override
+    public NeuralAccumulator copy() {
+        return new NeuralAccumulator(network, values.clone());
+    }
+}
@@ -0,0 +1,126 @@
+package fr.ai.game.programming.neural;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.player.BoardEvaluator;
+import fr.ai.game.programming.game.player.Move;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the speed of the neural evaluation with {@link Board#evaluateBoardHeuristicUltimate()}.
+ * <p>
+ * Every measurement plays one move on a copy of a position and evaluates the resulting position, like at the leaves of
+ * a search. The neural evaluation is measured twice: with a full forward pass, and with the accumulator copied and
+ * updated together with the board.
+ */
+public class NeuralBenchmark {
+
+    private final List<Board> positions = new ArrayList<>();
+    private final List<Move> moves = new ArrayList<>();
+
+    /**
+     * Sample positions from random games.
+     */
+    public NeuralBenchmark(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        while (positions.size() < count) {
+            Board board = new Board();
+            while (positions.size() < count && !board.copy().checkGameStatus().isGameOver()) {
+                List<Move> legalMoves = new ArrayList<>();
+                int player = board.getCurrentPlayer();
+                for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+                    int bit = Integer.numberOfTrailingZeros(mask);
+                    legalMoves.add(new Move(Board.moveHole(player, bit), Board.moveColor(bit)));
+                }
+                Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+                positions.add(board.copy());
+                moves.add(move);
+                board.sowSeeds(move.hole(), move.color());
+                board.switchPlayer();
+            }
+        }
+    }
+
+    /**
+     * @return the mean time of a move and an evaluation in nanoseconds
+     */
+    private double measure(List<Board> roots, BoardEvaluator evaluator, long[] sink) {
+        long start = System.nanoTime();
+        for (int i = 0; i < roots.size(); i++) {
+            Board child = roots.get(i).copy();
+            child.sowSeeds(moves.get(i).hole(), moves.get(i).color());
+            child.switchPlayer();
+            sink[0] += evaluator.evaluate(child);
+        }
+        return (double) (System.nanoTime() - start) / roots.size();
+    }
+
+    /**
+     * Run the benchmark and print the results.
+     * @param rounds the number of measurements of every evaluation, the first ones warm up the JIT compiler
+     */
+    public void run(NeuralNetwork network, int rounds) {
+        NeuralEvaluator neural = new NeuralEvaluator(network);
+        List<Board> prepared = positions.stream().map(neural::prepare).toList();
+
+        // The incremental evaluation must give exactly the results of the full forward pass
+        int mismatches = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            Board incremental = prepared.get(i).copy();
+            Board full = positions.get(i).copy();
+            for (Board board : List.of(incremental, full)) {
+                board.sowSeeds(moves.get(i).hole(), moves.get(i).color());
+                board.switchPlayer();
+            }
+            if (neural.evaluate(incremental) != neural.evaluate(full)) {
+                mismatches++;
+            }
+        }
+
+        long[] sink = new long[1];
+        double moveOnly = Double.MAX_VALUE;
+        double heuristic = Double.MAX_VALUE;
+        double fullPass = Double.MAX_VALUE;
+        double incremental = Double.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            moveOnly = Math.min(moveOnly, measure(positions, board -> 0, sink));
+            heuristic = Math.min(heuristic, measure(positions, BoardEvaluator.ULTIMATE_HEURISTIC, sink));
+            fullPass = Math.min(fullPass, measure(positions, neural, sink));
+            incremental = Math.min(incremental, measure(prepared, neural, sink));
+        }
+
+        System.out.printf(Locale.ROOT, "%d positions, best of %d rounds (move + evaluation):%n", positions.size(), rounds);
+        System.out.printf(Locale.ROOT, "  Move only                 %8.1f ns%n", moveOnly);
+        System.out.printf(Locale.ROOT, "  Ultimate heuristic        %8.1f ns%n", heuristic);
+        System.out.printf(Locale.ROOT, "  Network, full pass        %8.1f ns%n", fullPass);
+        System.out.printf(Locale.ROOT, "  Network, incremental      %8.1f ns%n", incremental);
+        System.out.println("Incremental and full evaluations differ in " + mismatches + " positions (checksum " + sink[0] + ").");
+    }
+
+    /**
+     * Run the benchmark from the command line: {@code bench-eval [--network FILE] [--positions N] [--rounds N]}.
+     * Without a network file a random network is measured, which is as fast as a trained one.
+     */
+    public static void run(String[] args) throws IOException {
+        Path file = null;
+        int count = 200_000;
+        int rounds = 10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--network" -> file = Path.of(args[++i]);
+                case "--positions" -> count = Integer.parseInt(args[++i]);
+                case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        NeuralNetwork network = file != null ? NeuralNetwork.load(file) : NeuralNetwork.random(42);
+        new NeuralBenchmark(count, 42).run(network, rounds);
+    }
+}
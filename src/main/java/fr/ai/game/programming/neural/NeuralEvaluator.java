@@ -0,0 +1,83 @@
+package fr.ai.game.programming.neural;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.player.BoardEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Evaluates positions with a {@link NeuralNetwork}. The root of every search gets a {@link NeuralAccumulator}, which
+ * is copied and updated together with the simulated boards, so a leaf only runs the dense layers.
+ * <p>
+ * The configured network is loaded once from the file given by the system property {@code awale.network}, or from
+ * {@code awale-network.bin} in the working directory. Without a network the heuristic evaluation is used.
+ */
+public class NeuralEvaluator implements BoardEvaluator {
+
+    public static final String NETWORK_PROPERTY = "awale.network";
+    public static final String DEFAULT_NETWORK_FILE = "awale-network.bin";
+
+    private static BoardEvaluator configured;
+
+    private final NeuralNetwork network;
+
+    public NeuralEvaluator(NeuralNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public Board prepare(Board board) {
+        Board root = board.copy();
+        root.setObserver(new NeuralAccumulator(network, root));
+        return root;
+    }
+
+    @Override
+    public int evaluate(Board board) {
+        GameStatus status = board.checkGameStatus();
+        if (status.isGameOver()) {
+            return status.getWinner() == 1 ? 100000 : status.getWinner() == 2 ? -100000 : 0;
+        }
+        // Boards which were not derived from a prepared root fall back to a full forward pass
+        if (board.getObserver() instanceof NeuralAccumulator accumulator && accumulator.getNetwork() == network) {
+            return accumulator.evaluate();
+        }
+        return network.evaluate(board);
+    }
+
+    @Override
+    public long fingerprint() {
+        return 0x4E455552414C0000L ^ network.fingerprint(); // "NEURAL"
+    }
+
+    /**
+     * @return the evaluator of the configured network, or {@link BoardEvaluator#ULTIMATE_HEURISTIC} if no network is
+     * configured or it cannot be loaded
+     */
+    public static synchronized BoardEvaluator getConfigured() {
+        if (configured == null) {
+            configured = loadConfigured();
+        }
+        return configured;
+    }
+
+    private static BoardEvaluator loadConfigured() {
+        String property = System.getProperty(NETWORK_PROPERTY);
+        Path file = Path.of(property != null ? property : DEFAULT_NETWORK_FILE);
+        if (property == null && !Files.exists(file)) {
+            return ULTIMATE_HEURISTIC;
+        }
+        try {
+            return new NeuralEvaluator(NeuralNetwork.load(file));
+        } catch (IOException e) {
+            System.out.println("Could not load the evaluation network, using the heuristic: " + e.getMessage());
+        } catch (NoClassDefFoundError e) {
+            System.out.println("The evaluation network needs the Vector API, start the JVM with "
+                    + "--add-modules jdk.incubator.vector. Using the heuristic.");
+        }
+        return ULTIMATE_HEURISTIC;
+    }
+}
@@ -0,0 +1,281 @@
+package fr.ai.game.programming.neural;
+
+import fr.ai.game.programming.game.elements.Board;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Small quantised network evaluating a position from Player 1's perspective.
+ * <p>
+ * Inputs: the seed count of every (hole, color) pair, the seeds captured by both players and whether Player 2 is to
+ * move ({@value #INPUTS} values). The first layer is kept in a {@link NeuralAccumulator}, which is updated when the
+ * board changes, so a leaf only pays for the two small dense layers. Every value is an integer at a fixed scale:
+ * <pre>
+ *   accumulator = b1 + W1 * inputs                         scale 64, int16 weights
+ *   hidden1     = clamp(accumulator, 0, 127)               scale 64
+ *   hidden2     = clamp((b2 + W2 * hidden1) >> 6, 0, 127)   scale 64, int8 weights
+ *   output      = b3 + W3 * hidden2                        scale 4096, int16 weights
+ * </pre>
+ * The output is a win probability logit for Player 1, multiplied by {@value #SCORE_SCALE} to match the units of the
+ * heuristic evaluation. The dense layers run on the CPU's SIMD lanes with the Vector API, so the JVM must be started
+ * with {@code --add-modules jdk.incubator.vector}.
+ */
+public final class NeuralNetwork {
+
+    public static final int INPUTS = 2 * TOTAL_HOLES + 3;
+    public static final int HIDDEN1 = 32;
+    public static final int HIDDEN2 = 16;
+
+    public static final int PLAYER1_SEEDS_INPUT = 2 * TOTAL_HOLES;
+    public static final int PLAYER2_SEEDS_INPUT = 2 * TOTAL_HOLES + 1;
+    public static final int PLAYER2_TO_MOVE_INPUT = 2 * TOTAL_HOLES + 2;
+
+    public static final int WEIGHT_SCALE = 64;  // Fixed point scale of the weights and activations
+    public static final int ACTIVATION_MAX = 127;
+    public static final int SCORE_SCALE = 200; // Evaluation units per unit of the output logit
+
+    private static final byte[] MAGIC = {'A', 'W', 'N', 'N'};
+    private static final int VERSION = 1;
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final int[] inputWeights;   // INPUTS rows of HIDDEN1 weights
+    private final int[] inputBiases;    // HIDDEN1
+    private final int[] hiddenWeights;  // HIDDEN1 rows of HIDDEN2 weights
+    private final int[] hiddenBiases;   // HIDDEN2
+    private final int[] outputWeights;  // HIDDEN2
+    private final int outputBias;
+
+    /**
+     * Create a network from quantised weights, see the class description for the layout and scales.
+     */
+    public NeuralNetwork(int[] inputWeights, int[] inputBiases, int[] hiddenWeights, int[] hiddenBiases,
+                         int[] outputWeights, int outputBias) {
+        check(inputWeights, INPUTS * HIDDEN1, Short.MIN_VALUE, Short.MAX_VALUE, "input weights");
+        check(inputBiases, HIDDEN1, Short.MIN_VALUE, Short.MAX_VALUE, "input biases");
+        check(hiddenWeights, HIDDEN1 * HIDDEN2, Byte.MIN_VALUE, Byte.MAX_VALUE, "hidden weights");
+        check(hiddenBiases, HIDDEN2, Integer.MIN_VALUE, Integer.MAX_VALUE, "hidden biases");
+        check(outputWeights, HIDDEN2, Short.MIN_VALUE, Short.MAX_VALUE, "output weights");
+        this.inputWeights = inputWeights.clone();
+        this.inputBiases = inputBiases.clone();
+        this.hiddenWeights = hiddenWeights.clone();
+        this.hiddenBiases = hiddenBiases.clone();
+        this.outputWeights = outputWeights.clone();
+        this.outputBias = outputBias;
+    }
+
+    private static void check(int[] values, int length, int min, int max, String name) {
+        if (values.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " " + name + " but got " + values.length);
+        }
+        for (int value : values) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException("Quantised " + name + " out of range: " + value);
+            }
+        }
+    }
+
+    /**
+     * Create a network with random weights, e.g. to measure the speed of the evaluation without a trained network.
+     */
+    public static NeuralNetwork random(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new NeuralNetwork(
+                random.ints(INPUTS * HIDDEN1, -32, 33).toArray(),
+                random.ints(HIDDEN1, -64, 65).toArray(),
+                random.ints(HIDDEN1 * HIDDEN2, -64, 65).toArray(),
+                random.ints(HIDDEN2, -4096, 4097).toArray(),
+                random.ints(HIDDEN2, -64, 65).toArray(),
+                0);
+    }
+
+    /* ------------------------------------------------- Inference ------------------------------------------------- */
+
+    /**
+     * Set the accumulator to the first layer of the given position.
+     * @param accumulator the {@value #HIDDEN1} values of the first layer
+     */
+    void refresh(int[] accumulator, Board board) {
+        System.arraycopy(inputBiases, 0, accumulator, 0, HIDDEN1);
+        int[][] holes = board.getHoles();
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            addInput(accumulator, 2 * hole, holes[hole][0]);
+            addInput(accumulator, 2 * hole + 1, holes[hole][1]);
+        }
+        addInput(accumulator, PLAYER1_SEEDS_INPUT, board.getPlayer1Seeds());
+        addInput(accumulator, PLAYER2_SEEDS_INPUT, board.getPlayer2Seeds());
+        addInput(accumulator, PLAYER2_TO_MOVE_INPUT, board.getCurrentPlayer() == 2 ? 1 : 0);
+    }
+
+    /**
+     * Add the weights of an input, multiplied by the change of the input, to the accumulator.
+     */
+    void addInput(int[] accumulator, int input, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int row = input * HIDDEN1;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(HIDDEN1); i < bound; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, inputWeights, row + i)
+                    .mul(delta)
+                    .add(IntVector.fromArray(SPECIES, accumulator, i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < HIDDEN1; i++) {
+            accumulator[i] += delta * inputWeights[row + i];
+        }
+    }
+
+    /**
+     * Run the dense layers on an accumulator.
+     * @return the evaluation from Player 1's perspective
+     */
+    int evaluate(int[] accumulator) {
+        // Hidden layer 2: add every clamped accumulator value times its weight row to the HIDDEN2 sums
+        int[] sums = hiddenBiases.clone();
+        for (int j = 0; j < HIDDEN1; j++) {
+            int activation = Math.min(Math.max(accumulator[j], 0), ACTIVATION_MAX);
+            if (activation == 0) {
+                continue;
+            }
+            int row = j * HIDDEN2;
+            int i = 0;
+            for (int bound = SPECIES.loopBound(HIDDEN2); i < bound; i += SPECIES.length()) {
+                IntVector.fromArray(SPECIES, hiddenWeights, row + i)
+                        .mul(activation)
+                        .add(IntVector.fromArray(SPECIES, sums, i))
+                        .intoArray(sums, i);
+            }
+            for (; i < HIDDEN2; i++) {
+                sums[i] += activation * hiddenWeights[row + i];
+            }
+        }
+
+        // Output: clamp the hidden values back to the activation scale and take the dot product with the output weights
+        long output = outputBias;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(HIDDEN2); i < bound; i += SPECIES.length()) {
+            IntVector hidden = IntVector.fromArray(SPECIES, sums, i)
+                    .lanewise(VectorOperators.ASHR, 6)
+                    .max(0)
+                    .min(ACTIVATION_MAX);
+            output += hidden.mul(IntVector.fromArray(SPECIES, outputWeights, i)).reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < HIDDEN2; i++) {
+            output += (long) Math.min(Math.max(sums[i] >> 6, 0), ACTIVATION_MAX) * outputWeights[i];
+        }
+        return (int) (output * SCORE_SCALE / (WEIGHT_SCALE * WEIGHT_SCALE));
+    }
+
+    /**
+     * Evaluate a position with a full forward pass, without an accumulator.
+     * @return the evaluation from Player 1's perspective
+     */
+    public int evaluate(Board board) {
+        int[] accumulator = new int[HIDDEN1];
+        refresh(accumulator, board);
+        return evaluate(accumulator);
+    }
+
+    /**
+     * @return a 64-bit hash of all weights and biases, equal in every process for equal networks
+     */
+    public long fingerprint() {
+        long fingerprint = 0xCBF29CE484222325L; // FNV-1a
+        for (int[] values : new int[][] {inputWeights, inputBiases, hiddenWeights, hiddenBiases, outputWeights, {outputBias}}) {
+            for (int value : values) {
+                fingerprint = (fingerprint ^ value) * 0x100000001B3L;
+            }
+        }
+        return fingerprint;
+    }
+
+    /* --------------------------------------------------- Files --------------------------------------------------- */
+
+    /**
+     * Load a network written by {@link #save(Path)}.
+     */
+    public static NeuralNetwork load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a network file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported network version " + version + " in " + file);
+            }
+            int inputs = in.readInt();
+            int hidden1 = in.readInt();
+            int hidden2 = in.readInt();
+            if (inputs != INPUTS || hidden1 != HIDDEN1 || hidden2 != HIDDEN2) {
+                throw new IOException("Unsupported network size " + inputs + "x" + hidden1 + "x" + hidden2 + " in " + file);
+            }
+            int[] inputWeights = readShorts(in, INPUTS * HIDDEN1);
+            int[] inputBiases = readShorts(in, HIDDEN1);
+            int[] hiddenWeights = new int[HIDDEN1 * HIDDEN2];
+            for (int i = 0; i < hiddenWeights.length; i++) {
+                hiddenWeights[i] = in.readByte();
+            }
+            int[] hiddenBiases = new int[HIDDEN2];
+            for (int i = 0; i < HIDDEN2; i++) {
+                hiddenBiases[i] = in.readInt();
+            }
+            int[] outputWeights = readShorts(in, HIDDEN2);
+            int outputBias = in.readInt();
+            return new NeuralNetwork(inputWeights, inputBiases, hiddenWeights, hiddenBiases, outputWeights, outputBias);
+        }
+    }
+
+    private static int[] readShorts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readShort();
+        }
+        return values;
+    }
+
+    /**
+     * Write the network in its binary format: the magic "AWNN", the version and the layer sizes, followed by the
+     * quantised weights and biases of the three layers (big-endian).
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(INPUTS);
+            out.writeInt(HIDDEN1);
+            out.writeInt(HIDDEN2);
+            for (int weight : inputWeights) {
+                out.writeShort(weight);
+            }
+            for (int bias : inputBiases) {
+                out.writeShort(bias);
+            }
+            for (int weight : hiddenWeights) {
+                out.writeByte(weight);
+            }
+            for (int bias : hiddenBiases) {
+                out.writeInt(bias);
+            }
+            for (int weight : outputWeights) {
+                out.writeShort(weight);
+            }
+            out.writeInt(outputBias);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package fr.ai.game.programming.neural;
+
+import fr.ai.game.programming.training.TrainingDataReader;
+import fr.ai.game.programming.training.TrainingSample;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static fr.ai.game.programming.neural.NeuralNetwork.ACTIVATION_MAX;
+import static fr.ai.game.programming.neural.NeuralNetwork.HIDDEN1;
+import static fr.ai.game.programming.neural.NeuralNetwork.HIDDEN2;
+import static fr.ai.game.programming.neural.NeuralNetwork.INPUTS;
+import static fr.ai.game.programming.neural.NeuralNetwork.SCORE_SCALE;
+import static fr.ai.game.programming.neural.NeuralNetwork.WEIGHT_SCALE;
+
+/**
+ * Trains a {@link NeuralNetwork} on the samples written by the self-play pipeline (see the training package).
+ * <p>
+ * The target of every sample is the mean of the game result (1 if Player 1 won, 0.5 for a draw, 0 if Player 2 won)
+ * and the win probability of its search score, {@code sigmoid(score / SCORE_SCALE)}. The network is trained in floating
+ * point with Adam on the logistic loss, with the activations clamped and the weights bounded exactly like the
+ * quantised network, so quantising the result changes the evaluation only by rounding.
+ */
+public class NeuralTrainer {
+
+    private static final double MAX_ACTIVATION = (double) ACTIVATION_MAX / WEIGHT_SCALE;
+    private static final double MAX_WIDE_WEIGHT = (double) Short.MAX_VALUE / WEIGHT_SCALE;  // int16 layers
+    private static final double MAX_NARROW_WEIGHT = (double) Byte.MAX_VALUE / WEIGHT_SCALE; // int8 layer
+    private static final int BATCH_SIZE = 256;
+
+    private final float[] inputs;  // INPUTS values per sample
+    private final float[] targets;
+    private final int samples;
+
+    // Weights and biases of the three layers, laid out like in NeuralNetwork, with their gradients and Adam moments
+    private final double[][] parameters = {
+            new double[INPUTS * HIDDEN1], new double[HIDDEN1],
+            new double[HIDDEN1 * HIDDEN2], new double[HIDDEN2],
+            new double[HIDDEN2], new double[1]};
+    private final double[] bounds = {
+            MAX_WIDE_WEIGHT, MAX_WIDE_WEIGHT,
+            MAX_NARROW_WEIGHT, Double.MAX_VALUE,
+            MAX_WIDE_WEIGHT, Double.MAX_VALUE};
+    private final double[][] gradients = new double[parameters.length][];
+    private final double[][] firstMoments = new double[parameters.length][];
+    private final double[][] secondMoments = new double[parameters.length][];
+    private int step;
+
+    private NeuralTrainer(float[] inputs, float[] targets, long seed) {
+        this.inputs = inputs;
+        this.targets = targets;
+        this.samples = targets.length;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int p = 0; p < parameters.length; p++) {
+            gradients[p] = new double[parameters[p].length];
+            firstMoments[p] = new double[parameters[p].length];
+            secondMoments[p] = new double[parameters[p].length];
+        }
+        initialize(parameters[0], random, 0.05);
+        initialize(parameters[2], random, 1.0 / Math.sqrt(HIDDEN1));
+        initialize(parameters[4], random, 1.0 / Math.sqrt(HIDDEN2));
+        Arrays.fill(parameters[1], 0.5); // Start inside the active range of the clamped activations
+        Arrays.fill(parameters[3], 0.5);
+    }
+
+    private static void initialize(double[] weights, SplittableRandom random, double range) {
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = random.nextDouble(-range, range);
+        }
+    }
+
+    /**
+     * Read all samples of a directory written by the self-play pipeline.
+     */
+    public static NeuralTrainer fromDirectory(Path directory, long seed) throws IOException {
+        List<TrainingSample> read = new ArrayList<>();
+        try (TrainingDataReader reader = TrainingDataReader.ofDirectory(directory)) {
+            reader.forEachRemaining(read::add);
+        }
+        if (read.isEmpty()) {
+            throw new IllegalArgumentException("No training samples in " + directory);
+        }
+
+        float[] inputs = new float[read.size() * INPUTS];
+        float[] targets = new float[read.size()];
+        for (int i = 0; i < read.size(); i++) {
+            TrainingSample sample = read.get(i);
+            int offset = i * INPUTS;
+            for (int input = 0; input < sample.seeds().length; input++) {
+                inputs[offset + input] = sample.seeds()[input];
+            }
+            inputs[offset + NeuralNetwork.PLAYER1_SEEDS_INPUT] = sample.player1Seeds();
+            inputs[offset + NeuralNetwork.PLAYER2_SEEDS_INPUT] = sample.player2Seeds();
+            inputs[offset + NeuralNetwork.PLAYER2_TO_MOVE_INPUT] = sample.currentPlayer() == 2 ? 1 : 0;
+
+            double result = sample.winner() == 1 ? 1.0 : sample.winner() == 2 ? 0.0 : 0.5;
+            targets[i] = (float) (0.5 * result + 0.5 * sigmoid((double) sample.score() / SCORE_SCALE));
+        }
+        return new NeuralTrainer(inputs, targets, seed);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Train the network, holding back every tenth sample to report the validation loss after every epoch.
+     * @param epochs the number of passes over the training samples
+     * @param learningRate the step size of Adam
+     */
+    public void train(int epochs, double learningRate, long seed) {
+        int[] order = new int[samples - (samples + 9) / 10];
+        int[] validation = new int[(samples + 9) / 10];
+        for (int i = 0, t = 0, v = 0; i < samples; i++) {
+            if (i % 10 == 0) {
+                validation[v++] = i;
+            } else {
+                order[t++] = i;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] activations = new double[HIDDEN1 + HIDDEN2 + 1];
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int start = 0; start < order.length; start += BATCH_SIZE) {
+                int end = Math.min(order.length, start + BATCH_SIZE);
+                for (double[] gradient : gradients) {
+                    Arrays.fill(gradient, 0);
+                }
+                for (int i = start; i < end; i++) {
+                    backward(order[i], activations);
+                }
+                update(learningRate, end - start);
+            }
+            System.out.printf(Locale.ROOT, "Epoch %d: training loss=%.6f, validation loss=%.6f%n",
+                    epoch, loss(order, activations), loss(validation, activations));
+        }
+    }
+
+    private double loss(int[] indices, double[] activations) {
+        double sum = 0;
+        for (int index : indices) {
+            double p = sigmoid(forward(index, activations));
+            double y = targets[index];
+            sum -= y * Math.log(Math.max(p, 1e-12)) + (1 - y) * Math.log(Math.max(1 - p, 1e-12));
+        }
+        return sum / Math.max(1, indices.length);
+    }
+
+    /**
+     * @param activations filled with the clamped activations of both hidden layers
+     * @return the output logit
+     */
+    private double forward(int sample, double[] activations) {
+        int offset = sample * INPUTS;
+        double[] w1 = parameters[0];
+        for (int j = 0; j < HIDDEN1; j++) {
+            activations[j] = parameters[1][j];
+        }
+        for (int input = 0; input < INPUTS; input++) {
+            float x = inputs[offset + input];
+            if (x != 0) {
+                int row = input * HIDDEN1;
+                for (int j = 0; j < HIDDEN1; j++) {
+                    activations[j] += x * w1[row + j];
+                }
+            }
+        }
+        for (int j = 0; j < HIDDEN1; j++) {
+            activations[j] = clamp(activations[j]);
+        }
+
+        double[] w2 = parameters[2];
+        for (int k = 0; k < HIDDEN2; k++) {
+            double sum = parameters[3][k];
+            for (int j = 0; j < HIDDEN1; j++) {
+                sum += activations[j] * w2[j * HIDDEN2 + k];
+            }
+            activations[HIDDEN1 + k] = clamp(sum);
+        }
+
+        double output = parameters[5][0];
+        for (int k = 0; k < HIDDEN2; k++) {
+            output += activations[HIDDEN1 + k] * parameters[4][k];
+        }
+        return output;
+    }
+
+    private void backward(int sample, double[] activations) {
+        double error = sigmoid(forward(sample, activations)) - targets[sample];
+
+        gradients[5][0] += error;
+        double[] hidden2Error = new double[HIDDEN2];
+        for (int k = 0; k < HIDDEN2; k++) {
+            double a = activations[HIDDEN1 + k];
+            gradients[4][k] += error * a;
+            // The clamped activation only passes the gradient inside its range
+            hidden2Error[k] = a > 0 && a < MAX_ACTIVATION ? error * parameters[4][k] : 0;
+            gradients[3][k] += hidden2Error[k];
+        }
+
+        int offset = sample * INPUTS;
+        for (int j = 0; j < HIDDEN1; j++) {
+            double a = activations[j];
+            double hidden1Error = 0;
+            for (int k = 0; k < HIDDEN2; k++) {
+                gradients[2][j * HIDDEN2 + k] += hidden2Error[k] * a;
+                hidden1Error += hidden2Error[k] * parameters[2][j * HIDDEN2 + k];
+            }
+            if (a <= 0 || a >= MAX_ACTIVATION || hidden1Error == 0) {
+                continue;
+            }
+            gradients[1][j] += hidden1Error;
+            for (int input = 0; input < INPUTS; input++) {
+                gradients[0][input * HIDDEN1 + j] += hidden1Error * inputs[offset + input];
+            }
+        }
+    }
+
+    private void update(double learningRate, int batchSize) {
+        step++;
+        double beta1 = 0.9;
+        double beta2 = 0.999;
+        double correction1 = 1 - Math.pow(beta1, step);
+        double correction2 = 1 - Math.pow(beta2, step);
+        for (int p = 0; p < parameters.length; p++) {
+            double[] weights = parameters[p];
+            for (int i = 0; i < weights.length; i++) {
+                double g = gradients[p][i] / batchSize;
+                firstMoments[p][i] = beta1 * firstMoments[p][i] + (1 - beta1) * g;
+                secondMoments[p][i] = beta2 * secondMoments[p][i] + (1 - beta2) * g * g;
+                double mHat = firstMoments[p][i] / correction1;
+                double vHat = secondMoments[p][i] / correction2;
+                weights[i] -= learningRate * mHat / (Math.sqrt(vHat) + 1e-8);
+                weights[i] = Math.max(-bounds[p], Math.min(bounds[p], weights[i]));
+            }
+        }
+    }
+
+    /**
+     * @return the trained network with its weights rounded to the fixed point scales of {@link NeuralNetwork}
+     */
+    public NeuralNetwork quantise() {
+        return new NeuralNetwork(
+                round(parameters[0], WEIGHT_SCALE), round(parameters[1], WEIGHT_SCALE),
+                round(parameters[2], WEIGHT_SCALE), round(parameters[3], WEIGHT_SCALE * WEIGHT_SCALE),
+                round(parameters[4], WEIGHT_SCALE), (int) Math.round(parameters[5][0] * WEIGHT_SCALE * WEIGHT_SCALE));
+    }
+
+    private static int[] round(double[] values, int scale) {
+        int[] rounded = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            rounded[i] = (int) Math.round(values[i] * scale);
+        }
+        return rounded;
+    }
+
+    private static double clamp(double activation) {
+        return Math.max(0, Math.min(MAX_ACTIVATION, activation));
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    /**
+     * Run the trainer from the command line:
+     * {@code train-network [--data DIR] [--epochs N] [--learning-rate R] [--out FILE]}.
+     * The network is written to {@value NeuralEvaluator#DEFAULT_NETWORK_FILE} by default, where the Ultimate AI picks
+     * it up at the next start.
+     */
+    public static void run(String[] args) throws IOException {
+        Path data = Path.of("training-data");
+        int epochs = 20;
+        double learningRate = 0.001;
+        Path out = Path.of(NeuralEvaluator.DEFAULT_NETWORK_FILE);
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--data" -> data = Path.of(args[++i]);
+                case "--epochs" -> epochs = Integer.parseInt(args[++i]);
+                case "--learning-rate" -> learningRate = Double.parseDouble(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        NeuralTrainer trainer = fromDirectory(data, 42);
+        System.out.println("Loaded " + trainer.getSamples() + " samples from " + data.toAbsolutePath());
+        trainer.train(epochs, learningRate, 42);
+        trainer.quantise().save(out);
+        System.out.println("Written to " + out.toAbsolutePath());
+    }
+}
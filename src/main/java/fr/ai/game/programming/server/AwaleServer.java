@@ -0,0 +1,154 @@
+package fr.ai.game.programming.server;
+
+import fr.ai.game.programming.game.player.EvaluationCacheStore;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Socket server hosting many simultaneous human vs AI games from one JVM.
+ * <p>
+ * Every connection gets its own session thread with a small stack, which spends nearly all its time blocked on the
+ * socket. The CPU heavy AI searches of all sessions are executed on one shared pool with a fixed number of threads, so
+ * a burst of moves is queued instead of oversubscribing the cores. See {@link GameSession} for the protocol.
+ * <p>
+ * All sessions of one AI difficulty share an evaluation cache. With {@code -Dawale.cache.dir=DIR} the caches are saved
+ * when the server is closed and loaded again on the next start (see {@link EvaluationCacheStore}).
+ */
+public class AwaleServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 4747;
+    private static final long SESSION_STACK_SIZE = 256 * 1024; // Sessions only parse lines, the search runs in the pool
+
+    private final InetSocketAddress address;
+    private final ExecutorService searchPool;
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final EvaluationCacheStore evaluationCaches = EvaluationCacheStore.configured(20);
+    private final Set<GameSession> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * @param address the address to listen on, port 0 chooses a free port
+     * @param searchThreads the number of threads shared by all sessions for the AI searches
+     */
+    public AwaleServer(InetSocketAddress address, int searchThreads) {
+        if (searchThreads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required");
+        }
+        this.address = address;
+        this.searchPool = new ThreadPoolExecutor(searchThreads, searchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory("awale-search-"));
+    }
+
+    /**
+     * Bind the server socket and start accepting sessions in the background.
+     */
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address, 1024);
+        running = true;
+
+        Thread acceptor = new Thread(this::acceptLoop, "awale-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                GameSession session = new GameSession(socket, this);
+                sessions.add(session);
+                Thread thread = new Thread(null, session, "awale-session-" + sessionIds.incrementAndGet(), SESSION_STACK_SIZE);
+                thread.setDaemon(true);
+                thread.start();
+            } catch (SocketException e) {
+                // The server socket was closed
+                running = false;
+            } catch (IOException e) {
+                System.out.println("Could not accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    void sessionEnded(GameSession session) {
+        sessions.remove(session);
+    }
+
+    ExecutorService getSearchPool() {
+        return searchPool;
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    EvaluationCacheStore getEvaluationCaches() {
+        return evaluationCaches;
+    }
+
+    /**
+     * @return the port the server is listening on, useful when it was started with port 0
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        sessions.forEach(GameSession::close);
+        searchPool.shutdownNow();
+        evaluationCaches.saveAll();
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicLong ids = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Start a server from the command line: {@code server [port] [searchThreads]}.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int searchThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        AwaleServer server = new AwaleServer(new InetSocketAddress(port), searchThreads);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.out.println("Could not close the server: " + e.getMessage());
+            }
+        }, "awale-shutdown"));
+        System.out.println("Awalé server listening on port " + server.getPort() + " with " + searchThreads + " search threads.");
+
+        while (server.running) {
+            Thread.sleep(60_000);
+            System.out.println(server.getMetrics().summary());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package fr.ai.game.programming.server;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.RepetitionRule;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.PositionHistory;
+import fr.ai.game.programming.game.elements.PositionNotation;
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.metrics.MoveLatencies;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * One client connection of the {@link AwaleServer}, playing human vs AI games over a line based protocol.
+ * Every session runs on its own thread which is blocked on the socket most of the time; the AI searches are handed
+ * to the shared search pool of the server.
+ * <p>
+ * Commands (one per line, case-insensitive):
+ * <ul>
+ *     <li>{@code NEW [difficulty] [1|2]} - start a new game against the given AI difficulty (default ULTIMATE),
+ *     the human plays as player 1 (default) or player 2</li>
+ *     <li>{@code MOVE <hole><B|R>} - sow seeds of the given color from the given hole (1 to 16), e.g. {@code MOVE 3B}</li>
+ *     <li>{@code STATE} - send the current board</li>
+ *     <li>{@code STATS} - send the server metrics</li>
+ *     <li>{@code LATENCY} - send the percentiles of the AI move times by difficulty and seeds on the board</li>
+ *     <li>{@code QUIT} - close the session</li>
+ * </ul>
+ * Responses: {@code OK}, {@code AI <hole><B|R>}, {@code STATE <turn> <position>} (see {@link PositionNotation}),
+ * {@code OVER <winner> <reason>}, {@code STATS ...}, {@code LATENCY <difficulty> <seeds> count=.. mean=.. p50=.. p90=..
+ * p99=.. max=..} (one line per row of {@link MoveLatencies#rows()}, followed by {@code OK}), {@code ERR <message>} and
+ * {@code BYE}.
+ */
+class GameSession implements Runnable {
+
+    private static final Pattern MOVE_PATTERN = Pattern.compile("^(\\d{1,2})([RB])$");
+
+    private final Socket socket;
+    private final AwaleServer server;
+    private final ServerMetrics metrics;
+
+    private Board board;
+    private PositionHistory history; // Ends the game under RepetitionRule.DEFAULT
+    private AIManager aiManager;
+    private AIDifficulty difficulty;
+    private int humanPlayer;
+    private boolean gameOver;
+    private BufferedWriter out;
+
+    GameSession(Socket socket, AwaleServer server) {
+        this.socket = socket;
+        this.server = server;
+        this.metrics = server.getMetrics();
+    }
+
+    @Override
+    public void run() {
+        metrics.sessionOpened();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            this.out = writer;
+            send("HELLO awale 1");
+            out.flush();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                long receivedAt = System.nanoTime();
+                boolean keepOpen = handle(line.trim());
+                out.flush();
+                metrics.responseSent((System.nanoTime() - receivedAt) / 1_000);
+                if (!keepOpen) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client disconnected or the server is shutting down, nothing left to answer
+        } finally {
+            metrics.sessionClosed();
+            server.sessionEnded(this);
+        }
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore, the session is closing anyway
+        }
+    }
+
+    /**
+     * Handle one command of the client.
+     * @return false if the session should be closed
+     */
+    private boolean handle(String line) throws IOException {
+        if (line.isEmpty()) {
+            return true;
+        }
+        String[] parts = line.split("\\s+");
+        String command = parts[0].toUpperCase();
+        try {
+            switch (command) {
+                case "NEW" -> newGame(parts);
+                case "MOVE" -> humanMove(parts);
+                case "STATE" -> sendState();
+                case "STATS" -> send("STATS " + metrics.summary());
+                case "LATENCY" -> sendLatencies();
+                case "QUIT" -> {
+                    send("BYE");
+                    return false;
+                }
+                default -> send("ERR Unknown command: " + parts[0]);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            send("ERR " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void newGame(String[] parts) throws IOException {
+        AIDifficulty difficulty = parts.length > 1 ? AIDifficulty.fromName(parts[1]) : AIDifficulty.ULTIMATE;
+        int human = parts.length > 2 ? parsePlayer(parts[2]) : 1;
+
+        this.board = new Board();
+        this.history = new PositionHistory(RepetitionRule.DEFAULT);
+        history.push(board);
+        board.setHistory(history);
+        this.aiManager = difficulty.createManager(false, server.getEvaluationCaches().get(difficulty));
+        this.difficulty = difficulty;
+        this.humanPlayer = human;
+        this.gameOver = false;
+        send("OK");
+
+        if (board.getCurrentPlayer() != humanPlayer) {
+            aiMove();
+        }
+        sendState();
+    }
+
+    private void humanMove(String[] parts) throws IOException {
+        if (board == null || gameOver) {
+            throw new IllegalStateException("No game running. Start one with NEW.");
+        }
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Missing move, e.g. MOVE 3B");
+        }
+        Matcher matcher = MOVE_PATTERN.matcher(parts[1].toUpperCase());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid move format. Example: '11R' or '3B'.");
+        }
+        int hole = Integer.parseInt(matcher.group(1));
+        SeedColor color = matcher.group(2).equals("B") ? SeedColor.BLUE : SeedColor.RED;
+        if (hole < 1 || hole > TOTAL_HOLES) {
+            throw new IllegalArgumentException("Invalid hole number. Please choose a number between 1 and " + TOTAL_HOLES + ".");
+        }
+        if (hole % 2 != humanPlayer % 2) {
+            throw new IllegalArgumentException("Invalid hole number " + hole + ". This hole is not yours.");
+        }
+
+        board.sowSeeds(hole - 1, color);
+        metrics.humanMovePlayed();
+        send("OK");
+        if (!finishTurn()) {
+            aiMove();
+        }
+        sendState();
+    }
+
+    /**
+     * Let the AI search its move on the shared search pool and play it.
+     */
+    private void aiMove() throws IOException {
+        Board snapshot = board.copy();
+        long submittedAt = System.nanoTime();
+        long[] startedAt = new long[1];
+        Future<Move> search = server.getSearchPool().submit(() -> {
+            startedAt[0] = System.nanoTime();
+            return aiManager.findMove(snapshot);
+        });
+
+        Move move;
+        try {
+            move = search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Session interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("AI search failed: " + e.getCause().getMessage());
+        }
+        long finishedAt = System.nanoTime();
+        metrics.aiMovePlayed(difficulty.name(), snapshot.totalSeeds(), (startedAt[0] - submittedAt) / 1_000,
+                (finishedAt - startedAt[0]) / 1_000);
+
+        board.sowSeeds(move.hole(), move.color());
+        send("AI " + move.toNotation());
+        finishTurn();
+    }
+
+    /**
+     * Switch to the next player and check whether the game is over.
+     * @return true if the game is over
+     */
+    private boolean finishTurn() throws IOException {
+        board.switchPlayer();
+        board.setTurns(board.getTurns() + 1);
+        history.push(board);
+        GameStatus status = board.checkGameStatus();
+        if (!status.isGameOver()) {
+            status = history.getRule().check(board, history);
+        }
+        if (status.isGameOver()) {
+            gameOver = true;
+            metrics.gameFinished();
+            send("OVER " + status.winner() + " " + status.reason());
+        }
+        return status.isGameOver();
+    }
+
+    private void sendState() throws IOException {
+        if (board == null) {
+            throw new IllegalStateException("No game running. Start one with NEW.");
+        }
+        send("STATE " + board.getTurns() + " " + PositionNotation.format(board));
+    }
+
+    private void sendLatencies() throws IOException {
+        for (MoveLatencies.Row row : metrics.getMoveLatencies().rows()) {
+            send("LATENCY " + row.ai() + " " + row.phase() + " " + row.histogram().summary("us"));
+        }
+        send("OK");
+    }
+
+    private int parsePlayer(String value) {
+        if (!value.equals("1") && !value.equals("2")) {
+            throw new IllegalArgumentException("Invalid player: " + value);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private void send(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+    }
+}
@@ -0,0 +1,117 @@
+package fr.ai.game.programming.server;
+
+import fr.ai.game.programming.metrics.LatencyHistogram;
+import fr.ai.game.programming.metrics.MoveLatencies;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and throughput metrics of an {@link AwaleServer}. All latencies are recorded in microseconds.
+ */
+public class ServerMetrics {
+
+    private final long startTime = System.nanoTime();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong totalSessions = new AtomicLong();
+    private final AtomicLong humanMoves = new AtomicLong();
+    private final AtomicLong aiMoves = new AtomicLong();
+    private final AtomicLong finishedGames = new AtomicLong();
+
+    // Time an AI move waits for a free search thread
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    // Time the AI search itself takes
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
+    // Time from receiving a client's move to sending the answer (queueing + search + protocol)
+    private final LatencyHistogram responseLatency = new LatencyHistogram();
+    // Time of the AI searches by difficulty and game phase
+    private final MoveLatencies moveLatencies = new MoveLatencies();
+
+    void sessionOpened() {
+        activeSessions.incrementAndGet();
+        totalSessions.incrementAndGet();
+    }
+
+    void sessionClosed() {
+        activeSessions.decrementAndGet();
+    }
+
+    void humanMovePlayed() {
+        humanMoves.incrementAndGet();
+    }
+
+    void aiMovePlayed(String difficulty, int seedsOnBoard, long queueMicros, long searchMicros) {
+        aiMoves.incrementAndGet();
+        queueLatency.record(queueMicros);
+        searchLatency.record(searchMicros);
+        moveLatencies.record(difficulty, seedsOnBoard, searchMicros);
+    }
+
+    void responseSent(long micros) {
+        responseLatency.record(micros);
+    }
+
+    void gameFinished() {
+        finishedGames.incrementAndGet();
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public long getTotalSessions() {
+        return totalSessions.get();
+    }
+
+    public long getAiMoves() {
+        return aiMoves.get();
+    }
+
+    public long getHumanMoves() {
+        return humanMoves.get();
+    }
+
+    public long getFinishedGames() {
+        return finishedGames.get();
+    }
+
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    public LatencyHistogram getSearchLatency() {
+        return searchLatency;
+    }
+
+    public LatencyHistogram getResponseLatency() {
+        return responseLatency;
+    }
+
+    public MoveLatencies getMoveLatencies() {
+        return moveLatencies;
+    }
+
+    /**
+     * @return the number of moves (human and AI) played per second since the server started
+     */
+    public double getMovesPerSecond() {
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : (humanMoves.get() + aiMoves.get()) / seconds;
+    }
+
+    /**
+     * @return a single line summary of all metrics, as sent for the STATS command
+     */
+    public String summary() {
+        return "sessions=" + getActiveSessions()
+                + " totalSessions=" + getTotalSessions()
+                + " games=" + getFinishedGames()
+                + " humanMoves=" + getHumanMoves()
+                + " aiMoves=" + getAiMoves()
+                + " movesPerSec=" + String.format(Locale.ROOT, "%.1f", getMovesPerSecond())
+                + " | queue " + queueLatency.summary("us")
+                + " | search " + searchLatency.summary("us")
+                + " | response " + responseLatency.summary("us");
+    }
+}
@@ -0,0 +1,267 @@
+package fr.ai.game.programming.simulation;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.Position;
+import fr.ai.game.programming.game.elements.SeedColor;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Plays random games on many boards at once, stored as a structure of arrays: the seeds of all boards in one flat
+ * array and the captured seeds, player to move, legal moves and status of all boards in one array each. Every
+ * {@link #step()} plays one random move on every running board with the rules of {@link Board#sowSeeds(int, SeedColor)}
+ * and {@link Board#checkGameStatus()}.
+ * <p>
+ * A simulator is used by one thread at a time and has its own random generator (xorshift), see {@link RandomPlayouts}
+ * to run simulators on all cores.
+ */
+public class BatchSimulator {
+
+    // Status of a board
+    public static final byte RUNNING = 0;
+    public static final byte PLAYER1_WINS = 1;
+    public static final byte PLAYER2_WINS = 2;
+    public static final byte DRAW = 3;
+
+    private static final int SLOTS = 2 * TOTAL_HOLES; // Blue seeds of hole h at 2 * h, red seeds at 2 * h + 1
+    private static final int PLAYER1_MOVES = 0x33333333; // The slots of the even holes
+    private static final int PLAYER2_MOVES = 0xCCCCCCCC; // The slots of the odd holes
+
+    private final int size;
+    private final int maxPlies;
+    private final byte[] seeds;
+    private final int[] moves; // Bit s is set if slot s holds seeds, i.e. sowing from it is legal for its owner
+    private final int[] onBoard; // Seeds left in the holes
+    private final int[] player1Seeds;
+    private final int[] player2Seeds;
+    private final byte[] currentPlayer;
+    private final int[] plies;
+    private final byte[] status;
+    private long random;
+    private long playedMoves;
+
+    /**
+     * @param size     the number of boards
+     * @param maxPlies the number of moves after which a game is adjudicated by the captured seeds
+     * @param seed     the seed of the random generator
+     */
+    public BatchSimulator(int size, int maxPlies, long seed) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + size);
+        }
+        if (maxPlies < 1) {
+            throw new IllegalArgumentException("Invalid maximum game length: " + maxPlies);
+        }
+        this.size = size;
+        this.maxPlies = maxPlies;
+        this.seeds = new byte[size * SLOTS];
+        this.moves = new int[size];
+        this.onBoard = new int[size];
+        this.player1Seeds = new int[size];
+        this.player2Seeds = new int[size];
+        this.currentPlayer = new byte[size];
+        this.plies = new int[size];
+        this.status = new byte[size];
+        // SplitMix64 of the seed, xorshift needs a state other than 0
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        this.random = (z ^ (z >>> 31)) | 1;
+    }
+
+    /**
+     * Set a board to a position and start a new game on it.
+     */
+    public void reset(int board, Position position) {
+        int base = board * SLOTS;
+        int mask = 0;
+        int total = 0;
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            int blue = position.getSeedsInHole(hole, SeedColor.BLUE);
+            int red = position.getSeedsInHole(hole, SeedColor.RED);
+            seeds[base + 2 * hole] = (byte) blue;
+            seeds[base + 2 * hole + 1] = (byte) red;
+            if (blue > 0) mask |= 1 << (2 * hole);
+            if (red > 0) mask |= 1 << (2 * hole + 1);
+            total += blue + red;
+        }
+        moves[board] = mask;
+        onBoard[board] = total;
+        player1Seeds[board] = position.getPlayer1Seeds();
+        player2Seeds[board] = position.getPlayer2Seeds();
+        currentPlayer[board] = (byte) position.getCurrentPlayer();
+        plies[board] = 0;
+        status[board] = RUNNING;
+        checkStatus(board);
+    }
+
+    /**
+     * Set every board to the position.
+     */
+    public void resetAll(Position position) {
+        for (int board = 0; board < size; board++) {
+            reset(board, position);
+        }
+    }
+
+    /**
+     * Play one random move on every running board.
+     * @return the number of boards still running
+     */
+    public int step() {
+        int running = 0;
+        for (int board = 0; board < size; board++) {
+            if (status[board] != RUNNING) {
+                continue;
+            }
+            playRandomMove(board);
+            if (status[board] == RUNNING) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    private void playRandomMove(int board) {
+        int player = currentPlayer[board];
+        int legal = moves[board] & (player == 1 ? PLAYER1_MOVES : PLAYER2_MOVES);
+        // Pick the k-th legal move, k uniform in [0, count)
+        int k = (int) (((nextRandom() >>> 32) * Integer.bitCount(legal)) >>> 32);
+        for (int i = 0; i < k; i++) {
+            legal &= legal - 1;
+        }
+        int slot = Integer.numberOfTrailingZeros(legal);
+        play(board, slot >>> 1, slot & 1);
+    }
+
+    /**
+     * Sow the seeds of a color from a hole and capture, like {@link Board#sowSeeds(int, SeedColor)}, then switch the
+     * player and check whether the game is over.
+     * @param color 0 for blue, 1 for red
+     */
+    private void play(int board, int hole, int color) {
+        int base = board * SLOTS;
+        int mask = moves[board];
+        int seedsToSow = seeds[base + 2 * hole + color];
+        seeds[base + 2 * hole + color] = 0;
+        mask &= ~(1 << (2 * hole + color));
+
+        int lastHole;
+        if (color == 0) {
+            // One blue seed into every following hole, skipping the starting hole
+            lastHole = hole;
+            while (seedsToSow > 0) {
+                lastHole = (lastHole + 1) & (TOTAL_HOLES - 1);
+                if (lastHole != hole) {
+                    seeds[base + 2 * lastHole]++;
+                    mask |= 1 << (2 * lastHole);
+                    seedsToSow--;
+                }
+            }
+        } else {
+            // One red seed into every other hole, starting with the next one
+            lastHole = (hole + 1) & (TOTAL_HOLES - 1);
+            seeds[base + 2 * lastHole + 1]++;
+            mask |= 2 << (2 * lastHole);
+            while (--seedsToSow > 0) {
+                lastHole = (lastHole + 2) & (TOTAL_HOLES - 1);
+                seeds[base + 2 * lastHole + 1]++;
+                mask |= 2 << (2 * lastHole);
+            }
+        }
+
+        // Capture backwards from the last hole while the holes hold 2 or 3 seeds
+        int captured = 0;
+        int seedsInHole = seeds[base + 2 * lastHole] + seeds[base + 2 * lastHole + 1];
+        while (seedsInHole == 2 || seedsInHole == 3) {
+            captured += seedsInHole;
+            seeds[base + 2 * lastHole] = 0;
+            seeds[base + 2 * lastHole + 1] = 0;
+            mask &= ~(3 << (2 * lastHole));
+            lastHole = (lastHole - 1) & (TOTAL_HOLES - 1);
+            seedsInHole = seeds[base + 2 * lastHole] + seeds[base + 2 * lastHole + 1];
+        }
+
+        moves[board] = mask;
+        onBoard[board] -= captured;
+        if (currentPlayer[board] == 1) {
+            player1Seeds[board] += captured;
+            currentPlayer[board] = 2;
+        } else {
+            player2Seeds[board] += captured;
+            currentPlayer[board] = 1;
+        }
+        plies[board]++;
+        playedMoves++;
+        checkStatus(board);
+    }
+
+    /**
+     * Set the status of a board in the order of the checks of {@link Board#checkGameStatus()}; games longer than the
+     * maximum length are adjudicated by the captured seeds.
+     */
+    private void checkStatus(int board) {
+        int p1 = player1Seeds[board];
+        int p2 = player2Seeds[board];
+        if (p1 >= 33) {
+            status[board] = PLAYER1_WINS;
+        } else if (p2 >= 33) {
+            status[board] = PLAYER2_WINS;
+        } else if (p1 == 32 && p2 == 32) {
+            status[board] = DRAW;
+        } else if (onBoard[board] < 8 || plies[board] >= maxPlies) {
+            status[board] = p1 > p2 ? PLAYER1_WINS : p1 < p2 ? PLAYER2_WINS : DRAW;
+        } else if ((moves[board] & (currentPlayer[board] == 1 ? PLAYER1_MOVES : PLAYER2_MOVES)) == 0) {
+            // The other player captures the remaining seeds and wins
+            status[board] = currentPlayer[board] == 1 ? PLAYER2_WINS : PLAYER1_WINS;
+        }
+    }
+
+    private long nextRandom() {
+        long x = random;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        random = x;
+        return x;
+    }
+
+    /**
+     * @return the status of the board, {@link #RUNNING} or the result of its game
+     */
+    public byte getStatus(int board) {
+        return status[board];
+    }
+
+    /**
+     * @return the number of moves played on the board since it was reset
+     */
+    public int getPlies(int board) {
+        return plies[board];
+    }
+
+    /**
+     * @return the position of the board, the seeds left on the board are not captured when a game is over
+     */
+    public Position getPosition(int board) {
+        int base = board * SLOTS;
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            blue[hole] = seeds[base + 2 * hole];
+            red[hole] = seeds[base + 2 * hole + 1];
+        }
+        return Position.of(Board.fromPosition(blue, red, player1Seeds[board], player2Seeds[board], currentPlayer[board]));
+    }
+
+    /**
+     * @return the number of moves played on all boards
+     */
+    public long getPlayedMoves() {
+        return playedMoves;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,158 @@
+package fr.ai.game.programming.simulation;
+
+import fr.ai.game.programming.game.elements.Position;
+import fr.ai.game.programming.game.elements.PositionNotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plays random games from a position on all cores, e.g. for Monte Carlo evaluation. Every thread owns a
+ * {@link BatchSimulator} with its own random generator and plays its share of the games in batches; a board whose game
+ * is over is refilled with a new game right away, so the batch stays full until the last games.
+ */
+public class RandomPlayouts {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int DEFAULT_MAX_PLIES = 400;
+
+    /**
+     * @param games       the number of games played
+     * @param player1Wins the games won by Player 1
+     * @param player2Wins the games won by Player 2
+     * @param draws       the drawn games
+     * @param moves       the number of moves played in all games
+     * @param timeNanos   the wall-clock time of the playouts
+     */
+    public record Result(long games, long player1Wins, long player2Wins, long draws, long moves, long timeNanos) {
+
+        /**
+         * @return the score of Player 1 between 0 and 1, a draw counts half
+         */
+        public double player1Score() {
+            return games == 0 ? 0.5 : (player1Wins + 0.5 * draws) / games;
+        }
+
+        public long movesPerSecond() {
+            return timeNanos == 0 ? 0 : (long) (moves * 1e9 / timeNanos);
+        }
+    }
+
+    private final int batchSize;
+    private final int threads;
+    private final int maxPlies;
+
+    /**
+     * @param batchSize the number of boards of every thread
+     * @param threads   the number of threads
+     * @param maxPlies  the number of moves after which a game is adjudicated by the captured seeds
+     */
+    public RandomPlayouts(int batchSize, int threads, int maxPlies) {
+        if (batchSize < 1 || threads < 1 || maxPlies < 1) {
+            throw new IllegalArgumentException("Invalid playout settings: batch " + batchSize + ", threads " + threads
+                    + ", max plies " + maxPlies);
+        }
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Play random games from the position.
+     * @param seed the seed of the random generators, the same seed gives the same result with the same settings
+     */
+    public Result run(Position start, long games, long seed) throws InterruptedException {
+        long[][] counts = new long[threads][];
+        List<Thread> workers = new ArrayList<>();
+        long startTime = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            long share = games / threads + (t < games % threads ? 1 : 0);
+            workers.add(new Thread(() -> counts[thread] = playBatch(start, share, seed + thread), "playout-" + t));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long timeNanos = System.nanoTime() - startTime;
+
+        long[] total = new long[4];
+        for (long[] count : counts) {
+            for (int i = 0; i < total.length; i++) {
+                total[i] += count[i];
+            }
+        }
+        return new Result(games, total[BatchSimulator.PLAYER1_WINS], total[BatchSimulator.PLAYER2_WINS],
+                total[BatchSimulator.DRAW], total[0], timeNanos);
+    }
+
+    /**
+     * @return the moves played at index 0 and the number of games per result at the index of the status
+     */
+    private long[] playBatch(Position start, long games, long seed) {
+        long[] counts = new long[4];
+        int size = (int) Math.min(batchSize, games);
+        if (size == 0) {
+            return counts;
+        }
+        BatchSimulator simulator = new BatchSimulator(size, maxPlies, seed);
+        simulator.resetAll(start);
+        boolean[] active = new boolean[size];
+        Arrays.fill(active, true);
+        long started = size;
+        int activeBoards = size;
+
+        while (activeBoards > 0) {
+            simulator.step();
+            for (int board = 0; board < size; board++) {
+                byte status = simulator.getStatus(board);
+                if (!active[board] || status == BatchSimulator.RUNNING) {
+                    continue;
+                }
+                counts[status]++;
+                if (started < games) {
+                    simulator.reset(board, start);
+                    started++;
+                } else {
+                    active[board] = false;
+                    activeBoards--;
+                }
+            }
+        }
+        counts[0] = simulator.getPlayedMoves();
+        return counts;
+    }
+
+    /**
+     * Run random playouts from the command line:
+     * {@code playouts [--games N] [--batch N] [--threads N] [--max-plies N] [--seed S] [--position NOTATION]}.
+     */
+    public static void run(String[] args) throws InterruptedException {
+        long games = 1_000_000;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxPlies = DEFAULT_MAX_PLIES;
+        long seed = System.nanoTime();
+        Position start = Position.START;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Long.parseLong(args[++i]);
+                case "--batch" -> batchSize = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--position" -> start = Position.of(PositionNotation.parse(args[++i]));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Result result = new RandomPlayouts(batchSize, threads, maxPlies).run(start, games, seed);
+        System.out.printf(Locale.ROOT, "Played %d games (%d moves) in %.2f s, %.1fM moves/s%n", result.games(),
+                result.moves(), result.timeNanos() / 1e9, result.movesPerSecond() / 1e6);
+        System.out.printf(Locale.ROOT, "Player 1 wins %d, Player 2 wins %d, draws %d, score of Player 1 %.4f%n",
+                result.player1Wins(), result.player2Wins(), result.draws(), result.player1Score());
+    }
+}
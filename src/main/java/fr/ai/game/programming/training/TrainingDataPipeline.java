@@ -0,0 +1,253 @@
+package fr.ai.game.programming.training;
+
+import fr.ai.game.programming.display.GameSnapshot;
+import fr.ai.game.programming.display.SpectatorDashboard;
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.RepetitionRule;
+import fr.ai.game.programming.game.SelfPlayGame;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.AIManager;
+import fr.ai.game.programming.game.player.Move;
+import fr.ai.game.programming.game.player.SearchLimits;
+import fr.ai.game.programming.game.player.SearchResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates training data from headless self-play.
+ * <p>
+ * Player threads play games against themselves and sample positions with the score and best move of their search.
+ * When a game is over its samples are labelled with the result and handed to the writer threads through a bounded
+ * queue. The players never wait for the writers: if the queue is full, the samples of the game are dropped and
+ * counted instead, so a slow disk reduces the output but never the speed of the players. Every writer thread owns its
+ * own shards, see {@link TrainingShardWriter}.
+ */
+public class TrainingDataPipeline {
+
+    /**
+     * @param difficulty      the AI playing both sides
+     * @param depth           the search depth of every move
+     * @param randomPlies     the number of random moves at the start of every game, so the games differ
+     * @param rule            ends games which repeat positions or run too long
+     * @param sampleRate      the probability that a searched position is stored
+     * @param players         the number of player threads
+     * @param writers         the number of writer threads (and of shards written at the same time)
+     * @param queueCapacity   the number of finished games waiting for the writers
+     * @param samplesPerShard the number of samples after which a writer starts a new shard
+     */
+    public record Settings(AIDifficulty difficulty, int depth, int randomPlies, RepetitionRule rule, double sampleRate,
+                           int players, int writers, int queueCapacity, long samplesPerShard) {
+
+        public static Settings defaults() {
+            int cores = Runtime.getRuntime().availableProcessors();
+            return new Settings(AIDifficulty.ULTIMATE, 4, 6, RepetitionRule.DEFAULT, 0.25, cores, Math.max(1, cores / 8),
+                    4096, 1_000_000);
+        }
+    }
+
+    private final Settings settings;
+    private final AtomicLong playedGames = new AtomicLong();
+    private final AtomicLong writtenSamples = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+    private final BlockingQueue<List<TrainingSample>> queue;
+    private volatile boolean playersDone;
+    private SpectatorDashboard dashboard; // Optional, shows the game of every player thread
+
+    public TrainingDataPipeline(Settings settings) {
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+    }
+
+    /**
+     * Show the games on a dashboard with one slot per player thread while the pipeline runs.
+     */
+    public void setDashboard(SpectatorDashboard dashboard) {
+        if (dashboard != null && dashboard.getGames() < settings.players()) {
+            throw new IllegalArgumentException("The dashboard has fewer slots than the pipeline has players");
+        }
+        this.dashboard = dashboard;
+    }
+
+    /**
+     * Play the given number of games and write their samples into the directory.
+     */
+    public void run(Path directory, long games, long seed) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        AtomicLong nextGame = new AtomicLong();
+        List<IOException> writerErrors = new ArrayList<>();
+
+        List<Thread> writerThreads = new ArrayList<>();
+        for (int w = 0; w < settings.writers(); w++) {
+            int writerId = w;
+            writerThreads.add(new Thread(() -> {
+                try {
+                    writeSamples(directory, writerId);
+                } catch (IOException e) {
+                    synchronized (writerErrors) {
+                        writerErrors.add(e);
+                    }
+                }
+            }, "training-writer-" + w));
+        }
+
+        List<Thread> playerThreads = new ArrayList<>();
+        for (int p = 0; p < settings.players(); p++) {
+            int slot = p;
+            playerThreads.add(new Thread(() -> {
+                AIManager manager = settings.difficulty().createManager(false);
+                long game;
+                while ((game = nextGame.getAndIncrement()) < games) {
+                    List<TrainingSample> samples = playGame(manager, new SplittableRandom(seed + game), slot, game);
+                    playedGames.incrementAndGet();
+                    if (!samples.isEmpty() && !queue.offer(samples)) {
+                        droppedSamples.addAndGet(samples.size());
+                    }
+                }
+            }, "training-player-" + p));
+        }
+
+        writerThreads.forEach(Thread::start);
+        playerThreads.forEach(Thread::start);
+        for (Thread player : playerThreads) {
+            player.join();
+        }
+        playersDone = true;
+        for (Thread writer : writerThreads) {
+            writer.join();
+        }
+        if (!writerErrors.isEmpty()) {
+            throw writerErrors.get(0);
+        }
+    }
+
+    private void writeSamples(Path directory, int writerId) throws IOException {
+        try (TrainingShardWriter writer = new TrainingShardWriter(directory, writerId, settings.samplesPerShard())) {
+            while (true) {
+                List<TrainingSample> samples;
+                try {
+                    samples = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (samples == null) {
+                    if (playersDone && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                for (TrainingSample sample : samples) {
+                    writer.write(sample);
+                }
+                writtenSamples.addAndGet(samples.size());
+            }
+        }
+    }
+
+    private List<TrainingSample> playGame(AIManager manager, SplittableRandom random, int slot, long game) {
+        SelfPlayGame selfPlay = new SelfPlayGame(manager, SearchLimits.ofDepth(settings.depth()),
+                settings.randomPlies(), settings.rule());
+        List<TrainingSample> samples = new ArrayList<>();
+        String title = "Game " + (game + 1) + " " + settings.difficulty();
+        if (dashboard != null) {
+            dashboard.publish(slot, GameSnapshot.start(title, new Board()));
+        }
+
+        GameStatus status = selfPlay.play(random, new SelfPlayGame.Listener() {
+            @Override
+            public void searched(Board board, int ply, SearchResult result) {
+                if (random.nextDouble() < settings.sampleRate()) {
+                    samples.add(TrainingSample.of(board, result.move(), 0, result.depth(), ply, result.score()));
+                }
+            }
+
+            @Override
+            public void played(Board board, int ply, Move move, SearchResult result) {
+                if (dashboard != null) {
+                    dashboard.publish(slot, GameSnapshot.afterMove(title, board, ply, move, result));
+                }
+            }
+        });
+
+        samples.replaceAll(sample -> sample.withWinner(status.winner()));
+        return samples;
+    }
+
+    public long getPlayedGames() {
+        return playedGames.get();
+    }
+
+    public long getWrittenSamples() {
+        return writtenSamples.get();
+    }
+
+    public long getDroppedSamples() {
+        return droppedSamples.get();
+    }
+
+    /**
+     * Run the pipeline from the command line:
+     * {@code selfplay [--ai LEVEL] [--depth N] [--games N] [--random-plies N]
+     * [--rule REPETITIONS,MAX_PLIES,draw|adjudication] [--sample-rate R] [--players N] [--writers N] [--out DIR]
+     * [--watch]}. With {@code --watch} the games of the player threads are shown on a
+     * {@link SpectatorDashboard}.
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        Settings defaults = Settings.defaults();
+        AIDifficulty difficulty = defaults.difficulty();
+        int depth = defaults.depth();
+        int randomPlies = defaults.randomPlies();
+        RepetitionRule rule = defaults.rule();
+        double sampleRate = defaults.sampleRate();
+        int players = defaults.players();
+        boolean watch = false;
+        int writers = defaults.writers();
+        long games = 1000;
+        Path out = Path.of("training-data");
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ai" -> difficulty = AIDifficulty.fromName(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--games" -> games = Long.parseLong(args[++i]);
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--rule" -> rule = RepetitionRule.parse(args[++i]);
+                case "--sample-rate" -> sampleRate = Double.parseDouble(args[++i]);
+                case "--players" -> players = Integer.parseInt(args[++i]);
+                case "--writers" -> writers = Integer.parseInt(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--watch" -> watch = true;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        TrainingDataPipeline pipeline = new TrainingDataPipeline(new Settings(difficulty, depth, randomPlies, rule,
+                sampleRate, players, writers, defaults.queueCapacity(), defaults.samplesPerShard()));
+        long start = System.nanoTime();
+        if (watch) {
+            try (SpectatorDashboard dashboard = SpectatorDashboard.forConsole(players, 10)) {
+                pipeline.setDashboard(dashboard);
+                dashboard.start();
+                pipeline.run(out, games, System.nanoTime());
+            }
+        } else {
+            pipeline.run(out, games, System.nanoTime());
+        }
+        double hours = (System.nanoTime() - start) / 3.6e12;
+
+        System.out.printf(Locale.ROOT, "Played %d games, wrote %d samples (%d dropped) to %s, %.0f samples/hour.%n",
+                pipeline.getPlayedGames(), pipeline.getWrittenSamples(), pipeline.getDroppedSamples(),
+                out.toAbsolutePath(), pipeline.getWrittenSamples() / hours);
+    }
+}
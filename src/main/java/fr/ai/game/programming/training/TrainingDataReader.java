@@ -0,0 +1,106 @@
+package fr.ai.game.programming.training;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the samples of shard files written by the {@link TrainingDataPipeline}, one shard after the other. Only one
+ * buffer per open shard is held in memory, whatever the size of the data set.
+ */
+public class TrainingDataReader implements Iterator<TrainingSample>, AutoCloseable {
+
+    private final Iterator<Path> shards;
+    private final byte[] record = new byte[TrainingSample.RECORD_SIZE];
+    private DataInputStream in;
+    private TrainingSample next;
+
+    public TrainingDataReader(List<Path> shards) {
+        this.shards = new ArrayList<>(shards).iterator();
+    }
+
+    /**
+     * Read all shards of a directory, in the order of their file names.
+     */
+    public static TrainingDataReader ofDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new TrainingDataReader(files
+                    .filter(file -> file.getFileName().toString().endsWith(TrainingShardWriter.EXTENSION))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public TrainingSample next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TrainingSample sample = next;
+        next = null;
+        return sample;
+    }
+
+    private TrainingSample readNext() throws IOException {
+        while (true) {
+            if (in == null) {
+                if (!shards.hasNext()) {
+                    return null;
+                }
+                openShard(shards.next());
+            }
+            try {
+                in.readFully(record);
+                return TrainingSample.readFrom(ByteBuffer.wrap(record));
+            } catch (EOFException e) {
+                // End of this shard (a partial sample at the end of an unfinished shard is skipped)
+                in.close();
+                in = null;
+            }
+        }
+    }
+
+    private void openShard(Path shard) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(shard), 1 << 16), 1 << 16));
+        if (in.readInt() != TrainingShardWriter.MAGIC) {
+            throw new IOException("Not a training data shard: " + shard);
+        }
+        byte version = in.readByte();
+        in.readByte();
+        int recordSize = in.readShort();
+        if (version != TrainingShardWriter.VERSION || recordSize != TrainingSample.RECORD_SIZE) {
+            throw new IOException("Unsupported training data shard (version " + version + ", record size " + recordSize + "): " + shard);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+}
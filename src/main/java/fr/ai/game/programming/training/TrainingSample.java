@@ -0,0 +1,93 @@
+package fr.ai.game.programming.training;
+
+import fr.ai.game.programming.archive.GameRecordFormat;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.Move;
+
+import java.nio.ByteBuffer;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * A position sampled from a self-play game, with the result of the search in that position and the result of the game.
+ * <p>
+ * Binary layout of a sample ({@value #RECORD_SIZE} bytes, big-endian):
+ * <pre>
+ *   0..31   blue and red seeds of the 16 holes (hole 1 blue, hole 1 red, hole 2 blue, ...)
+ *   32      seeds captured by Player 1
+ *   33      seeds captured by Player 2
+ *   34      player to move (1 or 2)
+ *   35      best move found by the search, see {@link GameRecordFormat#encodeMove(Move)}
+ *   36      winner of the game (1 or 2, 0 for a draw)
+ *   37      search depth
+ *   38..39  ply of the position in the game
+ *   40..43  search score from Player 1's perspective
+ * </pre>
+ *
+ * @param seeds the blue and red seed counts in the order of the binary layout
+ */
+public record TrainingSample(byte[] seeds, int player1Seeds, int player2Seeds, int currentPlayer, Move bestMove,
+                             int winner, int depth, int ply, int score) {
+
+    public static final int RECORD_SIZE = 44;
+
+    /**
+     * Create a sample of the given position.
+     */
+    public static TrainingSample of(Board board, Move bestMove, int winner, int depth, int ply, int score) {
+        byte[] seeds = new byte[2 * TOTAL_HOLES];
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            seeds[2 * i] = (byte) board.getSeedsInHole(i, SeedColor.BLUE);
+            seeds[2 * i + 1] = (byte) board.getSeedsInHole(i, SeedColor.RED);
+        }
+        return new TrainingSample(seeds, board.getPlayer1Seeds(), board.getPlayer2Seeds(), board.getCurrentPlayer(),
+                bestMove, winner, depth, ply, score);
+    }
+
+    /**
+     * @return the same sample labelled with the given game result
+     */
+    public TrainingSample withWinner(int winner) {
+        return new TrainingSample(seeds, player1Seeds, player2Seeds, currentPlayer, bestMove, winner, depth, ply, score);
+    }
+
+    /**
+     * @return a new board in the position of the sample
+     */
+    public Board toBoard() {
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            blue[i] = seeds[2 * i];
+            red[i] = seeds[2 * i + 1];
+        }
+        return Board.fromPosition(blue, red, player1Seeds, player2Seeds, currentPlayer);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put(seeds);
+        buffer.put((byte) player1Seeds);
+        buffer.put((byte) player2Seeds);
+        buffer.put((byte) currentPlayer);
+        buffer.put(GameRecordFormat.encodeMove(bestMove));
+        buffer.put((byte) winner);
+        buffer.put((byte) depth);
+        buffer.putShort((short) ply);
+        buffer.putInt(score);
+    }
+
+    static TrainingSample readFrom(ByteBuffer buffer) {
+        byte[] seeds = new byte[2 * TOTAL_HOLES];
+        buffer.get(seeds);
+        int player1Seeds = buffer.get() & 0xFF;
+        int player2Seeds = buffer.get() & 0xFF;
+        int currentPlayer = buffer.get();
+        Move bestMove = GameRecordFormat.decodeMove(buffer.get());
+        int winner = buffer.get();
+        int depth = buffer.get() & 0xFF;
+        int ply = buffer.getShort() & 0xFFFF;
+        int score = buffer.getInt();
+        return new TrainingSample(seeds, player1Seeds, player2Seeds, currentPlayer, bestMove, winner, depth, ply, score);
+    }
+}
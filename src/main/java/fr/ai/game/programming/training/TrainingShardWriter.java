@@ -0,0 +1,65 @@
+package fr.ai.game.programming.training;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the samples of one writer thread into GZIP compressed shard files. A new shard is started every
+ * {@code samplesPerShard} samples. Every shard starts with the magic bytes "AWTD", a version byte, a reserved byte and
+ * the record size as a short, followed by the samples in the layout of {@link TrainingSample}.
+ */
+class TrainingShardWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x41575444; // "AWTD"
+    static final byte VERSION = 1;
+    static final String EXTENSION = ".awtd.gz";
+
+    private final Path directory;
+    private final int writerId;
+    private final long samplesPerShard;
+    private final ByteBuffer record = ByteBuffer.allocate(TrainingSample.RECORD_SIZE);
+
+    private OutputStream out;
+    private int shard;
+    private long samplesInShard;
+
+    TrainingShardWriter(Path directory, int writerId, long samplesPerShard) {
+        this.directory = directory;
+        this.writerId = writerId;
+        this.samplesPerShard = samplesPerShard;
+    }
+
+    void write(TrainingSample sample) throws IOException {
+        if (out == null || samplesInShard >= samplesPerShard) {
+            openNextShard();
+        }
+        record.clear();
+        sample.writeTo(record);
+        out.write(record.array(), 0, TrainingSample.RECORD_SIZE);
+        samplesInShard++;
+    }
+
+    private void openNextShard() throws IOException {
+        close();
+        Path file = directory.resolve(String.format(Locale.ROOT, "samples-%02d-%05d%s", writerId, shard++, EXTENSION));
+        out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16), 1 << 16);
+        ByteBuffer header = ByteBuffer.allocate(8)
+                .putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) TrainingSample.RECORD_SIZE);
+        out.write(header.array());
+        samplesInShard = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package fr.ai.game.programming.tuning;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.RepetitionRule;
+import fr.ai.game.programming.game.SelfPlayGame;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.EvaluationWeights;
+import fr.ai.game.programming.game.player.AIDifficulty;
+import fr.ai.game.programming.game.player.SearchLimits;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static fr.ai.game.programming.game.elements.EvaluationWeights.FEATURE_COUNT;
+
+/**
+ * Tunes the {@link EvaluationWeights} of {@link Board#evaluateBoardHeuristicUltimate()} on positions sampled from
+ * self-play games.
+ * <p>
+ * Every sampled position is labelled with the result of its game (1 if Player 1 won, 0.5 for a draw, 0 if Player 2
+ * won). Only positions with Player 1 to move are sampled: the hole features describe the holes of the player to move,
+ * so with Player 2 to move they would count against a result seen from the other side. The evaluation is mapped to a win probability with {@code sigmoid(k * evaluation)} and the weights are fitted
+ * by minimising the logistic loss between the probabilities and the results with Adam. The scale {@code k} is fitted
+ * once for the initial weights, so the tuned weights keep the magnitude of the evaluation. Since the evaluation is
+ * linear in the weights, every position is reduced to its feature vector once and the gradient over all positions is
+ * computed in parallel.
+ */
+public class WeightTuner {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final int[] features; // FEATURE_COUNT values per position
+    private final double[] results;
+    private final int positions;
+    private final ForkJoinPool pool;
+
+    private WeightTuner(int[] features, double[] results, ForkJoinPool pool) {
+        this.features = features;
+        this.results = results;
+        this.positions = results.length;
+        this.pool = pool;
+    }
+
+    /**
+     * Generate the tuning positions by letting the AI play against itself.
+     * @param difficulty the AI playing both sides
+     * @param games the number of games to play
+     * @param depth the search depth of every move
+     * @param randomPlies the number of random moves at the start of every game, so the games differ
+     * @param rule ends games which repeat positions or run too long
+     * @param threads the number of games played at the same time
+     * @param seed the seed of the random opening moves
+     */
+    public static WeightTuner fromSelfPlay(AIDifficulty difficulty, int games, int depth, int randomPlies,
+                                           RepetitionRule rule, int threads, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<SampledGame> sampled = pool.submit(() -> IntStream.range(0, games).parallel()
+                .mapToObj(game -> playGame(difficulty, depth, randomPlies, rule, new SplittableRandom(seed + game)))
+                .toList()).join();
+
+        int count = sampled.stream().mapToInt(game -> game.features().size()).sum();
+        int[] features = new int[count * FEATURE_COUNT];
+        double[] results = new double[count];
+        int index = 0;
+        for (SampledGame game : sampled) {
+            for (int[] position : game.features()) {
+                System.arraycopy(position, 0, features, index * FEATURE_COUNT, FEATURE_COUNT);
+                results[index++] = game.result();
+            }
+        }
+        return new WeightTuner(features, results, pool);
+    }
+
+    private record SampledGame(List<int[]> features, double result) {
+    }
+
+    private static SampledGame playGame(AIDifficulty difficulty, int depth, int randomPlies, RepetitionRule rule,
+                                        SplittableRandom random) {
+        SelfPlayGame game = new SelfPlayGame(difficulty.createManager(false), SearchLimits.ofDepth(depth), randomPlies,
+                rule);
+        List<int[]> positions = new ArrayList<>();
+        GameStatus status = game.play(random, (board, ply, result) -> {
+            if (board.getCurrentPlayer() == 1) {
+                int[] position = new int[FEATURE_COUNT];
+                board.collectEvaluationFeatures(position);
+                positions.add(position);
+            }
+        });
+        double result = status.winner() == 1 ? 1.0 : status.winner() == 2 ? 0.0 : 0.5;
+        return new SampledGame(positions, result);
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return the mean logistic loss of the weights over all positions
+     */
+    public double loss(double[] weights, double k) {
+        return pool.submit(() -> IntStream.range(0, chunks()).parallel()
+                .mapToDouble(chunk -> {
+                    double sum = 0;
+                    for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                        double p = sigmoid(k * evaluate(weights, i));
+                        double y = results[i];
+                        sum -= y * Math.log(Math.max(p, 1e-12)) + (1 - y) * Math.log(Math.max(1 - p, 1e-12));
+                    }
+                    return sum;
+                }).sum()).join() / positions;
+    }
+
+    /**
+     * @return the gradient of the mean logistic loss with respect to the weights
+     */
+    private double[] gradient(double[] weights, double k) {
+        double[] gradient = pool.submit(() -> IntStream.range(0, chunks()).parallel()
+                .mapToObj(chunk -> {
+                    double[] partial = new double[FEATURE_COUNT];
+                    for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                        double error = sigmoid(k * evaluate(weights, i)) - results[i];
+                        int offset = i * FEATURE_COUNT;
+                        for (int f = 0; f < FEATURE_COUNT; f++) {
+                            partial[f] += error * features[offset + f];
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(new double[FEATURE_COUNT], WeightTuner::add)).join();
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            gradient[f] *= k / positions;
+        }
+        return gradient;
+    }
+
+    /**
+     * Find the scale k which maps the evaluation of the given weights best to the game results.
+     */
+    public double fitScale(double[] weights) {
+        double bestK = 0.01;
+        double bestLoss = Double.MAX_VALUE;
+        for (double k = 0.0001; k < 1; k *= 1.25) {
+            double loss = loss(weights, k);
+            if (loss < bestLoss) {
+                bestLoss = loss;
+                bestK = k;
+            }
+        }
+        return bestK;
+    }
+
+    /**
+     * Tune the weights with Adam.
+     * @param initial the weights to start from
+     * @param iterations the number of gradient steps
+     * @param learningRate the step size in weight units
+     * @return the tuned weights, rounded to integers
+     */
+    public EvaluationWeights tune(EvaluationWeights initial, int iterations, double learningRate) {
+        double[] weights = Arrays.stream(initial.toArray()).asDoubleStream().toArray();
+        double k = fitScale(weights);
+        System.out.printf(Locale.ROOT, "Scale k=%.5f, initial loss=%.6f%n", k, loss(weights, k));
+
+        double beta1 = 0.9;
+        double beta2 = 0.999;
+        double[] m = new double[FEATURE_COUNT];
+        double[] v = new double[FEATURE_COUNT];
+        for (int t = 1; t <= iterations; t++) {
+            double[] g = gradient(weights, k);
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                m[f] = beta1 * m[f] + (1 - beta1) * g[f];
+                v[f] = beta2 * v[f] + (1 - beta2) * g[f] * g[f];
+                double mHat = m[f] / (1 - Math.pow(beta1, t));
+                double vHat = v[f] / (1 - Math.pow(beta2, t));
+                weights[f] -= learningRate * mHat / (Math.sqrt(vHat) + 1e-12);
+            }
+            if (t % 50 == 0 || t == iterations) {
+                System.out.printf(Locale.ROOT, "Iteration %d: loss=%.6f%n", t, loss(weights, k));
+            }
+        }
+
+        EvaluationWeights tuned = new EvaluationWeights(Arrays.stream(weights).mapToInt(w -> (int) Math.round(w)).toArray());
+        double[] rounded = Arrays.stream(tuned.toArray()).asDoubleStream().toArray();
+        System.out.printf(Locale.ROOT, "Tuned loss=%.6f (rounded weights)%n", loss(rounded, k));
+        return tuned;
+    }
+
+    private double evaluate(double[] weights, int position) {
+        int offset = position * FEATURE_COUNT;
+        double score = 0;
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            score += weights[f] * features[offset + f];
+        }
+        return score;
+    }
+
+    private int chunks() {
+        return (positions + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private int chunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private int chunkEnd(int chunk) {
+        return Math.min(positions, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    private static double[] add(double[] a, double[] b) {
+        double[] sum = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            sum[i] = a[i] + b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Run the tuner from the command line:
+     * {@code tune [--ai LEVEL] [--games N] [--depth N] [--random-plies N] [--rule REPETITIONS,MAX_PLIES,draw|adjudication]
+     * [--iterations N] [--threads N] [--out FILE]}.
+     * The weights are written to {@value EvaluationWeights#DEFAULT_WEIGHTS_FILE} by default, where the evaluation
+     * picks them up at the next start.
+     */
+    public static void run(String[] args) throws IOException {
+        AIDifficulty difficulty = AIDifficulty.PRO;
+        int games = 500;
+        int depth = 2;
+        int randomPlies = 6;
+        RepetitionRule rule = RepetitionRule.DEFAULT;
+        int iterations = 500;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = Path.of(EvaluationWeights.DEFAULT_WEIGHTS_FILE);
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ai" -> difficulty = AIDifficulty.fromName(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--rule" -> rule = RepetitionRule.parse(args[++i]);
+                case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        WeightTuner tuner = fromSelfPlay(difficulty, games, depth, randomPlies, rule, threads,
+                System.nanoTime());
+        System.out.println("Sampled " + tuner.getPositions() + " positions from " + games + " games in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+
+        EvaluationWeights tuned = tuner.tune(EvaluationWeights.getActive(), iterations, 0.5);
+        tuned.save(out, "Tuned on " + tuner.getPositions() + " self-play positions of " + games + " games");
+        System.out.println("Weights: " + tuned);
+        System.out.println("Written to " + out.toAbsolutePath());
+    }
+}
@@ -0,0 +1,67 @@
+package fr.ai.game.programming.archive;
+
+import fr.ai.game.programming.game.elements.SeedColor;
+import fr.ai.game.programming.game.player.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameArchiveWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameRecord game(int number) {
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < 10 + number; i++) {
+            moves.add(new Move(i % 16, i % 2 == 0 ? SeedColor.RED : SeedColor.BLUE));
+        }
+        return new GameRecord("Player " + number, "AI", number % 3, "Game " + number, number, 2 * number, moves);
+    }
+
+    private static void write(Path file, int from, int to) throws IOException {
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            for (int i = from; i < to; i++) {
+                writer.append(game(i));
+            }
+        }
+    }
+
+    private static List<GameRecord> read(Path file) throws IOException {
+        List<GameRecord> records = new ArrayList<>();
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            reader.forEach(records::add);
+        }
+        return records;
+    }
+
+    @Test
+    void continuesAnArchive() throws IOException {
+        Path file = directory.resolve("games.bin");
+        write(file, 0, 2);
+        write(file, 2, 5);
+
+        assertEquals(List.of(game(0), game(1), game(2), game(3), game(4)), read(file));
+    }
+
+    @Test
+    void dropsACutOffRecordBeforeAppending() throws IOException {
+        Path file = directory.resolve("games.bin");
+        write(file, 0, 2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 10); // A crash in the middle of the second game
+        }
+        write(file, 2, 7);
+
+        assertEquals(List.of(game(0), game(2), game(3), game(4), game(5), game(6)), read(file));
+    }
+}
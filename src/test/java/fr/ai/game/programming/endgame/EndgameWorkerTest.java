@@ -0,0 +1,45 @@
+package fr.ai.game.programming.endgame;
+
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.RandomBoards;
+import fr.ai.game.programming.game.elements.SeedColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EndgameWorkerTest {
+
+    private static int[] slots(Board board) {
+        int[] slots = new int[2 * TOTAL_HOLES];
+        for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+            slots[2 * hole] = board.getSeedsInHole(hole, SeedColor.BLUE);
+            slots[2 * hole + 1] = board.getSeedsInHole(hole, SeedColor.RED);
+        }
+        return slots;
+    }
+
+    @Test
+    void sowsLikeTheBoard() {
+        SplittableRandom random = new SplittableRandom(39);
+        for (int i = 0; i < 10_000; i++) {
+            Board board = RandomBoards.next(random);
+            int player = board.getCurrentPlayer();
+            for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+                int bit = Integer.numberOfTrailingZeros(mask);
+                int hole = Board.moveHole(player, bit);
+                SeedColor color = Board.moveColor(bit);
+                Board child = RandomBoards.play(board, hole, color);
+
+                int[] slots = slots(board);
+                int captured = EndgameWorker.sow(slots, hole, color == SeedColor.BLUE ? 0 : 1);
+                assertArrayEquals(slots(child), slots);
+                assertEquals(child.getPlayer1Seeds() + child.getPlayer2Seeds()
+                        - board.getPlayer1Seeds() - board.getPlayer2Seeds(), captured);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package fr.ai.game.programming.game.elements;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PositionTest {
+
+    private static Board board(int blueSeedsInFirstHole) {
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        blue[0] = blueSeedsInFirstHole;
+        red[1] = 1;
+        return Board.fromPosition(blue, red, 0, 0, 1);
+    }
+
+    @Test
+    void keepsTheLargestCount() {
+        Position position = Position.of(board(Byte.MAX_VALUE));
+        assertEquals(Byte.MAX_VALUE, position.getSeedsInHole(0, SeedColor.BLUE));
+    }
+
+    @Test
+    void rejectsCountsAByteCannotHold() {
+        Board board = board(Byte.MAX_VALUE + 1);
+        assertThrows(IllegalArgumentException.class, () -> Position.of(board));
+    }
+
+    @Test
+    void playsLikeTheBoard() {
+        SplittableRandom random = new SplittableRandom(44);
+        for (int i = 0; i < 10_000; i++) {
+            Board board = RandomBoards.next(random);
+            Position position = Position.of(board);
+            int player = board.getCurrentPlayer();
+            for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+                int bit = Integer.numberOfTrailingZeros(mask);
+                int hole = Board.moveHole(player, bit);
+                SeedColor color = Board.moveColor(bit);
+                assertEquals(Position.of(RandomBoards.play(board, hole, color)), position.play(hole, color),
+                        () -> position + " sowing " + color + " from hole " + (hole + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package fr.ai.game.programming.game.elements;
+
+import java.util.SplittableRandom;
+
+import static fr.ai.game.programming.game.elements.Board.TOTAL_HOLES;
+
+/**
+ * Random positions for tests which compare a re-implementation of the rules with {@link Board}. The seeds on the board
+ * and the captured seeds add up to 64, some of the positions are already over.
+ */
+public final class RandomBoards {
+
+    private RandomBoards() {
+    }
+
+    /**
+     * @return a board with 2 to 64 seeds in random holes and the other seeds captured by random players
+     */
+    public static Board next(SplittableRandom random) {
+        int[] blue = new int[TOTAL_HOLES];
+        int[] red = new int[TOTAL_HOLES];
+        int onBoard = random.nextInt(2, 65);
+        for (int i = 0; i < onBoard; i++) {
+            int hole = random.nextInt(TOTAL_HOLES);
+            if (random.nextBoolean()) {
+                blue[hole]++;
+            } else {
+                red[hole]++;
+            }
+        }
+        int player1Seeds = random.nextInt(64 - onBoard + 1);
+        return Board.fromPosition(blue, red, player1Seeds, 64 - onBoard - player1Seeds, random.nextInt(1, 3));
+    }
+
+    /**
+     * @return the board after the move by {@link Board#sowSeeds(int, SeedColor)}, with the other player to move
+     */
+    public static Board play(Board board, int hole, SeedColor color) {
+        Board child = board.copy();
+        child.sowSeeds(hole, color);
+        child.switchPlayer();
+        return child;
+    }
+}
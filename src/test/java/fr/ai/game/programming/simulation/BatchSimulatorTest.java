@@ -0,0 +1,60 @@
+package fr.ai.game.programming.simulation;
+
+import fr.ai.game.programming.game.GameStatus;
+import fr.ai.game.programming.game.elements.Board;
+import fr.ai.game.programming.game.elements.Position;
+import fr.ai.game.programming.game.elements.RandomBoards;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSimulatorTest {
+
+    private static byte status(Board board) {
+        GameStatus status = board.copy().checkGameStatus();
+        if (!status.isGameOver()) {
+            return BatchSimulator.RUNNING;
+        }
+        return switch (status.winner()) {
+            case 1 -> BatchSimulator.PLAYER1_WINS;
+            case 2 -> BatchSimulator.PLAYER2_WINS;
+            default -> BatchSimulator.DRAW;
+        };
+    }
+
+    @Test
+    void playsAndEndsGamesLikeTheBoard() {
+        SplittableRandom random = new SplittableRandom(45);
+        BatchSimulator simulator = new BatchSimulator(1, Integer.MAX_VALUE, 45);
+        for (int i = 0; i < 10_000; i++) {
+            Board board = RandomBoards.next(random);
+            simulator.reset(0, Position.of(board));
+            assertEquals(status(board), simulator.getStatus(0), board::toString);
+            if (simulator.getStatus(0) != BatchSimulator.RUNNING) {
+                continue;
+            }
+
+            // The random move must be one of the legal moves, played and checked like on the board
+            simulator.step();
+            Position played = simulator.getPosition(0);
+            Set<Position> children = new HashSet<>();
+            Board child = null;
+            int player = board.getCurrentPlayer();
+            for (int mask = board.getMoveMask(player); mask != 0; mask &= mask - 1) {
+                int bit = Integer.numberOfTrailingZeros(mask);
+                Board candidate = RandomBoards.play(board, Board.moveHole(player, bit), Board.moveColor(bit));
+                children.add(Position.of(candidate));
+                if (Position.of(candidate).equals(played)) {
+                    child = candidate;
+                }
+            }
+            assertTrue(children.contains(played), () -> played + " is no child of " + Position.of(board));
+            assertEquals(status(child), simulator.getStatus(0), played::toString);
+        }
+    }
+}